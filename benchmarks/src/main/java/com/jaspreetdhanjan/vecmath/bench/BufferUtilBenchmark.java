@@ -0,0 +1,77 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.util.BufferUtil;
+
+/**
+ * Benchmarks for uploading many matrices into one direct buffer, comparing BufferUtil with a loop over Mat4.putInto(FloatBuffer, int).
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BufferUtilBenchmark {
+	@Param({ "1024", "10000" })
+	public int size;
+
+	private Mat4[] matrices;
+	private ByteBuffer bytes;
+	private FloatBuffer floats;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		matrices = new Mat4[size];
+		for (int i = 0; i < size; i++) {
+			matrices[i] = new Mat4().translate(random.nextFloat(), random.nextFloat(), random.nextFloat()).scale(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		}
+		bytes = ByteBuffer.allocateDirect(size * 16 * 4).order(ByteOrder.nativeOrder());
+		floats = bytes.asFloatBuffer();
+	}
+
+	@Benchmark
+	public FloatBuffer putIntoLoop() {
+		for (int i = 0; i < size; i++) {
+			matrices[i].putInto(floats, i * 16);
+		}
+		return floats;
+	}
+
+	@Benchmark
+	public int putFloatBuffer() {
+		return BufferUtil.put(matrices, floats, 0, false);
+	}
+
+	@Benchmark
+	public int putFloatBufferTransposed() {
+		return BufferUtil.put(matrices, floats, 0, true);
+	}
+
+	@Benchmark
+	public int putByteBuffer() {
+		return BufferUtil.put(matrices, bytes, 0, false);
+	}
+}
\ No newline at end of file
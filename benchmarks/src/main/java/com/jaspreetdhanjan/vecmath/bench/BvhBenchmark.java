@@ -0,0 +1,94 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.spatial.Bvh;
+import com.jaspreetdhanjan.vecmath.spatial.RayHit;
+
+/**
+ * Benchmarks for building a Bvh over random triangles and for ray and box queries against it.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BvhBenchmark {
+	@Param({ "65536", "1048576" })
+	public int size;
+
+	private Vec3Array v0;
+	private Vec3Array v1;
+	private Vec3Array v2;
+	private Bvh bvh;
+	private final RayHit hit = new RayHit();
+	private final Vec3[] origins = new Vec3[1024];
+	private final Vec3[] dirs = new Vec3[1024];
+	private final Vec3 min = new Vec3(40, 40, 40);
+	private final Vec3 max = new Vec3(45, 45, 45);
+	private int[] found;
+	private int ray;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		v0 = new Vec3Array(size);
+		v1 = new Vec3Array(size);
+		v2 = new Vec3Array(size);
+		for (int i = 0; i < size; i++) {
+			float x = random.nextFloat() * 100f, y = random.nextFloat() * 100f, z = random.nextFloat() * 100f;
+			v0.set(i, x, y, z);
+			v1.set(i, x + random.nextFloat(), y + random.nextFloat(), z);
+			v2.set(i, x, y + random.nextFloat(), z + random.nextFloat());
+		}
+		bvh = new Bvh(v0, v1, v2);
+		for (int i = 0; i < origins.length; i++) {
+			origins[i] = new Vec3(random.nextFloat() * 100f, random.nextFloat() * 100f, -1f);
+			dirs[i] = new Vec3(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, 1f);
+		}
+		found = new int[size];
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 1)
+	@Measurement(iterations = 3, time = 1)
+	public Bvh build() {
+		return new Bvh(v0, v1, v2);
+	}
+
+	@Benchmark
+	public boolean raycast() {
+		int i = ray++ & (origins.length - 1);
+		return bvh.raycast(origins[i], dirs[i], Float.POSITIVE_INFINITY, hit);
+	}
+
+	@Benchmark
+	public boolean anyHit() {
+		int i = ray++ & (origins.length - 1);
+		return bvh.anyHit(origins[i], dirs[i], Float.POSITIVE_INFINITY, hit);
+	}
+
+	@Benchmark
+	public int overlap() {
+		return bvh.overlap(min, max, found);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.spatial.Frustum;
+import com.jaspreetdhanjan.vecmath.util.MatrixUtil;
+
+/**
+ * Benchmarks for batch frustum culling of spheres and boxes, sequentially and on the common ForkJoinPool.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FrustumBenchmark {
+	@Param({ "65536", "1048576" })
+	public int size;
+
+	private final Frustum frustum = new Frustum();
+	private Vec3Array centers;
+	private float[] radii;
+	private Vec3Array min;
+	private Vec3Array max;
+	private int[] visible;
+
+	@Setup
+	public void setup() {
+		Mat4 view = new Mat4().translate(0, -2, -5).mul(MatrixUtil.lookAt(new Vec3(), new Vec3(0, 0, -1), new Vec3(0, 1, 0), new Mat4()));
+		frustum.set(view.mul(MatrixUtil.createPerspectiveMatrix(70f, 16f / 9f, 0.1f, 500f)));
+
+		Random random = new Random(42);
+		centers = new Vec3Array(size);
+		radii = new float[size];
+		min = new Vec3Array(size);
+		max = new Vec3Array(size);
+		visible = new int[size];
+		for (int i = 0; i < size; i++) {
+			float x = random.nextFloat() * 1000f - 500f, y = random.nextFloat() * 1000f - 500f, z = random.nextFloat() * 1000f - 500f, r = random.nextFloat() * 4f;
+			centers.set(i, x, y, z);
+			radii[i] = r;
+			min.set(i, x - r, y - r, z - r);
+			max.set(i, x + r, y + r, z + r);
+		}
+	}
+
+	@Benchmark
+	public int cullSpheres() {
+		return frustum.cullSpheres(centers, radii, 0, size, visible);
+	}
+
+	@Benchmark
+	public int cullSpheresParallel() {
+		return frustum.cullSpheres(centers, radii, 0, size, visible, ForkJoinPool.commonPool());
+	}
+
+	@Benchmark
+	public int cullAabbs() {
+		return frustum.cullAabbs(min, max, 0, size, visible);
+	}
+
+	@Benchmark
+	public int cullAabbsParallel() {
+		return frustum.cullAabbs(min, max, 0, size, visible, ForkJoinPool.commonPool());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.spatial.KdTree;
+
+/**
+ * Benchmarks for building a KdTree over random points and for nearest neighbour and radius queries against it, compared with a linear scan.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KdTreeBenchmark {
+	@Param({ "65536", "1048576" })
+	public int size;
+
+	@Param({ "1", "16" })
+	public int k;
+
+	private Vec3Array points;
+	private KdTree tree;
+	private final Vec3[] queries = new Vec3[1024];
+	private final Vec3 point = new Vec3();
+	private int[] found;
+	private float[] foundDistance;
+	private int query;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		points = new Vec3Array(size);
+		for (int i = 0; i < size; i++) {
+			points.set(i, random.nextFloat() * 100f, random.nextFloat() * 100f, random.nextFloat() * 100f);
+		}
+		tree = new KdTree(points);
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = new Vec3(random.nextFloat() * 100f, random.nextFloat() * 100f, random.nextFloat() * 100f);
+		}
+		found = new int[Math.max(k, 1024)];
+		foundDistance = new float[k];
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 1)
+	@Measurement(iterations = 3, time = 1)
+	public KdTree build() {
+		return new KdTree(points);
+	}
+
+	@Benchmark
+	public int nearest() {
+		return tree.nearest(queries[query++ & (queries.length - 1)], k, found, foundDistance);
+	}
+
+	@Benchmark
+	public int query() {
+		return tree.query(queries[query++ & (queries.length - 1)], 2f, found);
+	}
+
+	@Benchmark
+	public int nearestScan() {
+		Vec3 q = queries[query++ & (queries.length - 1)];
+		int best = -1;
+		float bestDistance = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			float d = q.distanceToSqrd(points.get(i, point));
+			if (d < bestDistance) {
+				bestDistance = d;
+				best = i;
+			}
+		}
+		return best;
+	}
+}
\ No newline at end of file
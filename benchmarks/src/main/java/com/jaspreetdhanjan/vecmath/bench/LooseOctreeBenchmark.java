@@ -0,0 +1,83 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.spatial.LooseOctree;
+
+/**
+ * Benchmarks for moving every object of a LooseOctree a small step, as in one frame of a simulation, and for box and sphere queries against it.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LooseOctreeBenchmark {
+	@Param({ "16384", "131072" })
+	public int size;
+
+	private LooseOctree octree;
+	private int[] handles;
+	private float[] x, y, z;
+	private final Random random = new Random(42);
+	private final Vec3 min = new Vec3();
+	private final Vec3 max = new Vec3();
+	private final int[] found = new int[4096];
+
+	@Setup
+	public void setup() {
+		octree = new LooseOctree(new Vec3(0, 0, 0), 512f, 7);
+		handles = new int[size];
+		x = new float[size];
+		y = new float[size];
+		z = new float[size];
+		for (int i = 0; i < size; i++) {
+			x[i] = random.nextFloat() * 1000f - 500f;
+			y[i] = random.nextFloat() * 1000f - 500f;
+			z[i] = random.nextFloat() * 1000f - 500f;
+			handles[i] = octree.insert(min.set(x[i] - 1f, y[i] - 1f, z[i] - 1f), max.set(x[i] + 1f, y[i] + 1f, z[i] + 1f));
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 1)
+	@Measurement(iterations = 3, time = 1)
+	public LooseOctree moveAll() {
+		for (int i = 0; i < size; i++) {
+			x[i] += random.nextFloat() - 0.5f;
+			y[i] += random.nextFloat() - 0.5f;
+			z[i] += random.nextFloat() - 0.5f;
+			octree.move(handles[i], min.set(x[i] - 1f, y[i] - 1f, z[i] - 1f), max.set(x[i] + 1f, y[i] + 1f, z[i] + 1f));
+		}
+		return octree;
+	}
+
+	@Benchmark
+	public int queryBox() {
+		float cx = random.nextFloat() * 1000f - 500f, cy = random.nextFloat() * 1000f - 500f, cz = random.nextFloat() * 1000f - 500f;
+		return octree.queryBox(min.set(cx - 20f, cy - 20f, cz - 20f), max.set(cx + 20f, cy + 20f, cz + 20f), found);
+	}
+
+	@Benchmark
+	public int querySphere() {
+		return octree.querySphere(min.set(random.nextFloat() * 1000f - 500f, random.nextFloat() * 1000f - 500f, random.nextFloat() * 1000f - 500f), 20f, found);
+	}
+}
\ No newline at end of file
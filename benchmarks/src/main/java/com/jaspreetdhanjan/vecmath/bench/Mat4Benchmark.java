@@ -0,0 +1,279 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat3;
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Quat;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.util.MatrixUtil;
+
+/**
+ * Benchmarks for every public operation of Mat4 and MatrixUtil, including the chained fluent usage from the README.
+ * 
+ * Mutating operations are applied to a copy of a fixed input so that every invocation does the same work. The set benchmark is the cost of that copy.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Mat4Benchmark {
+	private final Mat4 a = new Mat4();
+	private final Mat4 b = new Mat4();
+	private final Mat4 tmp = new Mat4();
+	private final Mat4 rigid = new Mat4();
+	private final Mat4 projection = new Mat4();
+	private final Mat3 normal = new Mat3();
+	private final Vec3 p = new Vec3();
+	private final Vec3 axis = new Vec3();
+	private final Vec3 tmp3 = new Vec3();
+	private final Vec3 scale = new Vec3(2f, 3f, 4f);
+	private final Quat rotation = new Quat();
+	private final Vec3 eye = new Vec3();
+	private final Vec3 center = new Vec3();
+	private final FloatBuffer buffer = FloatBuffer.allocate(16);
+	private float angle;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		p.set(random.nextFloat() * 10f, random.nextFloat() * 10f, random.nextFloat() * 10f);
+		axis.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		float axisLen = axis.length();
+		axis.set(axis.x / axisLen, axis.y / axisLen, axis.z / axisLen);
+		eye.set(0f, 2f, 5f);
+		center.set(random.nextFloat(), random.nextFloat(), random.nextFloat());
+		angle = random.nextFloat() * 3f;
+		a.identity().translate(p).rotate(angle, axis).scale(2f, 3f, 4f);
+		b.identity().translate(-1f, 2f, -3f).rotY(angle);
+		rigid.identity().translate(p).rotate(angle, axis);
+		MatrixUtil.createPerspectiveMatrix(70f, 16f / 9f, 0.1f, 1000f, projection).mul(a);
+		a.putInto(buffer);
+		rotation.setAxisAngle(angle, axis);
+	}
+
+	@Benchmark
+	public Mat4 set() {
+		return tmp.set(a);
+	}
+
+	@Benchmark
+	public Mat4 setFloatBuffer() {
+		return tmp.set(buffer);
+	}
+
+	@Benchmark
+	public FloatBuffer putInto() {
+		a.putInto(buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public Mat4 setZero() {
+		return tmp.setZero();
+	}
+
+	@Benchmark
+	public Mat4 identity() {
+		return tmp.identity();
+	}
+
+	@Benchmark
+	public Mat4 translate() {
+		return tmp.set(a).translate(p);
+	}
+
+	@Benchmark
+	public Mat4 rotX() {
+		return tmp.set(a).rotX(angle);
+	}
+
+	@Benchmark
+	public Mat4 rotY() {
+		return tmp.set(a).rotY(angle);
+	}
+
+	@Benchmark
+	public Mat4 rotZ() {
+		return tmp.set(a).rotZ(angle);
+	}
+
+	@Benchmark
+	public Mat4 rotate() {
+		return tmp.set(a).rotate(angle, axis);
+	}
+
+	@Benchmark
+	public Mat4 scale() {
+		return tmp.set(a).scale(p);
+	}
+
+	@Benchmark
+	public Mat4 addScalar() {
+		return tmp.set(a).add(angle);
+	}
+
+	@Benchmark
+	public Mat4 addMat4() {
+		return tmp.set(a).add(b);
+	}
+
+	@Benchmark
+	public Vec3 mulVec3() {
+		return a.mul(p);
+	}
+
+	@Benchmark
+	public Vec3 mulVec3Dest() {
+		return a.mul(p, tmp3);
+	}
+
+	@Benchmark
+	public Mat4 mulScalar() {
+		return tmp.set(a).mul(angle);
+	}
+
+	@Benchmark
+	public Mat4 mulMat4() {
+		return tmp.set(a).mul(b);
+	}
+
+	@Benchmark
+	public Mat4 lerpTo() {
+		return tmp.set(a).lerpTo(b, 0.5f);
+	}
+
+	@Benchmark
+	public Mat4 negate() {
+		return tmp.set(a).negate();
+	}
+
+	@Benchmark
+	public float getDeterminant() {
+		return a.getDeterminant();
+	}
+
+	@Benchmark
+	public Mat4 inverse() {
+		return tmp.set(a).inverse();
+	}
+
+	@Benchmark
+	public Mat4 inverseOrthonormal() {
+		return tmp.set(rigid).inverse();
+	}
+
+	@Benchmark
+	public Mat4 inverseGeneral() {
+		return tmp.set(projection).inverse();
+	}
+
+	@Benchmark
+	public Mat4 mulMat4General() {
+		return tmp.set(projection).mul(a);
+	}
+
+	@Benchmark
+	public float getDeterminantGeneral() {
+		return projection.getDeterminant();
+	}
+
+	@Benchmark
+	public Mat4 transpose() {
+		return tmp.set(a).transpose();
+	}
+
+	@Benchmark
+	public Mat4 reciprocal() {
+		return tmp.set(a).reciprocal();
+	}
+
+	@Benchmark
+	public Mat4 cloneMat4() {
+		return a.clone();
+	}
+
+	@Benchmark
+	public Mat4 fluentModelView() {
+		return new Mat4().translate(p).rotX(angle);
+	}
+
+	@Benchmark
+	public Mat4 fluentModelViewReused() {
+		return tmp.identity().translate(p).rotX(angle);
+	}
+
+	@Benchmark
+	public Mat4 fluentTrs() {
+		return tmp.identity().translate(p).rotX(angle).rotY(angle).rotZ(angle).scale(2f, 3f, 4f);
+	}
+
+	@Benchmark
+	public Mat4 translationRotateScale() {
+		return tmp.translationRotateScale(p.x, p.y, p.z, angle, angle, angle, 2f, 3f, 4f);
+	}
+
+	@Benchmark
+	public Mat4 translationRotateScaleQuat() {
+		return tmp.translationRotateScale(p, rotation, scale);
+	}
+
+	@Benchmark
+	public Quat decompose() {
+		a.decompose(tmp3, rotation, scale);
+		return rotation;
+	}
+
+	@Benchmark
+	public Mat4 normalMatrix() {
+		return MatrixUtil.createNormalMatrix(a);
+	}
+
+	@Benchmark
+	public Mat4 normalMatrixDest() {
+		return MatrixUtil.createNormalMatrix(a, tmp);
+	}
+
+	@Benchmark
+	public Mat3 normalMatrixMat3() {
+		return MatrixUtil.createNormalMatrix(a, normal);
+	}
+
+	@Benchmark
+	public Mat4 perspectiveMatrix() {
+		return MatrixUtil.createPerspectiveMatrix(70f, 16f / 9f, 0.1f, 1000f);
+	}
+
+	@Benchmark
+	public Mat4 perspectiveMatrixDest() {
+		return MatrixUtil.createPerspectiveMatrix(70f, 16f / 9f, 0.1f, 1000f, tmp);
+	}
+
+	@Benchmark
+	public Mat4 orthographicMatrixDest() {
+		return MatrixUtil.createOrthographicMatrix(-1f, 1f, -1f, 1f, 0.1f, 100f, tmp);
+	}
+
+	@Benchmark
+	public Mat4 lookAtDest() {
+		return MatrixUtil.lookAt(eye, center, Vec3.Y, tmp);
+	}
+}
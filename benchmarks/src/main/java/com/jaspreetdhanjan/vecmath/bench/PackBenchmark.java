@@ -0,0 +1,90 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.util.PackUtil;
+
+/**
+ * Benchmarks for the bulk encode and decode methods of PackUtil over random unit vectors.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PackBenchmark {
+	@Param({ "4096", "1048576" })
+	public int size;
+
+	private Vec3Array normals;
+	private Vec3Array decoded;
+	private short[] halves;
+	private int[] octahedral;
+	private int[] snorm;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		normals = new Vec3Array(size);
+		decoded = new Vec3Array(size);
+		for (int i = 0; i < size; i++) {
+			float x = (float) random.nextGaussian(), y = (float) random.nextGaussian(), z = (float) random.nextGaussian();
+			float invLen = 1f / (float) Math.sqrt(x * x + y * y + z * z);
+			normals.set(i, x * invLen, y * invLen, z * invLen);
+		}
+		halves = new short[size * 3];
+		octahedral = new int[size];
+		snorm = new int[size];
+		PackUtil.packHalf(normals, 0, size, halves, 0);
+		PackUtil.packOctahedral(normals, 0, size, octahedral, 0);
+		PackUtil.packSnorm1010102(normals, 0, size, snorm, 0);
+	}
+
+	@Benchmark
+	public int packHalf() {
+		return PackUtil.packHalf(normals, 0, size, halves, 0);
+	}
+
+	@Benchmark
+	public Vec3Array unpackHalf() {
+		return PackUtil.unpackHalf(halves, 0, decoded, 0, size);
+	}
+
+	@Benchmark
+	public int packOctahedral() {
+		return PackUtil.packOctahedral(normals, 0, size, octahedral, 0);
+	}
+
+	@Benchmark
+	public Vec3Array unpackOctahedral() {
+		return PackUtil.unpackOctahedral(octahedral, 0, decoded, 0, size);
+	}
+
+	@Benchmark
+	public int packSnorm1010102() {
+		return PackUtil.packSnorm1010102(normals, 0, size, snorm, 0);
+	}
+
+	@Benchmark
+	public Vec3Array unpackSnorm1010102() {
+		return PackUtil.unpackSnorm1010102(snorm, 0, decoded, 0, size);
+	}
+}
\ No newline at end of file
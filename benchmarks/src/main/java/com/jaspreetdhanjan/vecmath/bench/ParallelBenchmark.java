@@ -0,0 +1,81 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.util.MatrixUtil;
+import com.jaspreetdhanjan.vecmath.util.ParallelUtil;
+
+/**
+ * Benchmarks for the parallel bulk operations of ParallelUtil at different sequential thresholds, compared against the sequential Vec3Array methods. The threshold with the best throughput on the target machine is the one to pass to ParallelUtil.setThreshold().
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParallelBenchmark {
+	@Param({ "4194304" })
+	public int size;
+
+	@Param({ "4096", "16384", "65536", "262144" })
+	public int threshold;
+
+	private Vec3Array points;
+	private Vec3Array result;
+	private Mat4 transform;
+	private Mat4 projection;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		points = new Vec3Array(size);
+		result = new Vec3Array(size);
+		for (int i = 0; i < size; i++) {
+			points.set(i, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f);
+		}
+		transform = new Mat4().rotate(0.5f, new Vec3(0, 1, 0)).translate(new Vec3(1, 2, 3));
+		projection = transform.clone().mul(MatrixUtil.createPerspectiveMatrix(70f, 1.5f, 0.1f, 1000f));
+		ParallelUtil.setThreshold(threshold);
+	}
+
+	@Benchmark
+	public Vec3Array transformSequential() {
+		return points.transform(transform, result, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array transformParallel() {
+		return ParallelUtil.transform(points, transform, result, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array projectParallel() {
+		return ParallelUtil.project(points, projection, result, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array normaliseParallel() {
+		result.set(points, 0, size);
+		return ParallelUtil.normalise(result, 0, size);
+	}
+}
\ No newline at end of file
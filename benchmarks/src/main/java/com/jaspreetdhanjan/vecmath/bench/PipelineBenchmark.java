@@ -0,0 +1,103 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec2Array;
+import com.jaspreetdhanjan.vecmath.Vec2Pipeline;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.Vec3Pipeline;
+
+/**
+ * Benchmarks for the fused Vec3Pipeline and Vec2Pipeline against the same chain of Vec3Array and Vec2Array calls, which makes one pass over memory per operation. The largest size does not fit in the last-level cache, so the difference there is the saving in memory bandwidth.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PipelineBenchmark {
+	@Param({ "65536", "4194304" })
+	public int size;
+
+	private Vec3Array a;
+	private Vec3Array b;
+	private Vec3Array result;
+	private Vec3Pipeline pipeline;
+	private Vec3Pipeline transformPipeline;
+	private Vec2Array a2;
+	private Vec2Array b2;
+	private Vec2Array result2;
+	private Vec2Pipeline pipeline2;
+	private final Vec3 offset = new Vec3(0.5f, -0.25f, 1f);
+	private final Mat4 transform = new Mat4();
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		a = new Vec3Array(size);
+		b = new Vec3Array(size);
+		result = new Vec3Array(size);
+		a2 = new Vec2Array(size);
+		b2 = new Vec2Array(size);
+		result2 = new Vec2Array(size);
+		for (int i = 0; i < size; i++) {
+			a.set(i, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f);
+			b.set(i, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f);
+			a2.set(i, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f);
+			b2.set(i, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f);
+		}
+		transform.translationRotateScale(1f, 2f, 3f, 0.3f, 0.5f, 0.7f, 2f, 2f, 2f);
+		pipeline = new Vec3Pipeline(a).add(b).mul(0.5f).normalise();
+		transformPipeline = new Vec3Pipeline(a).sub(offset).transform(transform).normalise().lerpTo(b, 0.25f);
+		pipeline2 = new Vec2Pipeline(a2).add(b2).mul(0.5f).normalise();
+	}
+
+	@Benchmark
+	public Vec3Array addMulNormaliseChained() {
+		return result.set(a, 0, size).add(b, 0, size).mul(0.5f, 0, size).normalise(0, size);
+	}
+
+	@Benchmark
+	public Vec3Array addMulNormaliseFused() {
+		return pipeline.into(result, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array transformChainChained() {
+		return result.set(a, 0, size).sub(offset, 0, size).transform(transform, 0, size).normalise(0, size).lerpTo(b, 0.25f, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array transformChainFused() {
+		return transformPipeline.into(result, 0, size);
+	}
+
+	@Benchmark
+	public Vec2Array addMulNormaliseChained2() {
+		return result2.set(a2, 0, size).add(b2, 0, size).mul(0.5f, 0, size).normalise(0, size);
+	}
+
+	@Benchmark
+	public Vec2Array addMulNormaliseFused2() {
+		return pipeline2.into(result2, 0, size);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Quat;
+import com.jaspreetdhanjan.vecmath.Vec3;
+
+/**
+ * Benchmarks for Quat, compared against composing the same rotations with Mat4.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QuatBenchmark {
+	private final Quat a = new Quat();
+	private final Quat b = new Quat();
+	private final Quat tmp = new Quat();
+	private final Mat4 ma = new Mat4();
+	private final Mat4 mb = new Mat4();
+	private final Mat4 tmpMat = new Mat4();
+	private final Vec3 axis = new Vec3();
+	private final Vec3 v = new Vec3();
+	private final Vec3 tmp3 = new Vec3();
+	private float angle;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		axis.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		float axisLen = axis.length();
+		axis.set(axis.x / axisLen, axis.y / axisLen, axis.z / axisLen);
+		angle = random.nextFloat() * 3f;
+		v.set(random.nextFloat(), random.nextFloat(), random.nextFloat());
+		a.setAxisAngle(angle, axis);
+		b.setAxisAngle(-angle, Vec3.Y);
+		ma.set(a);
+		mb.set(b);
+	}
+
+	@Benchmark
+	public Quat mulQuat() {
+		return tmp.set(a).mul(b);
+	}
+
+	@Benchmark
+	public Mat4 mulMat4() {
+		return tmpMat.set(ma).mul(mb);
+	}
+
+	@Benchmark
+	public Quat rotate() {
+		return tmp.set(a).rotate(angle, axis);
+	}
+
+	@Benchmark
+	public Quat normalise() {
+		return tmp.set(a).normalise();
+	}
+
+	@Benchmark
+	public Quat slerp() {
+		return tmp.set(a).slerp(b, 0.3f);
+	}
+
+	@Benchmark
+	public Quat nlerp() {
+		return tmp.set(a).nlerp(b, 0.3f);
+	}
+
+	@Benchmark
+	public Vec3 mulVec3() {
+		return a.mul(v, tmp3);
+	}
+
+	@Benchmark
+	public Mat4 toMat4() {
+		return a.toMat4(tmpMat);
+	}
+
+	@Benchmark
+	public Mat4 rotateMat4ByQuat() {
+		return tmpMat.set(ma).rotate(b);
+	}
+}
@@ -0,0 +1,130 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.spatial.RayHit;
+import com.jaspreetdhanjan.vecmath.spatial.RayPacket;
+import com.jaspreetdhanjan.vecmath.spatial.RayTriangle;
+
+/**
+ * Benchmarks for the RayTriangle kernel with single rays and with packets of 4 and 8 rays, compared against Moller-Trumbore written with cloned Vec3 temporaries. Every benchmark casts 8 rays, so the scores are directly comparable.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RayTriangleBenchmark {
+	private static final int RAYS = 8;
+
+	@Param({ "64", "4096" })
+	public int size;
+
+	private Vec3Array v0;
+	private Vec3Array v1;
+	private Vec3Array v2;
+	private RayTriangle triangles;
+	private final Vec3[] origins = new Vec3[RAYS];
+	private final Vec3[] dirs = new Vec3[RAYS];
+	private final RayHit hit = new RayHit();
+	private final RayPacket packet4 = new RayPacket(4);
+	private final RayPacket packet8 = new RayPacket(RAYS);
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		v0 = new Vec3Array(size);
+		v1 = new Vec3Array(size);
+		v2 = new Vec3Array(size);
+		for (int i = 0; i < size; i++) {
+			float x = random.nextFloat() * 10f, y = random.nextFloat() * 10f, z = random.nextFloat() * 10f;
+			v0.set(i, x, y, z);
+			v1.set(i, x + random.nextFloat(), y + random.nextFloat(), z);
+			v2.set(i, x, y + random.nextFloat(), z + random.nextFloat());
+		}
+		triangles = new RayTriangle(v0, v1, v2);
+		for (int i = 0; i < RAYS; i++) {
+			origins[i] = new Vec3(random.nextFloat() * 10f, random.nextFloat() * 10f, -1f);
+			dirs[i] = new Vec3(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, 1f);
+		}
+	}
+
+	@Benchmark
+	public int raycastVec3Temporaries() {
+		int hits = 0;
+		Vec3 a = new Vec3(), b = new Vec3(), c = new Vec3();
+		for (int r = 0; r < RAYS; r++) {
+			Vec3 origin = origins[r], dir = dirs[r];
+			float nearest = Float.POSITIVE_INFINITY;
+			for (int i = 0; i < size; i++) {
+				v0.get(i, a);
+				v1.get(i, b);
+				v2.get(i, c);
+				Vec3 e1 = b.clone().sub(a);
+				Vec3 e2 = c.clone().sub(a);
+				Vec3 p = dir.clone().cross(e2);
+				float det = e1.dot(p);
+				if (det > -1e-12f && det < 1e-12f) continue;
+				float inv = 1f / det;
+				Vec3 t = origin.clone().sub(a);
+				float u = t.dot(p) * inv;
+				if (u < 0f || u > 1f) continue;
+				Vec3 q = t.clone().cross(e1);
+				float v = dir.dot(q) * inv;
+				if (v < 0f || u + v > 1f) continue;
+				float distance = e2.dot(q) * inv;
+				if (distance > 0f && distance < nearest) nearest = distance;
+			}
+			if (nearest != Float.POSITIVE_INFINITY) hits++;
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int raycast() {
+		int hits = 0;
+		for (int r = 0; r < RAYS; r++) {
+			if (triangles.raycast(origins[r], dirs[r], Float.POSITIVE_INFINITY, hit)) hits++;
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int raycastPacket4() {
+		int hits = 0;
+		for (int r = 0; r < RAYS; r += 4) {
+			for (int i = 0; i < 4; i++) {
+				packet4.set(i, origins[r + i], dirs[r + i], Float.POSITIVE_INFINITY);
+			}
+			hits += triangles.raycast(packet4);
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int raycastPacket8() {
+		for (int i = 0; i < RAYS; i++) {
+			packet8.set(i, origins[i], dirs[i], Float.POSITIVE_INFINITY);
+		}
+		return triangles.raycast(packet8);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.spatial.SpatialHashGrid;
+
+/**
+ * Benchmarks for rebuilding a SpatialHashGrid over random points and for radius and pair queries against it.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpatialHashGridBenchmark {
+	@Param({ "65536", "524288" })
+	public int size;
+
+	private Vec3Array points;
+	private final SpatialHashGrid grid = new SpatialHashGrid(1f);
+	private final Vec3[] centers = new Vec3[1024];
+	private final int[] found = new int[1024];
+	private long pairs;
+	private int query;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		// Keeps about the same density of points for every size
+		float extent = (float) Math.cbrt(size) * 1.5f;
+		points = new Vec3Array(size);
+		for (int i = 0; i < size; i++) {
+			points.set(i, random.nextFloat() * extent, random.nextFloat() * extent, random.nextFloat() * extent);
+		}
+		grid.build(points);
+		for (int i = 0; i < centers.length; i++) {
+			centers[i] = new Vec3(random.nextFloat() * extent, random.nextFloat() * extent, random.nextFloat() * extent);
+		}
+	}
+
+	@Benchmark
+	public SpatialHashGrid build() {
+		return grid.build(points);
+	}
+
+	@Benchmark
+	public int query() {
+		return grid.query(centers[query++ & (centers.length - 1)], 1f, found);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 1)
+	@Measurement(iterations = 3, time = 1)
+	public long forEachPair() {
+		pairs = 0;
+		grid.forEachPair(1f, (a, b, distanceSqrd) -> pairs++);
+		return pairs;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.util.StreamUtil;
+import com.jaspreetdhanjan.vecmath.util.Vec3Summary;
+
+/**
+ * Benchmarks for the index streams and summaries of StreamUtil, sequential and parallel, compared against a plain loop and against IntStream.range().
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StreamBenchmark {
+	@Param({ "65536", "4194304" })
+	public int size;
+
+	private Vec3Array points;
+	private float[] lengths;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		points = new Vec3Array(size);
+		lengths = new float[size];
+		for (int i = 0; i < size; i++) {
+			points.set(i, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f, random.nextFloat() * 100f - 50f);
+		}
+	}
+
+	@Benchmark
+	public Vec3Summary summariseLoop() {
+		Vec3Summary summary = new Vec3Summary();
+		float[] x = points.x, y = points.y, z = points.z;
+		for (int i = 0; i < size; i++) {
+			summary.accept(x[i], y[i], z[i]);
+		}
+		return summary;
+	}
+
+	@Benchmark
+	public Vec3Summary summariseSequential() {
+		return StreamUtil.summarise(points, StreamUtil.indices(points, 0, size));
+	}
+
+	@Benchmark
+	public Vec3Summary summariseParallel() {
+		return StreamUtil.summarise(points, StreamUtil.indices(points, 0, size).parallel());
+	}
+
+	@Benchmark
+	public Vec3Summary summariseParallelRange() {
+		return StreamUtil.summarise(points, IntStream.range(0, size).parallel());
+	}
+
+	@Benchmark
+	public float[] lengthsParallel() {
+		float[] x = points.x, y = points.y, z = points.z, dest = lengths;
+		StreamUtil.indices(points, 0, size).parallel().forEach(i -> dest[i] = (float) Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]));
+		return dest;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+
+import com.jaspreetdhanjan.vecmath.Vec2;
+import com.jaspreetdhanjan.vecmath.util.TrigUtil;
+
+/**
+ * Sweeps the table approximation of TrigUtil against Math.sin and Math.cos over the whole range where it is used, and fails if the error is above the documented bound. Run it with the benchmarks jar on the classpath after changing TrigUtil.
+ *
+ * Each decade of magnitude is swept with evenly spaced angles plus random angles, so that both the interpolation error between table entries and the error of the table index at large angles are covered.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class TrigAccuracyCheck {
+	private static final double MAX_ERROR = 4e-7;
+	private static final int SAMPLES = 4000000;
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		Vec2 sinCos = new Vec2();
+		boolean failed = false;
+		TrigUtil.setFastTrig(true);
+		for (float range = 1f; range <= 1e5f; range *= 10f) {
+			double worst = 0;
+			float worstAngle = 0;
+			for (int i = 0; i < SAMPLES; i++) {
+				float angle = i < SAMPLES / 2 ? range * (2f * i / (SAMPLES / 2) - 1f) : (random.nextFloat() * 2f - 1f) * range;
+				TrigUtil.sinCos(angle, sinCos);
+				double error = Math.max(Math.abs(TrigUtil.sin(angle) - Math.sin(angle)), Math.abs(TrigUtil.cos(angle) - Math.cos(angle)));
+				error = Math.max(error, Math.max(Math.abs(sinCos.x - Math.sin(angle)), Math.abs(sinCos.y - Math.cos(angle))));
+				if (error > worst) {
+					worst = error;
+					worstAngle = angle;
+				}
+			}
+			System.out.println("+/-" + range + " rad: max error " + worst + " at " + worstAngle);
+			if (worst > MAX_ERROR) failed = true;
+		}
+		TrigUtil.setFastTrig(false);
+		if (failed) throw new AssertionError("Table error is above " + MAX_ERROR);
+	}
+}
\ No newline at end of file
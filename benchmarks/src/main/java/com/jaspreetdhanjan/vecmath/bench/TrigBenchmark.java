@@ -0,0 +1,81 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec2;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.util.TrigUtil;
+
+/**
+ * Benchmarks for TrigUtil and the rotation methods that use it, with fast trigonometry both disabled and enabled.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TrigBenchmark {
+	@Param({ "false", "true" })
+	public boolean fastTrig;
+
+	private final Vec3 axis = new Vec3();
+	private final Vec3 v = new Vec3();
+	private final Vec3 tmp = new Vec3();
+	private final Vec2 sinCos = new Vec2();
+	private final Mat4 m = new Mat4();
+	private float angle;
+
+	@Setup
+	public void setup() {
+		TrigUtil.setFastTrig(fastTrig);
+		Random random = new Random(42);
+		axis.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		float len = axis.length();
+		axis.set(axis.x / len, axis.y / len, axis.z / len);
+		v.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		angle = random.nextFloat() * 6f;
+	}
+
+	@Benchmark
+	public float sin() {
+		return TrigUtil.sin(angle);
+	}
+
+	@Benchmark
+	public float cos() {
+		return TrigUtil.cos(angle);
+	}
+
+	@Benchmark
+	public Vec2 sinCos() {
+		return TrigUtil.sinCos(angle, sinCos);
+	}
+
+	@Benchmark
+	public Vec3 rotX() {
+		return tmp.set(v).rotX(angle);
+	}
+
+	@Benchmark
+	public Mat4 rotate() {
+		return m.identity().rotate(angle, axis);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec2;
+
+/**
+ * Benchmarks for every public operation of Vec2.
+ * 
+ * Mutating operations are applied to a copy of a fixed input so that every invocation does the same work. The set benchmark is the cost of that copy.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Vec2Benchmark {
+	private final Vec2 a = new Vec2();
+	private final Vec2 b = new Vec2();
+	private final Vec2 tmp = new Vec2();
+	private final FloatBuffer buffer = FloatBuffer.allocate(2);
+	private float s;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		a.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		b.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		s = random.nextFloat() + 0.5f;
+		a.putInto(buffer);
+	}
+
+	@Benchmark
+	public Vec2 set() {
+		return tmp.set(a);
+	}
+
+	@Benchmark
+	public Vec2 setFloatBuffer() {
+		return tmp.set(buffer);
+	}
+
+	@Benchmark
+	public FloatBuffer putInto() {
+		a.putInto(buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public Vec2 addScalar() {
+		return tmp.set(a).add(s);
+	}
+
+	@Benchmark
+	public Vec2 addComponents() {
+		return tmp.set(a).add(b.x, b.y);
+	}
+
+	@Benchmark
+	public Vec2 addVec2() {
+		return tmp.set(a).add(b);
+	}
+
+	@Benchmark
+	public Vec2 subScalar() {
+		return tmp.set(a).sub(s);
+	}
+
+	@Benchmark
+	public Vec2 subComponents() {
+		return tmp.set(a).sub(b.x, b.y);
+	}
+
+	@Benchmark
+	public Vec2 subVec2() {
+		return tmp.set(a).sub(b);
+	}
+
+	@Benchmark
+	public Vec2 mulScalar() {
+		return tmp.set(a).mul(s);
+	}
+
+	@Benchmark
+	public Vec2 mulComponents() {
+		return tmp.set(a).mul(b.x, b.y);
+	}
+
+	@Benchmark
+	public Vec2 mulVec2() {
+		return tmp.set(a).mul(b);
+	}
+
+	@Benchmark
+	public Vec2 divScalar() {
+		return tmp.set(a).div(s);
+	}
+
+	@Benchmark
+	public Vec2 divComponents() {
+		return tmp.set(a).div(b.x, b.y);
+	}
+
+	@Benchmark
+	public Vec2 divVec2() {
+		return tmp.set(a).div(b);
+	}
+
+	@Benchmark
+	public Vec2 normalise() {
+		return tmp.set(a).normalise();
+	}
+
+	@Benchmark
+	public float dot() {
+		return a.dot(b);
+	}
+
+	@Benchmark
+	public Vec2 mid() {
+		return tmp.set(a).mid(b);
+	}
+
+	@Benchmark
+	public float length() {
+		return a.length();
+	}
+
+	@Benchmark
+	public float distanceTo() {
+		return a.distanceTo(b);
+	}
+
+	@Benchmark
+	public float distanceToSqrd() {
+		return a.distanceToSqrd(b);
+	}
+
+	@Benchmark
+	public Vec2 rot() {
+		return a.rot(s);
+	}
+
+	@Benchmark
+	public Vec2 rotDest() {
+		return a.rot(s, tmp);
+	}
+
+	@Benchmark
+	public float cross() {
+		return a.cross(b);
+	}
+
+	@Benchmark
+	public Vec2 lerpTo() {
+		return tmp.set(a).lerpTo(b, s);
+	}
+
+	@Benchmark
+	public Vec2 mulAdd() {
+		return tmp.set(a).mulAdd(b, s);
+	}
+
+	@Benchmark
+	public float angle() {
+		return a.angle(b);
+	}
+
+	@Benchmark
+	public Vec2 abs() {
+		return tmp.set(a).abs();
+	}
+
+	@Benchmark
+	public Vec2 reciprocal() {
+		return tmp.set(a).reciprocal();
+	}
+
+	@Benchmark
+	public Vec2 cloneVec2() {
+		return a.clone();
+	}
+}
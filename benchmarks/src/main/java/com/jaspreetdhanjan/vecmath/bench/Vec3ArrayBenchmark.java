@@ -0,0 +1,119 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * Benchmarks for the bulk operations of Vec3Array, compared against the same work done with an array of Vec3 objects.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Vec3ArrayBenchmark {
+	@Param({ "1024", "65536", "1048576" })
+	public int size;
+
+	private Vec3Array points;
+	private Vec3Array other;
+	private Vec3Array dest;
+	private Vec3[] objects;
+	private Vec3[] transformed;
+	private float[] scalars;
+	private final Vec3 offset = new Vec3(0.5f, -0.25f, 1f);
+	private final Mat4 matrix = new Mat4();
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		points = new Vec3Array(size);
+		other = new Vec3Array(size);
+		dest = new Vec3Array(size);
+		objects = new Vec3[size];
+		transformed = new Vec3[size];
+		scalars = new float[size];
+		for (int i = 0; i < size; i++) {
+			points.set(i, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+			other.set(i, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+			objects[i] = points.get(i, new Vec3());
+		}
+		matrix.translate(1f, 2f, 3f).rotY(0.5f).scale(2f, 2f, 2f);
+	}
+
+	@Benchmark
+	public Vec3Array addVec3Array() {
+		return dest.set(points, 0, size).add(other, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array mulAdd() {
+		return dest.set(points, 0, size).mulAdd(other, 0.016f, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array cross() {
+		return dest.set(points, 0, size).cross(other, 0, size);
+	}
+
+	@Benchmark
+	public float[] dot() {
+		return points.dot(other, scalars, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array normalise() {
+		return dest.set(points, 0, size).normalise(0, size);
+	}
+
+	@Benchmark
+	public Vec3Array lerpTo() {
+		return dest.set(points, 0, size).lerpTo(other, 0.5f, 0, size);
+	}
+
+	@Benchmark
+	public float[] distanceToSqrd() {
+		return points.distanceToSqrd(offset, scalars, 0, size);
+	}
+
+	@Benchmark
+	public Vec3Array transform() {
+		return points.transform(matrix, dest, 0, size);
+	}
+
+	@Benchmark
+	public Vec3[] transformObjects() {
+		for (int i = 0; i < size; i++) {
+			transformed[i] = matrix.mul(objects[i]);
+		}
+		return transformed;
+	}
+
+	@Benchmark
+	public Vec3[] mulAddObjects() {
+		for (int i = 0; i < size; i++) {
+			objects[i].mulAdd(offset, 0.016f);
+		}
+		return objects;
+	}
+}
@@ -0,0 +1,217 @@
+package com.jaspreetdhanjan.vecmath.bench;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaspreetdhanjan.vecmath.Vec2;
+import com.jaspreetdhanjan.vecmath.Vec3;
+
+/**
+ * Benchmarks for every public operation of Vec3.
+ * 
+ * Mutating operations are applied to a copy of a fixed input so that every invocation does the same work. The set benchmark is the cost of that copy.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class Vec3Benchmark {
+	private final Vec3 a = new Vec3();
+	private final Vec3 b = new Vec3();
+	private final Vec3 tmp = new Vec3();
+	private final Vec2 tmp2 = new Vec2();
+	private final FloatBuffer buffer = FloatBuffer.allocate(3);
+	private float s;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		a.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		b.set(random.nextFloat() + 0.5f, random.nextFloat() + 0.5f, random.nextFloat() + 0.5f);
+		s = random.nextFloat() + 0.5f;
+		a.putInto(buffer);
+	}
+
+	@Benchmark
+	public Vec3 set() {
+		return tmp.set(a);
+	}
+
+	@Benchmark
+	public Vec3 setFloatBuffer() {
+		return tmp.set(buffer);
+	}
+
+	@Benchmark
+	public FloatBuffer putInto() {
+		a.putInto(buffer);
+		return buffer;
+	}
+
+	@Benchmark
+	public Vec3 addScalar() {
+		return tmp.set(a).add(s);
+	}
+
+	@Benchmark
+	public Vec3 addComponents() {
+		return tmp.set(a).add(b.x, b.y, b.z);
+	}
+
+	@Benchmark
+	public Vec3 addVec3() {
+		return tmp.set(a).add(b);
+	}
+
+	@Benchmark
+	public Vec3 subScalar() {
+		return tmp.set(a).sub(s);
+	}
+
+	@Benchmark
+	public Vec3 subComponents() {
+		return tmp.set(a).sub(b.x, b.y, b.z);
+	}
+
+	@Benchmark
+	public Vec3 subVec3() {
+		return tmp.set(a).sub(b);
+	}
+
+	@Benchmark
+	public Vec3 mulScalar() {
+		return tmp.set(a).mul(s);
+	}
+
+	@Benchmark
+	public Vec3 mulComponents() {
+		return tmp.set(a).mul(b.x, b.y, b.z);
+	}
+
+	@Benchmark
+	public Vec3 mulVec3() {
+		return tmp.set(a).mul(b);
+	}
+
+	@Benchmark
+	public Vec3 divScalar() {
+		return tmp.set(a).div(s);
+	}
+
+	@Benchmark
+	public Vec3 divComponents() {
+		return tmp.set(a).div(b.x, b.y, b.z);
+	}
+
+	@Benchmark
+	public Vec3 divVec3() {
+		return tmp.set(a).div(b);
+	}
+
+	@Benchmark
+	public Vec3 normalise() {
+		return tmp.set(a).normalise();
+	}
+
+	@Benchmark
+	public float dot() {
+		return a.dot(b);
+	}
+
+	@Benchmark
+	public Vec3 mid() {
+		return tmp.set(a).mid(b);
+	}
+
+	@Benchmark
+	public float length() {
+		return a.length();
+	}
+
+	@Benchmark
+	public float distanceTo() {
+		return a.distanceTo(b);
+	}
+
+	@Benchmark
+	public float distanceToSqrd() {
+		return a.distanceToSqrd(b);
+	}
+
+	@Benchmark
+	public Vec3 rotX() {
+		return tmp.set(a).rotX(s);
+	}
+
+	@Benchmark
+	public Vec3 rotY() {
+		return tmp.set(a).rotY(s);
+	}
+
+	@Benchmark
+	public Vec3 rotZ() {
+		return tmp.set(a).rotZ(s);
+	}
+
+	@Benchmark
+	public Vec3 cross() {
+		return tmp.set(a).cross(b);
+	}
+
+	@Benchmark
+	public Vec3 lerpTo() {
+		return tmp.set(a).lerpTo(b, s);
+	}
+
+	@Benchmark
+	public Vec3 mulAdd() {
+		return tmp.set(a).mulAdd(b, s);
+	}
+
+	@Benchmark
+	public float angle() {
+		return a.angle(b);
+	}
+
+	@Benchmark
+	public Vec3 abs() {
+		return tmp.set(a).abs();
+	}
+
+	@Benchmark
+	public Vec3 reciprocal() {
+		return tmp.set(a).reciprocal();
+	}
+
+	@Benchmark
+	public Vec2 toVec2() {
+		return a.toVec2();
+	}
+
+	@Benchmark
+	public Vec2 toVec2Dest() {
+		return a.toVec2(tmp2);
+	}
+
+	@Benchmark
+	public Vec3 cloneVec3() {
+		return a.clone();
+	}
+}
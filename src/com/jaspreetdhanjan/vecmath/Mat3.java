@@ -0,0 +1,318 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.nio.FloatBuffer;
+
+/**
+ * A row-major 3x3 matrix that is represented by 9 single-precision floating numbers.
+ *
+ * It follows the same conventions as the upper 3x3 of Mat4: vectors are multiplied as rows, so a.mul(b) applies a and then b. It is mainly used for normal matrices, which only need the rotation and scale of a Mat4.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Mat3 implements Vecmath<Mat3> {
+	public float m11, m12, m13;
+	public float m21, m22, m23;
+	public float m31, m32, m33;
+
+	// Constructors and setters
+
+	/**
+	 * Constructs an identity matrix.
+	 */
+	public Mat3() {
+		identity();
+	}
+
+	/**
+	 * Constructs a matrix with given parameters.
+	 */
+	public Mat3(float m11, float m12, float m13, float m21, float m22, float m23, float m31, float m32, float m33) {
+		set(m11, m12, m13, m21, m22, m23, m31, m32, m33);
+	}
+
+	/**
+	 * Constructs a matrix using the attributes of another matrix.
+	 * 
+	 * @param otherMatrix
+	 *            the matrix to copy.
+	 */
+	public Mat3(Mat3 otherMatrix) {
+		set(otherMatrix);
+	}
+
+	/**
+	 * Sets the matrix values to the respective arguments.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 set(float m11, float m12, float m13, float m21, float m22, float m23, float m31, float m32, float m33) {
+		this.m11 = m11;
+		this.m12 = m12;
+		this.m13 = m13;
+		this.m21 = m21;
+		this.m22 = m22;
+		this.m23 = m23;
+		this.m31 = m31;
+		this.m32 = m32;
+		this.m33 = m33;
+		return this;
+	}
+
+	/**
+	 * Sets the matrix values to the same arguments as the other matrix.
+	 * 
+	 * @param otherMatrix
+	 *            the matrix to copy.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 set(Mat3 otherMatrix) {
+		Mat3 m = otherMatrix;
+		return set(m.m11, m.m12, m.m13, m.m21, m.m22, m.m23, m.m31, m.m32, m.m33);
+	}
+
+	/**
+	 * Sets the matrix values to the upper 3x3 of matrix m, which holds its rotation and scale.
+	 * 
+	 * @param m
+	 *            the matrix to copy.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 set(Mat4 m) {
+		return set(m.m11, m.m12, m.m13, m.m21, m.m22, m.m23, m.m31, m.m32, m.m33);
+	}
+
+	/**
+	 * Sets the matrix to the rotation represented by quaternion q, which is assumed to be normalised.
+	 * 
+	 * @param q
+	 *            the rotation.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 set(Quat q) {
+		float xx = q.x * q.x, yy = q.y * q.y, zz = q.z * q.z;
+		float xy = q.x * q.y, xz = q.x * q.z, yz = q.y * q.z;
+		float wx = q.w * q.x, wy = q.w * q.y, wz = q.w * q.z;
+		return set(1f - 2f * (yy + zz), 2f * (xy + wz), 2f * (xz - wy), 2f * (xy - wz), 1f - 2f * (xx + zz), 2f * (yz + wx), 2f * (xz + wy), 2f * (yz - wx), 1f - 2f * (xx + yy));
+	}
+
+	/**
+	 * Sets the matrix values to the values of the FloatBuffer.
+	 * 
+	 * @param b
+	 *            the FloatBuffer to copy.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 set(FloatBuffer b) {
+		return set(b.get(0), b.get(1), b.get(2), b.get(3), b.get(4), b.get(5), b.get(6), b.get(7), b.get(8));
+	}
+
+	/**
+	 * Compresses the matrix information into the given FloatBuffer, ready for OpenGL usage.
+	 * 
+	 * @param tmpBuffer
+	 *            the buffer where the matrix will be stored into.
+	 */
+	public void putInto(FloatBuffer tmpBuffer) {
+		tmpBuffer.clear();
+		tmpBuffer.put(m11).put(m12).put(m13).put(m21).put(m22).put(m23).put(m31).put(m32).put(m33);
+		tmpBuffer.flip();
+	}
+
+	/**
+	 * Writes the matrix information into the given FloatBuffer starting at the given index. The position and limit of the buffer are not changed, so many objects can be written back-to-back into one buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer where the matrix will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 */
+	public void putInto(FloatBuffer buffer, int offset) {
+		int p = offset;
+		buffer.put(p, m11).put(p + 1, m12).put(p + 2, m13);
+		buffer.put(p + 3, m21).put(p + 4, m22).put(p + 5, m23);
+		buffer.put(p + 6, m31).put(p + 7, m32).put(p + 8, m33);
+	}
+
+	/**
+	 * Sets the values of the matrix to zero.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 setZero() {
+		return set(0, 0, 0, 0, 0, 0, 0, 0, 0);
+	}
+
+	/**
+	 * Sets the values of the matrix to an identity matrix.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 identity() {
+		return set(1, 0, 0, 0, 1, 0, 0, 0, 1);
+	}
+
+	// Arithmetic methods
+
+	/**
+	 * Multiplies this matrix by a vector r.
+	 * 
+	 * @param r
+	 *            the vector to multiply by.
+	 * 
+	 * @return a new vector.
+	 */
+	public Vec3 mul(Vec3 r) {
+		return mul(r, new Vec3());
+	}
+
+	/**
+	 * Multiplies this matrix by a vector r and stores the result in vector dest.
+	 * 
+	 * @param r
+	 *            the vector to multiply by.
+	 * @param dest
+	 *            the vector where the result is stored. May be r.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 mul(Vec3 r, Vec3 dest) {
+		float x = r.x * m11 + r.y * m21 + r.z * m31;
+		float y = r.x * m12 + r.y * m22 + r.z * m32;
+		float z = r.x * m13 + r.y * m23 + r.z * m33;
+		return dest.set(x, y, z);
+	}
+
+	/**
+	 * Multiplies this matrix by a scalar s.
+	 * 
+	 * @param s
+	 *            the value to multiply by.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 mul(float s) {
+		return set(m11 * s, m12 * s, m13 * s, m21 * s, m22 * s, m23 * s, m31 * s, m32 * s, m33 * s);
+	}
+
+	/**
+	 * Multiplies this matrix by another matrix m, so that the result applies this matrix and then m.
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 mul(Mat3 m) {
+		return mul(m, this);
+	}
+
+	/**
+	 * Multiplies this matrix by another matrix m and stores the result in matrix dest.
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param dest
+	 *            the matrix where the result is stored. May be this matrix or m.
+	 * 
+	 * @return dest.
+	 */
+	public Mat3 mul(Mat3 m, Mat3 dest) {
+		float t11 = m11 * m.m11 + m12 * m.m21 + m13 * m.m31;
+		float t12 = m11 * m.m12 + m12 * m.m22 + m13 * m.m32;
+		float t13 = m11 * m.m13 + m12 * m.m23 + m13 * m.m33;
+		float t21 = m21 * m.m11 + m22 * m.m21 + m23 * m.m31;
+		float t22 = m21 * m.m12 + m22 * m.m22 + m23 * m.m32;
+		float t23 = m21 * m.m13 + m22 * m.m23 + m23 * m.m33;
+		float t31 = m31 * m.m11 + m32 * m.m21 + m33 * m.m31;
+		float t32 = m31 * m.m12 + m32 * m.m22 + m33 * m.m32;
+		float t33 = m31 * m.m13 + m32 * m.m23 + m33 * m.m33;
+		return dest.set(t11, t12, t13, t21, t22, t23, t31, t32, t33);
+	}
+
+	/**
+	 * Gets the determinant of this matrix.
+	 * 
+	 * @return the value of the determinant.
+	 */
+	public float getDeterminant() {
+		return m11 * (m22 * m33 - m23 * m32) + m12 * (m23 * m31 - m21 * m33) + m13 * (m21 * m32 - m22 * m31);
+	}
+
+	/**
+	 * Inverses the matrix, as the transposed matrix of cofactors divided by the determinant.
+	 * 
+	 * @throws a
+	 *             RuntimeException if the matrix is singular (non-invertible).
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 inverse() {
+		float c11 = m22 * m33 - m23 * m32;
+		float c12 = m23 * m31 - m21 * m33;
+		float c13 = m21 * m32 - m22 * m31;
+		float determinant = m11 * c11 + m12 * c12 + m13 * c13;
+		if (determinant == 0f) {
+			throw new RuntimeException("Non-Invertible matrix: " + this);
+		}
+
+		float invDeterminant = 1f / determinant;
+		float c21 = m13 * m32 - m12 * m33;
+		float c22 = m11 * m33 - m13 * m31;
+		float c23 = m12 * m31 - m11 * m32;
+		float c31 = m12 * m23 - m13 * m22;
+		float c32 = m13 * m21 - m11 * m23;
+		float c33 = m11 * m22 - m12 * m21;
+		return set(c11 * invDeterminant, c21 * invDeterminant, c31 * invDeterminant, c12 * invDeterminant, c22 * invDeterminant, c32 * invDeterminant, c13 * invDeterminant, c23 * invDeterminant, c33 * invDeterminant);
+	}
+
+	/**
+	 * Transposes the matrix.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat3 transpose() {
+		return set(m11, m21, m31, m12, m22, m32, m13, m23, m33);
+	}
+
+	// java.lang.Object overrides
+
+	public Mat3 clone() {
+		return new Mat3(m11, m12, m13, m21, m22, m23, m31, m32, m33);
+	}
+
+	public String toString() {
+		StringBuilder b = new StringBuilder();
+		b.append(m11).append(" ").append(m12).append(" ").append(m13).append("\n");
+		b.append(m21).append(" ").append(m22).append(" ").append(m23).append("\n");
+		b.append(m31).append(" ").append(m32).append(" ").append(m33).append("\n");
+		return b.toString();
+	}
+
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Float.floatToIntBits(m11);
+		result = prime * result + Float.floatToIntBits(m12);
+		result = prime * result + Float.floatToIntBits(m13);
+		result = prime * result + Float.floatToIntBits(m21);
+		result = prime * result + Float.floatToIntBits(m22);
+		result = prime * result + Float.floatToIntBits(m23);
+		result = prime * result + Float.floatToIntBits(m31);
+		result = prime * result + Float.floatToIntBits(m32);
+		result = prime * result + Float.floatToIntBits(m33);
+		return result;
+	}
+
+	public boolean equals(Object o) {
+		if (o instanceof Mat3) {
+			Mat3 r = (Mat3) o;
+			return m11 == r.m11 && m12 == r.m12 && m13 == r.m13 && m21 == r.m21 && m22 == r.m22 && m23 == r.m23 && m31 == r.m31 && m32 == r.m32 && m33 == r.m33;
+		}
+		return false;
+	}
+}
\ No newline at end of file
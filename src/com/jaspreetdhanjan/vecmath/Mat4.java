@@ -2,9 +2,14 @@ package com.jaspreetdhanjan.vecmath;
 
 import java.nio.FloatBuffer;
 
+import com.jaspreetdhanjan.vecmath.util.TrigUtil;
+
 /**
  * A row-major 4x4 matrix that is represented by 16 single-precision floating numbers.
  *
+ * Each matrix tracks a set of properties (identity, translation-only, affine, orthonormal) that are used to skip work in mul(Mat4), inverse() and getDeterminant(). The
+ * properties are maintained by every method of this class. If the public fields are modified directly, call determineProperties() afterwards.
+ *
  * @author Jaspreet Dhanjan
  */
 
@@ -14,6 +19,28 @@ public class Mat4 implements Vecmath<Mat4> {
 	public float m31, m32, m33, m34;
 	public float m41, m42, m43, m44;
 
+	/**
+	 * The matrix is the identity matrix.
+	 */
+	public static final int PROPERTY_IDENTITY = 1 << 0;
+
+	/**
+	 * The matrix only translates: the upper 3x3 is the identity and the translation is held in m41, m42, m43.
+	 */
+	public static final int PROPERTY_TRANSLATION = 1 << 1;
+
+	/**
+	 * The matrix is affine: m14, m24, m34 are 0 and m44 is 1.
+	 */
+	public static final int PROPERTY_AFFINE = 1 << 2;
+
+	/**
+	 * The matrix is affine and its upper 3x3 is orthonormal, i.e. it only rotates and translates.
+	 */
+	public static final int PROPERTY_ORTHONORMAL = 1 << 3;
+
+	int properties;
+
 	// Constructors and setters
 
 	/**
@@ -37,7 +64,7 @@ public class Mat4 implements Vecmath<Mat4> {
 	 *            the matrix to copy.
 	 */
 	public Mat4(Mat4 otherMatrix) {
-		set(otherMatrix.m11, otherMatrix.m12, otherMatrix.m13, otherMatrix.m14, otherMatrix.m21, otherMatrix.m22, otherMatrix.m23, otherMatrix.m24, otherMatrix.m31, otherMatrix.m32, otherMatrix.m33, otherMatrix.m34, otherMatrix.m41, otherMatrix.m42, otherMatrix.m43, otherMatrix.m44);
+		set(otherMatrix);
 	}
 
 	/**
@@ -46,6 +73,10 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 set(float m11, float m12, float m13, float m14, float m21, float m22, float m23, float m24, float m31, float m32, float m33, float m34, float m41, float m42, float m43, float m44) {
+		return assign(m11, m12, m13, m14, m21, m22, m23, m24, m31, m32, m33, m34, m41, m42, m43, m44).determineProperties();
+	}
+
+	private Mat4 assign(float m11, float m12, float m13, float m14, float m21, float m22, float m23, float m24, float m31, float m32, float m33, float m34, float m41, float m42, float m43, float m44) {
 		this.m11 = m11;
 		this.m12 = m12;
 		this.m13 = m13;
@@ -74,7 +105,26 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 set(Mat4 otherMatrix) {
-		return set(otherMatrix.m11, otherMatrix.m12, otherMatrix.m13, otherMatrix.m14, otherMatrix.m21, otherMatrix.m22, otherMatrix.m23, otherMatrix.m24, otherMatrix.m31, otherMatrix.m32, otherMatrix.m33, otherMatrix.m34, otherMatrix.m41, otherMatrix.m42, otherMatrix.m43, otherMatrix.m44);
+		assign(otherMatrix.m11, otherMatrix.m12, otherMatrix.m13, otherMatrix.m14, otherMatrix.m21, otherMatrix.m22, otherMatrix.m23, otherMatrix.m24, otherMatrix.m31, otherMatrix.m32, otherMatrix.m33, otherMatrix.m34, otherMatrix.m41, otherMatrix.m42, otherMatrix.m43, otherMatrix.m44);
+		properties = otherMatrix.properties;
+		return this;
+	}
+
+	/**
+	 * Sets the matrix to the rotation represented by quaternion q, which is assumed to be normalised.
+	 * 
+	 * @param q
+	 *            the rotation.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat4 set(Quat q) {
+		float xx = q.x * q.x, yy = q.y * q.y, zz = q.z * q.z;
+		float xy = q.x * q.y, xz = q.x * q.z, yz = q.y * q.z;
+		float wx = q.w * q.x, wy = q.w * q.y, wz = q.w * q.z;
+		assign(1f - 2f * (yy + zz), 2f * (xy + wz), 2f * (xz - wy), 0, 2f * (xy - wz), 1f - 2f * (xx + zz), 2f * (yz + wx), 0, 2f * (xz + wy), 2f * (yz - wx), 1f - 2f * (xx + yy), 0, 0, 0, 0, 1);
+		properties = PROPERTY_AFFINE | PROPERTY_ORTHONORMAL;
+		return this;
 	}
 
 	/**
@@ -102,13 +152,31 @@ public class Mat4 implements Vecmath<Mat4> {
 		tmpBuffer.flip();
 	}
 
+	/**
+	 * Writes the matrix information into the given FloatBuffer starting at the given index. The position and limit of the buffer are not changed, so many objects can be written back-to-back into one buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer where the matrix will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 */
+	public void putInto(FloatBuffer buffer, int offset) {
+		int p = offset;
+		buffer.put(p, m11).put(p + 1, m12).put(p + 2, m13).put(p + 3, m14);
+		buffer.put(p + 4, m21).put(p + 5, m22).put(p + 6, m23).put(p + 7, m24);
+		buffer.put(p + 8, m31).put(p + 9, m32).put(p + 10, m33).put(p + 11, m34);
+		buffer.put(p + 12, m41).put(p + 13, m42).put(p + 14, m43).put(p + 15, m44);
+	}
+
 	/**
 	 * Sets the values of the matrix to zero.
 	 * 
 	 * @return this matrix.
 	 */
 	public Mat4 setZero() {
-		return set(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+		assign(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+		properties = 0;
+		return this;
 	}
 
 	/**
@@ -117,7 +185,38 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 identity() {
-		return set(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1);
+		assign(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1);
+		properties = PROPERTY_IDENTITY | PROPERTY_TRANSLATION | PROPERTY_AFFINE | PROPERTY_ORTHONORMAL;
+		return this;
+	}
+
+	/**
+	 * Gets the properties of this matrix as a combination of the PROPERTY_ flags.
+	 * 
+	 * @return the result.
+	 */
+	public int getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Recomputes the properties of this matrix from its values. This must be called after the public fields are modified directly.
+	 * 
+	 * Orthonormality is not detected from the values, so a rotation matrix that is written directly is treated as affine.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat4 determineProperties() {
+		int p = 0;
+		if (m14 == 0f && m24 == 0f && m34 == 0f && m44 == 1f) {
+			p |= PROPERTY_AFFINE;
+			if (m11 == 1f && m12 == 0f && m13 == 0f && m21 == 0f && m22 == 1f && m23 == 0f && m31 == 0f && m32 == 0f && m33 == 1f) {
+				p |= PROPERTY_TRANSLATION | PROPERTY_ORTHONORMAL;
+				if (m41 == 0f && m42 == 0f && m43 == 0f) p |= PROPERTY_IDENTITY;
+			}
+		}
+		properties = p;
+		return this;
 	}
 
 	/**
@@ -145,10 +244,17 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 translate(float x, float y, float z) {
-		m41 += m11 * x + m21 * y + m31 * z;
-		m42 += m12 * x + m22 * y + m32 * z;
-		m43 += m13 * x + m23 * y + m33 * z;
-		m44 += m14 * x + m24 * y + m34 * z;
+		if ((properties & PROPERTY_TRANSLATION) != 0) {
+			m41 += x;
+			m42 += y;
+			m43 += z;
+		} else {
+			m41 += m11 * x + m21 * y + m31 * z;
+			m42 += m12 * x + m22 * y + m32 * z;
+			m43 += m13 * x + m23 * y + m33 * z;
+			m44 += m14 * x + m24 * y + m34 * z;
+		}
+		if (x != 0f || y != 0f || z != 0f) properties &= ~PROPERTY_IDENTITY;
 		return this;
 	}
 
@@ -199,8 +305,9 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 rotate(float angle, Vec3 axis) {
-		float sin = (float) Math.sin(angle);
-		float cos = (float) Math.cos(angle);
+		long sinCos = TrigUtil.sinCos(angle);
+		float sin = TrigUtil.sinOf(sinCos);
+		float cos = TrigUtil.cosOf(sinCos);
 		float acos = 1f - cos;
 
 		float xy = axis.x * axis.y;
@@ -223,6 +330,29 @@ public class Mat4 implements Vecmath<Mat4> {
 		float f21 = yz * acos - xs;
 		float f22 = axis.z * axis.z * acos + cos;
 
+		rotate(f00, f01, f02, f10, f11, f12, f20, f21, f22);
+
+		float axisLenSqrd = axis.x * axis.x + axis.y * axis.y + axis.z * axis.z;
+		if (Math.abs(axisLenSqrd - 1f) > 1e-5f) properties &= ~PROPERTY_ORTHONORMAL;
+		return this;
+	}
+
+	/**
+	 * Rotates the matrix by the rotation represented by quaternion q, which is assumed to be normalised.
+	 * 
+	 * @param q
+	 *            the rotation.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat4 rotate(Quat q) {
+		float xx = q.x * q.x, yy = q.y * q.y, zz = q.z * q.z;
+		float xy = q.x * q.y, xz = q.x * q.z, yz = q.y * q.z;
+		float wx = q.w * q.x, wy = q.w * q.y, wz = q.w * q.z;
+		return rotate(1f - 2f * (yy + zz), 2f * (xy + wz), 2f * (xz - wy), 2f * (xy - wz), 1f - 2f * (xx + zz), 2f * (yz + wx), 2f * (xz + wy), 2f * (yz - wx), 1f - 2f * (xx + yy));
+	}
+
+	private Mat4 rotate(float f00, float f01, float f02, float f10, float f11, float f12, float f20, float f21, float f22) {
 		float t00 = m11 * f00 + m21 * f01 + m31 * f02;
 		float t01 = m12 * f00 + m22 * f01 + m32 * f02;
 		float t02 = m13 * f00 + m23 * f01 + m33 * f02;
@@ -245,6 +375,8 @@ public class Mat4 implements Vecmath<Mat4> {
 		m22 = t11;
 		m23 = t12;
 		m24 = t13;
+
+		properties &= ~(PROPERTY_IDENTITY | PROPERTY_TRANSLATION);
 		return this;
 	}
 
@@ -285,9 +417,153 @@ public class Mat4 implements Vecmath<Mat4> {
 		m32 *= z;
 		m33 *= z;
 		m34 *= z;
+		if (x != 1f || y != 1f || z != 1f) properties &= ~(PROPERTY_IDENTITY | PROPERTY_TRANSLATION | PROPERTY_ORTHONORMAL);
 		return this;
 	}
 
+	/**
+	 * Sets the matrix to a translation, rotation and scale. The result is the same as identity().translate(translation).rotX(angles.x).rotY(angles.y).rotZ(angles.z).scale(scale), but is written in one pass.
+	 * 
+	 * @param translation
+	 *            the translation vector.
+	 * @param angles
+	 *            the angles to rotate by on the x, y and z axes.
+	 * @param scale
+	 *            the scale on each axis.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat4 translationRotateScale(Vec3 translation, Vec3 angles, Vec3 scale) {
+		return translationRotateScale(translation.x, translation.y, translation.z, angles.x, angles.y, angles.z, scale.x, scale.y, scale.z);
+	}
+
+	/**
+	 * Sets the matrix to a translation, rotation and scale. The result is the same as identity().translate(tx, ty, tz).rotX(ax).rotY(ay).rotZ(az).scale(sx, sy, sz), but is written in one pass.
+	 * 
+	 * @param tx
+	 *            the x translation coordinate.
+	 * @param ty
+	 *            the y translation coordinate.
+	 * @param tz
+	 *            the z translation coordinate.
+	 * @param ax
+	 *            the angle to rotate by on the x-axis.
+	 * @param ay
+	 *            the angle to rotate by on the y-axis.
+	 * @param az
+	 *            the angle to rotate by on the z-axis.
+	 * @param sx
+	 *            the x scale.
+	 * @param sy
+	 *            the y scale.
+	 * @param sz
+	 *            the z scale.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat4 translationRotateScale(float tx, float ty, float tz, float ax, float ay, float az, float sx, float sy, float sz) {
+		long sinCosX = TrigUtil.sinCos(ax);
+		long sinCosY = TrigUtil.sinCos(ay);
+		long sinCosZ = TrigUtil.sinCos(az);
+		float sinX = TrigUtil.sinOf(sinCosX), cosX = TrigUtil.cosOf(sinCosX);
+		float sinY = TrigUtil.sinOf(sinCosY), cosY = TrigUtil.cosOf(sinCosY);
+		float sinZ = TrigUtil.sinOf(sinCosZ), cosZ = TrigUtil.cosOf(sinCosZ);
+
+		// The upper 3x3 is scale * rotZ * rotY * rotX, as the fluent calls apply the last rotation to a vector first.
+		float sinYsinX = sinY * sinX, sinYcosX = sinY * cosX;
+		assign(sx * cosZ * cosY, sx * (cosZ * sinYsinX + sinZ * cosX), sx * (sinZ * sinX - cosZ * sinYcosX), 0, sy * -sinZ * cosY, sy * (cosZ * cosX - sinZ * sinYsinX), sy * (sinZ * sinYcosX + cosZ * sinX), 0, sz * sinY, sz * -cosY * sinX, sz * cosY * cosX, 0, tx, ty, tz, 1);
+		return setTrsProperties(sx, sy, sz);
+	}
+
+	/**
+	 * Sets the matrix to a translation, rotation and scale. The result is the same as identity().translate(translation).rotate(rotation).scale(scale), but is written in one pass.
+	 * 
+	 * @param translation
+	 *            the translation vector.
+	 * @param rotation
+	 *            the rotation, which is assumed to be normalised.
+	 * @param scale
+	 *            the scale on each axis.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat4 translationRotateScale(Vec3 translation, Quat rotation, Vec3 scale) {
+		Quat q = rotation;
+		float xx = q.x * q.x, yy = q.y * q.y, zz = q.z * q.z;
+		float xy = q.x * q.y, xz = q.x * q.z, yz = q.y * q.z;
+		float wx = q.w * q.x, wy = q.w * q.y, wz = q.w * q.z;
+		float sx = scale.x, sy = scale.y, sz = scale.z;
+		assign(sx * (1f - 2f * (yy + zz)), sx * 2f * (xy + wz), sx * 2f * (xz - wy), 0, sy * 2f * (xy - wz), sy * (1f - 2f * (xx + zz)), sy * 2f * (yz + wx), 0, sz * 2f * (xz + wy), sz * 2f * (yz - wx), sz * (1f - 2f * (xx + yy)), 0, translation.x, translation.y, translation.z, 1);
+		return setTrsProperties(sx, sy, sz);
+	}
+
+	private Mat4 setTrsProperties(float sx, float sy, float sz) {
+		determineProperties();
+		if (sx == 1f && sy == 1f && sz == 1f) properties |= PROPERTY_ORTHONORMAL;
+		return this;
+	}
+
+	/**
+	 * Decomposes an affine matrix into a translation, rotation and scale, so that translationRotateScale(translation, rotation, scale) rebuilds it. A matrix that mirrors is given a negative x scale. Any shear is lost, and the rotation is undefined if a scale is zero.
+	 * 
+	 * @param translation
+	 *            the vector where the translation is stored.
+	 * @param rotation
+	 *            the quaternion where the rotation is stored.
+	 * @param scale
+	 *            the vector where the scale is stored.
+	 * 
+	 * @throws a
+	 *             RuntimeException if the matrix is not affine.
+	 * 
+	 * @return this matrix.
+	 */
+	public Mat4 decompose(Vec3 translation, Quat rotation, Vec3 scale) {
+		if ((properties & PROPERTY_AFFINE) == 0) {
+			throw new RuntimeException("Non-Affine matrix: " + this);
+		}
+		translation.set(m41, m42, m43);
+		if ((properties & PROPERTY_ORTHONORMAL) != 0) {
+			scale.set(1f, 1f, 1f);
+			setRotation(rotation, m11, m12, m13, m21, m22, m23, m31, m32, m33);
+			return this;
+		}
+
+		float sx = (float) Math.sqrt(m11 * m11 + m12 * m12 + m13 * m13);
+		float sy = (float) Math.sqrt(m21 * m21 + m22 * m22 + m23 * m23);
+		float sz = (float) Math.sqrt(m31 * m31 + m32 * m32 + m33 * m33);
+		if (getDeterminant() < 0f) sx = -sx;
+		scale.set(sx, sy, sz);
+
+		float ix = 1f / sx, iy = 1f / sy, iz = 1f / sz;
+		setRotation(rotation, m11 * ix, m12 * ix, m13 * ix, m21 * iy, m22 * iy, m23 * iy, m31 * iz, m32 * iz, m33 * iz);
+		return this;
+	}
+
+	/**
+	 * Inverts the quaternion to matrix formula of set(Quat), starting from the largest of w, x, y and z to keep the division well conditioned.
+	 */
+	private static void setRotation(Quat dest, float r11, float r12, float r13, float r21, float r22, float r23, float r31, float r32, float r33) {
+		float trace = r11 + r22 + r33;
+		if (trace > 0f) {
+			float s = (float) Math.sqrt(trace + 1f) * 2f;
+			float is = 1f / s;
+			dest.set((r23 - r32) * is, (r31 - r13) * is, (r12 - r21) * is, 0.25f * s);
+		} else if (r11 > r22 && r11 > r33) {
+			float s = (float) Math.sqrt(1f + r11 - r22 - r33) * 2f;
+			float is = 1f / s;
+			dest.set(0.25f * s, (r12 + r21) * is, (r13 + r31) * is, (r23 - r32) * is);
+		} else if (r22 > r33) {
+			float s = (float) Math.sqrt(1f - r11 + r22 - r33) * 2f;
+			float is = 1f / s;
+			dest.set((r12 + r21) * is, 0.25f * s, (r23 + r32) * is, (r31 - r13) * is);
+		} else {
+			float s = (float) Math.sqrt(1f - r11 - r22 + r33) * 2f;
+			float is = 1f / s;
+			dest.set((r13 + r31) * is, (r23 + r32) * is, 0.25f * s, (r12 - r21) * is);
+		}
+	}
+
 	/**
 	 * Adds a scalar r to the matrix.
 	 * 
@@ -301,7 +577,7 @@ public class Mat4 implements Vecmath<Mat4> {
 		m22 += r;
 		m33 += r;
 		m44 += r;
-		return this;
+		return determineProperties();
 	}
 
 	/**
@@ -329,11 +605,11 @@ public class Mat4 implements Vecmath<Mat4> {
 		m42 += r.m42;
 		m43 += r.m43;
 		m44 += r.m44;
-		return this;
+		return determineProperties();
 	}
 
 	/**
-	 * Multiplies this matrix by a vector r.
+	 * Multiplies this matrix by a vector r. The vector is treated as a point, so the translation set by translate() is applied.
 	 * 
 	 * @param r
 	 *            the vector to multiply by.
@@ -341,11 +617,24 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return a new vector with missing w component.
 	 */
 	public Vec3 mul(Vec3 r) {
-		float x = m11 * r.x + m12 * r.y + m13 * r.z + m14;
-		float y = m21 * r.x + m22 * r.y + m23 * r.z + m24;
-		float z = m31 * r.x + m32 * r.y + m33 * r.z + m34;
-		// float w = m41 * r.x + m42 * r.y + m33 * r.z + m44;
-		return new Vec3(x, y, z);
+		return mul(r, new Vec3());
+	}
+
+	/**
+	 * Multiplies this matrix by a vector r and stores the result in vector dest. The vector is treated as a point, so the translation set by translate() is applied.
+	 * 
+	 * @param r
+	 *            the vector to multiply by.
+	 * @param dest
+	 *            the vector where the result is stored. May be r.
+	 * 
+	 * @return dest, with missing w component.
+	 */
+	public Vec3 mul(Vec3 r, Vec3 dest) {
+		float x = r.x * m11 + r.y * m21 + r.z * m31 + m41;
+		float y = r.x * m12 + r.y * m22 + r.z * m32 + m42;
+		float z = r.x * m13 + r.y * m23 + r.z * m33 + m43;
+		return dest.set(x, y, z);
 	}
 
 	/**
@@ -369,26 +658,77 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 mul(Mat4 m) {
-		m11 = m11 * m.m11 + m12 * m.m21 + m13 * m.m31 + m14 * m.m41;
-		m12 = m11 * m.m12 + m12 * m.m22 + m13 * m.m32 + m14 * m.m42;
-		m13 = m11 * m.m13 + m12 * m.m23 + m13 * m.m33 + m14 * m.m43;
-		m14 = m11 * m.m14 + m12 * m.m24 + m13 * m.m34 + m14 * m.m44;
-
-		m21 = m21 * m.m11 + m22 * m.m21 + m23 * m.m31 + m24 * m.m41;
-		m22 = m21 * m.m12 + m22 * m.m22 + m23 * m.m32 + m24 * m.m42;
-		m23 = m21 * m.m13 + m22 * m.m23 + m23 * m.m33 + m24 * m.m43;
-		m24 = m21 * m.m14 + m22 * m.m24 + m23 * m.m34 + m24 * m.m44;
-
-		m31 = m31 * m.m11 + m32 * m.m21 + m33 * m.m31 + m34 * m.m41;
-		m32 = m31 * m.m12 + m32 * m.m22 + m33 * m.m32 + m34 * m.m42;
-		m33 = m31 * m.m13 + m32 * m.m23 + m33 * m.m33 + m34 * m.m43;
-		m34 = m31 * m.m14 + m32 * m.m24 + m33 * m.m34 + m34 * m.m44;
-
-		m41 = m41 * m.m11 + m42 * m.m21 + m43 * m.m31 + m44 * m.m41;
-		m42 = m41 * m.m12 + m42 * m.m22 + m43 * m.m32 + m44 * m.m42;
-		m43 = m41 * m.m13 + m42 * m.m23 + m43 * m.m33 + m44 * m.m43;
-		m44 = m41 * m.m14 + m42 * m.m24 + m43 * m.m34 + m44 * m.m44;
-		return this;
+		return mul(m, this);
+	}
+
+	/**
+	 * Multiplies this matrix by another matrix m and stores the result in matrix dest. This matrix is not changed unless it is dest.
+	 * 
+	 * m.mul(r, r) multiplies r on the left by m without a temporary matrix.
+	 * 
+	 * @param m
+	 *            the value to multiply by.
+	 * @param dest
+	 *            the matrix where the result is stored. May be this matrix or m.
+	 * 
+	 * @return dest.
+	 */
+	public Mat4 mul(Mat4 m, Mat4 dest) {
+		if ((m.properties & PROPERTY_IDENTITY) != 0) return dest.set(this);
+		if ((properties & PROPERTY_IDENTITY) != 0) return dest.set(m);
+		if ((properties & m.properties & PROPERTY_TRANSLATION) != 0) {
+			float x = m41 + m.m41;
+			float y = m42 + m.m42;
+			float z = m43 + m.m43;
+			dest.assign(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, x, y, z, 1);
+			dest.properties = PROPERTY_AFFINE | PROPERTY_ORTHONORMAL | PROPERTY_TRANSLATION;
+			return dest;
+		}
+		if ((properties & m.properties & PROPERTY_AFFINE) != 0) return mulAffine(m, dest);
+
+		float t11 = m11 * m.m11 + m12 * m.m21 + m13 * m.m31 + m14 * m.m41;
+		float t12 = m11 * m.m12 + m12 * m.m22 + m13 * m.m32 + m14 * m.m42;
+		float t13 = m11 * m.m13 + m12 * m.m23 + m13 * m.m33 + m14 * m.m43;
+		float t14 = m11 * m.m14 + m12 * m.m24 + m13 * m.m34 + m14 * m.m44;
+
+		float t21 = m21 * m.m11 + m22 * m.m21 + m23 * m.m31 + m24 * m.m41;
+		float t22 = m21 * m.m12 + m22 * m.m22 + m23 * m.m32 + m24 * m.m42;
+		float t23 = m21 * m.m13 + m22 * m.m23 + m23 * m.m33 + m24 * m.m43;
+		float t24 = m21 * m.m14 + m22 * m.m24 + m23 * m.m34 + m24 * m.m44;
+
+		float t31 = m31 * m.m11 + m32 * m.m21 + m33 * m.m31 + m34 * m.m41;
+		float t32 = m31 * m.m12 + m32 * m.m22 + m33 * m.m32 + m34 * m.m42;
+		float t33 = m31 * m.m13 + m32 * m.m23 + m33 * m.m33 + m34 * m.m43;
+		float t34 = m31 * m.m14 + m32 * m.m24 + m33 * m.m34 + m34 * m.m44;
+
+		float t41 = m41 * m.m11 + m42 * m.m21 + m43 * m.m31 + m44 * m.m41;
+		float t42 = m41 * m.m12 + m42 * m.m22 + m43 * m.m32 + m44 * m.m42;
+		float t43 = m41 * m.m13 + m42 * m.m23 + m43 * m.m33 + m44 * m.m43;
+		float t44 = m41 * m.m14 + m42 * m.m24 + m43 * m.m34 + m44 * m.m44;
+		return dest.set(t11, t12, t13, t14, t21, t22, t23, t24, t31, t32, t33, t34, t41, t42, t43, t44);
+	}
+
+	private Mat4 mulAffine(Mat4 m, Mat4 dest) {
+		float t11 = m11 * m.m11 + m12 * m.m21 + m13 * m.m31;
+		float t12 = m11 * m.m12 + m12 * m.m22 + m13 * m.m32;
+		float t13 = m11 * m.m13 + m12 * m.m23 + m13 * m.m33;
+
+		float t21 = m21 * m.m11 + m22 * m.m21 + m23 * m.m31;
+		float t22 = m21 * m.m12 + m22 * m.m22 + m23 * m.m32;
+		float t23 = m21 * m.m13 + m22 * m.m23 + m23 * m.m33;
+
+		float t31 = m31 * m.m11 + m32 * m.m21 + m33 * m.m31;
+		float t32 = m31 * m.m12 + m32 * m.m22 + m33 * m.m32;
+		float t33 = m31 * m.m13 + m32 * m.m23 + m33 * m.m33;
+
+		float t41 = m41 * m.m11 + m42 * m.m21 + m43 * m.m31 + m.m41;
+		float t42 = m41 * m.m12 + m42 * m.m22 + m43 * m.m32 + m.m42;
+		float t43 = m41 * m.m13 + m42 * m.m23 + m43 * m.m33 + m.m43;
+
+		int p = properties & m.properties & (PROPERTY_AFFINE | PROPERTY_ORTHONORMAL);
+		dest.assign(t11, t12, t13, 0, t21, t22, t23, 0, t31, t32, t33, 0, t41, t42, t43, 1);
+		dest.properties = p;
+		return dest;
 	}
 
 	/**
@@ -418,7 +758,7 @@ public class Mat4 implements Vecmath<Mat4> {
 		m42 *= (1 - t) + m.m42 * t;
 		m43 *= (1 - t) + m.m43 * t;
 		m44 *= (1 - t) + m.m44 * t;
-		return this;
+		return determineProperties();
 	}
 
 	/**
@@ -436,6 +776,11 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return the value of the determinant.
 	 */
 	public float getDeterminant() {
+		if ((properties & PROPERTY_TRANSLATION) != 0) return 1f;
+		if ((properties & PROPERTY_AFFINE) != 0) {
+			return m11 * (m22 * m33 - m23 * m32) + m12 * (m23 * m31 - m21 * m33) + m13 * (m21 * m32 - m22 * m31);
+		}
+
 		return m41 * m32 * m23 * m14 - m31 * m42 * m23 * m14 //
 				- m41 * m22 * m33 * m14 + m21 * m42 * m33 * m14 //
 				+ m31 * m22 * m43 * m14 - m21 * m32 * m43 * m14 //
@@ -459,11 +804,21 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 inverse() {
-		if (!isInvertible()) {
-			throw new RuntimeException("Non-Invertible matrix: " + this);
+		if ((properties & PROPERTY_IDENTITY) != 0) return this;
+		if ((properties & PROPERTY_TRANSLATION) != 0) {
+			m41 = -m41;
+			m42 = -m42;
+			m43 = -m43;
+			return this;
 		}
+		if ((properties & PROPERTY_ORTHONORMAL) != 0) return inverseOrthonormal();
+		if ((properties & PROPERTY_AFFINE) != 0) return inverseAffine();
 
 		float determinant = getDeterminant();
+		if (determinant == 0f) {
+			throw new RuntimeException("Non-Invertible matrix: " + this);
+		}
+
 		float invDeterminant = 1f / determinant;
 
 		float t00 = m23 * m34 * m42 - m24 * m33 * m42 + m24 * m32 * m43 - m22 * m34 * m43 - m23 * m32 * m44 + m22 * m33 * m44;
@@ -485,8 +840,55 @@ public class Mat4 implements Vecmath<Mat4> {
 		return set(t00, t01, t02, t03, t10, t11, t12, t13, t20, t21, t22, t23, t30, t31, t32, t33).mul(invDeterminant);
 	}
 
-	private boolean isInvertible() {
-		return getDeterminant() != 0f;
+	/**
+	 * The inverse of a rotation and translation is the transposed rotation with the translation rotated back and negated.
+	 */
+	private Mat4 inverseOrthonormal() {
+		float tx = -(m41 * m11 + m42 * m12 + m43 * m13);
+		float ty = -(m41 * m21 + m42 * m22 + m43 * m23);
+		float tz = -(m41 * m31 + m42 * m32 + m43 * m33);
+		int p = properties;
+		assign(m11, m21, m31, 0, m12, m22, m32, 0, m13, m23, m33, 0, tx, ty, tz, 1);
+		properties = p;
+		return this;
+	}
+
+	/**
+	 * The inverse of an affine matrix only needs the inverse of its upper 3x3, which is then applied to the negated translation.
+	 */
+	private Mat4 inverseAffine() {
+		float t11 = m22 * m33 - m23 * m32;
+		float t12 = m13 * m32 - m12 * m33;
+		float t13 = m12 * m23 - m13 * m22;
+		float t21 = m23 * m31 - m21 * m33;
+		float t22 = m11 * m33 - m13 * m31;
+		float t23 = m13 * m21 - m11 * m23;
+		float t31 = m21 * m32 - m22 * m31;
+		float t32 = m12 * m31 - m11 * m32;
+		float t33 = m11 * m22 - m12 * m21;
+
+		float determinant = m11 * t11 + m12 * t21 + m13 * t31;
+		if (determinant == 0f) {
+			throw new RuntimeException("Non-Invertible matrix: " + this);
+		}
+
+		float invDeterminant = 1f / determinant;
+		t11 *= invDeterminant;
+		t12 *= invDeterminant;
+		t13 *= invDeterminant;
+		t21 *= invDeterminant;
+		t22 *= invDeterminant;
+		t23 *= invDeterminant;
+		t31 *= invDeterminant;
+		t32 *= invDeterminant;
+		t33 *= invDeterminant;
+
+		float tx = -(m41 * t11 + m42 * t21 + m43 * t31);
+		float ty = -(m41 * t12 + m42 * t22 + m43 * t32);
+		float tz = -(m41 * t13 + m42 * t23 + m43 * t33);
+		assign(t11, t12, t13, 0, t21, t22, t23, 0, t31, t32, t33, 0, tx, ty, tz, 1);
+		properties = PROPERTY_AFFINE;
+		return this;
 	}
 
 	/**
@@ -495,6 +897,8 @@ public class Mat4 implements Vecmath<Mat4> {
 	 * @return this matrix.
 	 */
 	public Mat4 transpose() {
+		if ((properties & PROPERTY_IDENTITY) != 0) return this;
+
 		float t00 = m11, t01 = m12, t02 = m13, t03 = m14;
 		float t10 = m21, t11 = m22, t12 = m23, t13 = m24;
 		float t20 = m31, t21 = m32, t22 = m33, t23 = m34;
@@ -514,7 +918,7 @@ public class Mat4 implements Vecmath<Mat4> {
 	// java.lang.Object overrides
 
 	public Mat4 clone() {
-		return new Mat4(m11, m12, m13, m14, m21, m22, m23, m24, m31, m32, m33, m34, m41, m42, m43, m44);
+		return new Mat4(this);
 	}
 
 	public String toString() {
@@ -0,0 +1,166 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * An array of 4x4 matrices that lives in a FloatBuffer, usually off-heap. Each element is stored as 16 consecutive floats in the same order as Mat4.putInto(FloatBuffer).
+ *
+ * Elements are read and written in place by index, so the buffer can be handed to OpenGL or native code without copying every matrix through putInto(FloatBuffer).
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Mat4Buffer {
+	public static final int FLOATS = 16;
+
+	public final FloatBuffer buffer;
+
+	// Constructors and setters
+
+	/**
+	 * Allocates a Mat4Buffer of the given length in native memory with every element initialised to an identity matrix.
+	 * 
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return the result.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the length is negative or the elements do not fit in one direct buffer of at most Integer.MAX_VALUE bytes.
+	 */
+	public static Mat4Buffer allocate(int length) {
+		// The size is computed in long, as it overflows an int long before the length does
+		long size = (long) length * FLOATS * 4;
+		if (length < 0 || size > Integer.MAX_VALUE) throw new IllegalArgumentException("Cannot allocate " + length + " matrices in one direct buffer");
+		ByteBuffer bytes = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+		Mat4Buffer result = new Mat4Buffer(bytes.asFloatBuffer());
+		for (int i = 0; i < length; i++) {
+			result.identity(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Constructs a Mat4Buffer that views the remaining floats of the given buffer. The contents are not copied and the position of the buffer is not changed.
+	 * 
+	 * @param buffer
+	 *            the buffer to view.
+	 */
+	public Mat4Buffer(FloatBuffer buffer) {
+		this.buffer = buffer.slice();
+	}
+
+	/**
+	 * Gets the number of elements in this buffer.
+	 * 
+	 * @return the result.
+	 */
+	public int length() {
+		return buffer.limit() / FLOATS;
+	}
+
+	/**
+	 * Copies the element at index i into matrix dest.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param dest
+	 *            the matrix to store the element into.
+	 * 
+	 * @return dest.
+	 */
+	public Mat4 get(int i, Mat4 dest) {
+		FloatBuffer b = buffer;
+		int p = i * FLOATS;
+		return dest.set(b.get(p), b.get(p + 1), b.get(p + 2), b.get(p + 3), b.get(p + 4), b.get(p + 5), b.get(p + 6), b.get(p + 7), b.get(p + 8), b.get(p + 9), b.get(p + 10), b.get(p + 11), b.get(p + 12), b.get(p + 13), b.get(p + 14), b.get(p + 15));
+	}
+
+	/**
+	 * Sets the element at index i to the values of matrix m.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param m
+	 *            the matrix to copy.
+	 * 
+	 * @return this buffer.
+	 */
+	public Mat4Buffer set(int i, Mat4 m) {
+		return set(i, m.m11, m.m12, m.m13, m.m14, m.m21, m.m22, m.m23, m.m24, m.m31, m.m32, m.m33, m.m34, m.m41, m.m42, m.m43, m.m44);
+	}
+
+	/**
+	 * Sets the element at index i to an identity matrix.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * 
+	 * @return this buffer.
+	 */
+	public Mat4Buffer identity(int i) {
+		return set(i, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1);
+	}
+
+	private Mat4Buffer set(int i, float m11, float m12, float m13, float m14, float m21, float m22, float m23, float m24, float m31, float m32, float m33, float m34, float m41, float m42, float m43, float m44) {
+		FloatBuffer b = buffer;
+		int p = i * FLOATS;
+		b.put(p, m11).put(p + 1, m12).put(p + 2, m13).put(p + 3, m14);
+		b.put(p + 4, m21).put(p + 5, m22).put(p + 6, m23).put(p + 7, m24);
+		b.put(p + 8, m31).put(p + 9, m32).put(p + 10, m33).put(p + 11, m34);
+		b.put(p + 12, m41).put(p + 13, m42).put(p + 14, m43).put(p + 15, m44);
+		return this;
+	}
+
+	// Arithmetic methods
+
+	/**
+	 * Multiplies the element at index i by matrix m, in place.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param m
+	 *            the matrix to multiply by.
+	 * 
+	 * @return this buffer.
+	 */
+	public Mat4Buffer mul(int i, Mat4 m) {
+		FloatBuffer b = buffer;
+		int p = i * FLOATS;
+		for (int row = 0; row < 4; row++, p += 4) {
+			float a1 = b.get(p), a2 = b.get(p + 1), a3 = b.get(p + 2), a4 = b.get(p + 3);
+			b.put(p, a1 * m.m11 + a2 * m.m21 + a3 * m.m31 + a4 * m.m41);
+			b.put(p + 1, a1 * m.m12 + a2 * m.m22 + a3 * m.m32 + a4 * m.m42);
+			b.put(p + 2, a1 * m.m13 + a2 * m.m23 + a3 * m.m33 + a4 * m.m43);
+			b.put(p + 3, a1 * m.m14 + a2 * m.m24 + a3 * m.m34 + a4 * m.m44);
+		}
+		return this;
+	}
+
+	/**
+	 * Multiplies every element in the range by matrix m, in place.
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Mat4Buffer mul(Mat4 m, int from, int to) {
+		Vec3Array.checkRange(length(), from, to);
+		for (int i = from; i < to; i++) {
+			mul(i, m);
+		}
+		return this;
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "Mat4Buffer(" + length() + ")";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.util.Arrays;
+
+/**
+ * A stack of 4x4 matrices for traversing a scene hierarchy without allocating a matrix per node.
+ *
+ * The current matrix is top(), which is modified in place, for example with top().translate(p).rotX(a) or mulTop(local). push() saves a copy of it and pop() restores the last saved copy. Saved matrices are kept back-to-back in one float array that grows when the stack is deeper than ever before, so after the first traversal no further memory is allocated.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class MatrixStack {
+	private final Mat4 top = new Mat4();
+	private float[] saved;
+	private int[] savedProperties;
+	private int depth;
+
+	// Constructors
+
+	/**
+	 * Constructs and initialises a MatrixStack with room for 16 saved matrices. The current matrix is the identity matrix.
+	 */
+	public MatrixStack() {
+		this(16);
+	}
+
+	/**
+	 * Constructs and initialises a MatrixStack with room for the given number of saved matrices. The current matrix is the identity matrix.
+	 * 
+	 * @param capacity
+	 *            the number of saved matrices to allocate room for.
+	 */
+	public MatrixStack(int capacity) {
+		if (capacity < 1) capacity = 1;
+		saved = new float[capacity * 16];
+		savedProperties = new int[capacity];
+	}
+
+	// Stack methods
+
+	/**
+	 * Gets the current matrix. Changes made to it are undone by the next pop().
+	 * 
+	 * @return the result.
+	 */
+	public Mat4 top() {
+		return top;
+	}
+
+	/**
+	 * Gets the number of saved matrices.
+	 * 
+	 * @return the result.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Saves a copy of the current matrix.
+	 * 
+	 * @return this stack.
+	 */
+	public MatrixStack push() {
+		if (depth == savedProperties.length) {
+			saved = Arrays.copyOf(saved, saved.length * 2);
+			savedProperties = Arrays.copyOf(savedProperties, savedProperties.length * 2);
+		}
+
+		Mat4 m = top;
+		float[] s = saved;
+		int p = depth * 16;
+		s[p] = m.m11;
+		s[p + 1] = m.m12;
+		s[p + 2] = m.m13;
+		s[p + 3] = m.m14;
+		s[p + 4] = m.m21;
+		s[p + 5] = m.m22;
+		s[p + 6] = m.m23;
+		s[p + 7] = m.m24;
+		s[p + 8] = m.m31;
+		s[p + 9] = m.m32;
+		s[p + 10] = m.m33;
+		s[p + 11] = m.m34;
+		s[p + 12] = m.m41;
+		s[p + 13] = m.m42;
+		s[p + 14] = m.m43;
+		s[p + 15] = m.m44;
+		savedProperties[depth++] = m.properties;
+		return this;
+	}
+
+	/**
+	 * Saves a copy of the current matrix, then multiplies the current matrix on the left by matrix m. This is the usual step when entering a child node with local transform m.
+	 * 
+	 * @param m
+	 *            the local transform.
+	 * 
+	 * @return this stack.
+	 */
+	public MatrixStack push(Mat4 m) {
+		return push().mulTop(m);
+	}
+
+	/**
+	 * Restores the current matrix to the last saved copy.
+	 * 
+	 * @return this stack.
+	 */
+	public MatrixStack pop() {
+		if (depth == 0) throw new IllegalStateException("Cannot pop an empty MatrixStack");
+
+		Mat4 m = top;
+		float[] s = saved;
+		int p = --depth * 16;
+		m.m11 = s[p];
+		m.m12 = s[p + 1];
+		m.m13 = s[p + 2];
+		m.m14 = s[p + 3];
+		m.m21 = s[p + 4];
+		m.m22 = s[p + 5];
+		m.m23 = s[p + 6];
+		m.m24 = s[p + 7];
+		m.m31 = s[p + 8];
+		m.m32 = s[p + 9];
+		m.m33 = s[p + 10];
+		m.m34 = s[p + 11];
+		m.m41 = s[p + 12];
+		m.m42 = s[p + 13];
+		m.m43 = s[p + 14];
+		m.m44 = s[p + 15];
+		m.properties = savedProperties[depth];
+		return this;
+	}
+
+	/**
+	 * Multiplies the current matrix on the left by matrix m, so that m is applied before the transforms already on the stack. This is the same order as top().translate() and top().rotate().
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * 
+	 * @return this stack.
+	 */
+	public MatrixStack mulTop(Mat4 m) {
+		m.mul(top, top);
+		return this;
+	}
+
+	/**
+	 * Removes every saved matrix and sets the current matrix to the identity matrix. The storage is kept for reuse.
+	 * 
+	 * @return this stack.
+	 */
+	public MatrixStack clear() {
+		depth = 0;
+		top.identity();
+		return this;
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "MatrixStack(" + depth + ")\n" + top;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,379 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.nio.FloatBuffer;
+
+import com.jaspreetdhanjan.vecmath.util.TrigUtil;
+
+/**
+ * A quaternion that is represented by 4 single-precision floating numbers, used to represent rotations.
+ *
+ * Quaternions compose with q.mul(r), which rotates by r and then by q. This is the same order as Mat4.rotate(), so new Mat4().set(q).rotate(r) equals new Mat4().set(q.clone().mul(r)).
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Quat implements Vecmath<Quat> {
+	public float x;
+	public float y;
+	public float z;
+	public float w;
+
+	// Constructors and setters
+
+	/**
+	 * Constructs and initialises an identity quaternion: (0, 0, 0, 1).
+	 */
+	public Quat() {
+		this(0, 0, 0, 1);
+	}
+
+	/**
+	 * Constructs and initialises a Quat from the specified x, y, z, w values.
+	 * 
+	 * @param x
+	 *            the x component.
+	 * @param y
+	 *            the y component.
+	 * @param z
+	 *            the z component.
+	 * @param w
+	 *            the w component.
+	 */
+	public Quat(float x, float y, float z, float w) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.w = w;
+	}
+
+	/**
+	 * Constructs and initialises a Quat from the attributes of quaternion r.
+	 * 
+	 * @param r
+	 *            the quaternion to copy.
+	 */
+	public Quat(Quat r) {
+		this(r.x, r.y, r.z, r.w);
+	}
+
+	/**
+	 * Sets the x, y, z, w attributes to the values in the parameters.
+	 * 
+	 * @param x
+	 *            the x component.
+	 * @param y
+	 *            the y component.
+	 * @param z
+	 *            the z component.
+	 * @param w
+	 *            the w component.
+	 * 
+	 * @return the result.
+	 */
+	public Quat set(float x, float y, float z, float w) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.w = w;
+		return this;
+	}
+
+	/**
+	 * Sets the x, y, z, w attributes to the values of quaternion r.
+	 * 
+	 * @param r
+	 *            the quaternion to copy.
+	 * 
+	 * @return the result.
+	 */
+	public Quat set(Quat r) {
+		return set(r.x, r.y, r.z, r.w);
+	}
+
+	/**
+	 * Sets the quaternion values to the values of the FloatBuffer.
+	 * 
+	 * @param buffer
+	 *            the FloatBuffer to copy.
+	 * 
+	 * @return this quaternion.
+	 */
+	public Quat set(FloatBuffer buffer) {
+		int pp = 0;
+		return set(buffer.get(pp++), buffer.get(pp++), buffer.get(pp++), buffer.get(pp++));
+	}
+
+	/**
+	 * Compresses the quaternion information into the given FloatBuffer.
+	 * 
+	 * @param buffer
+	 *            the buffer where the quaternion will be stored into.
+	 */
+	public void putInto(FloatBuffer buffer) {
+		buffer.clear();
+		buffer.put(x).put(y).put(z).put(w);
+		buffer.flip();
+	}
+
+	/**
+	 * Writes the quaternion information into the given FloatBuffer starting at the given index. The position and limit of the buffer are not changed, so many objects can be written back-to-back into one buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer where the quaternion will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 */
+	public void putInto(FloatBuffer buffer, int offset) {
+		buffer.put(offset, x).put(offset + 1, y).put(offset + 2, z).put(offset + 3, w);
+	}
+
+	/**
+	 * Sets this quaternion to the identity rotation.
+	 * 
+	 * @return the result.
+	 */
+	public Quat identity() {
+		return set(0, 0, 0, 1);
+	}
+
+	/**
+	 * Sets this quaternion to a rotation by a given angle around a given axis.
+	 * 
+	 * @param angle
+	 *            the amount, in radians, to rotate.
+	 * @param axis
+	 *            the axis to rotate around. It is assumed to be normalised.
+	 * 
+	 * @return the result.
+	 */
+	public Quat setAxisAngle(float angle, Vec3 axis) {
+		float half = angle * 0.5f;
+		long sinCos = TrigUtil.sinCos(half);
+		float sin = TrigUtil.sinOf(sinCos);
+		float cos = TrigUtil.cosOf(sinCos);
+		return set(axis.x * sin, axis.y * sin, axis.z * sin, cos);
+	}
+
+	// Rotation methods
+
+	/**
+	 * Multiplies this quaternion by quaternion r. The result rotates by r and then by this quaternion.
+	 * 
+	 * @param r
+	 *            the other quaternion.
+	 * 
+	 * @return the result.
+	 */
+	public Quat mul(Quat r) {
+		float xx = w * r.x + x * r.w + y * r.z - z * r.y;
+		float yy = w * r.y - x * r.z + y * r.w + z * r.x;
+		float zz = w * r.z + x * r.y - y * r.x + z * r.w;
+		float ww = w * r.w - x * r.x - y * r.y - z * r.z;
+		return set(xx, yy, zz, ww);
+	}
+
+	/**
+	 * Rotates this quaternion by a given angle around a given axis, in the same order as Mat4.rotate().
+	 * 
+	 * @param angle
+	 *            the amount, in radians, to rotate.
+	 * @param axis
+	 *            the axis to rotate around. It is assumed to be normalised.
+	 * 
+	 * @return the result.
+	 */
+	public Quat rotate(float angle, Vec3 axis) {
+		float half = angle * 0.5f;
+		long sinCos = TrigUtil.sinCos(half);
+		float sin = TrigUtil.sinOf(sinCos);
+		float cos = TrigUtil.cosOf(sinCos);
+		float rx = axis.x * sin, ry = axis.y * sin, rz = axis.z * sin;
+		float xx = w * rx + x * cos + y * rz - z * ry;
+		float yy = w * ry - x * rz + y * cos + z * rx;
+		float zz = w * rz + x * ry - y * rx + z * cos;
+		float ww = w * cos - x * rx - y * ry - z * rz;
+		return set(xx, yy, zz, ww);
+	}
+
+	/**
+	 * Rotates vector r by this quaternion, which is assumed to be normalised.
+	 * 
+	 * @param r
+	 *            the vector to rotate.
+	 * 
+	 * @return a new vector.
+	 */
+	public Vec3 mul(Vec3 r) {
+		return mul(r, new Vec3());
+	}
+
+	/**
+	 * Rotates vector r by this quaternion, which is assumed to be normalised, and stores the result in vector dest.
+	 * 
+	 * @param r
+	 *            the vector to rotate.
+	 * @param dest
+	 *            the vector where the result is stored. May be r.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 mul(Vec3 r, Vec3 dest) {
+		// v' = v + 2w(q x v) + 2(q x (q x v))
+		float tx = 2f * (y * r.z - z * r.y);
+		float ty = 2f * (z * r.x - x * r.z);
+		float tz = 2f * (x * r.y - y * r.x);
+		float xx = r.x + w * tx + y * tz - z * ty;
+		float yy = r.y + w * ty + z * tx - x * tz;
+		float zz = r.z + w * tz + x * ty - y * tx;
+		return dest.set(xx, yy, zz);
+	}
+
+	/**
+	 * Stores the rotation represented by this quaternion in matrix dest.
+	 * 
+	 * @param dest
+	 *            the matrix where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Mat4 toMat4(Mat4 dest) {
+		return dest.set(this);
+	}
+
+	// Other methods
+
+	/**
+	 * Conjugates this quaternion. For a normalised quaternion this is the inverse rotation.
+	 * 
+	 * @return the result.
+	 */
+	public Quat conjugate() {
+		return set(-x, -y, -z, w);
+	}
+
+	/**
+	 * Inverses this quaternion.
+	 * 
+	 * @return if the magnitude of the quaternion is 0, an empty quaternion is returned. The actual result is returned otherwise.
+	 */
+	public Quat inverse() {
+		float lenSqrd = dot(this);
+		if (lenSqrd > 0) {
+			float inv = 1f / lenSqrd;
+			return set(-x * inv, -y * inv, -z * inv, w * inv);
+		}
+		return set(0, 0, 0, 0);
+	}
+
+	/**
+	 * Normalises this quaternion.
+	 * 
+	 * @return if the magnitude of the quaternion is 0, an empty quaternion is returned. The actual result is returned otherwise.
+	 */
+	public Quat normalise() {
+		float len = length();
+		if (len > 0) {
+			float inv = 1f / len;
+			return set(x * inv, y * inv, z * inv, w * inv);
+		}
+		return set(0, 0, 0, 0);
+	}
+
+	/**
+	 * Gets the dot product from this and quaternion r.
+	 * 
+	 * @param r
+	 *            the other quaternion.
+	 * 
+	 * @return the result.
+	 */
+	public float dot(Quat r) {
+		return x * r.x + y * r.y + z * r.z + w * r.w;
+	}
+
+	/**
+	 * Gets the magnitude of this quaternion.
+	 * 
+	 * @return the result.
+	 */
+	public float length() {
+		return (float) Math.sqrt(x * x + y * y + z * z + w * w);
+	}
+
+	/**
+	 * Linearly interpolates between this quaternion and quaternion q along the shortest path, then normalises the result.
+	 * 
+	 * This is cheaper than slerp() and is accurate enough for small steps, such as blending between animation frames.
+	 * 
+	 * @param q
+	 *            the target rotation.
+	 * @param t
+	 *            step size.
+	 * 
+	 * @return the result.
+	 */
+	public Quat nlerp(Quat q, float t) {
+		float s = dot(q) < 0 ? -t : t;
+		float u = 1f - t;
+		return set(x * u + q.x * s, y * u + q.y * s, z * u + q.z * s, w * u + q.w * s).normalise();
+	}
+
+	/**
+	 * Spherically interpolates between this quaternion and quaternion q along the shortest path, at a constant angular velocity.
+	 * 
+	 * @param q
+	 *            the target rotation.
+	 * @param t
+	 *            step size.
+	 * 
+	 * @return the result.
+	 */
+	public Quat slerp(Quat q, float t) {
+		float cos = dot(q);
+		float sign = 1f;
+		if (cos < 0) {
+			cos = -cos;
+			sign = -1f;
+		}
+
+		float a = 1f - t;
+		float b = t;
+		if (cos < 0.9995f) {
+			float angle = (float) Math.acos(cos);
+			float invSin = 1f / (float) Math.sin(angle);
+			a = (float) Math.sin(a * angle) * invSin;
+			b = (float) Math.sin(b * angle) * invSin;
+		}
+		b *= sign;
+		set(x * a + q.x * b, y * a + q.y * b, z * a + q.z * b, w * a + q.w * b);
+		return cos < 0.9995f ? this : normalise();
+	}
+
+	// java.lang.Object overrides
+
+	public Quat clone() {
+		return new Quat(x, y, z, w);
+	}
+
+	public String toString() {
+		return "Quat(" + x + ", " + y + ", " + z + ", " + w + ")";
+	}
+
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Float.floatToIntBits(x);
+		result = prime * result + Float.floatToIntBits(y);
+		result = prime * result + Float.floatToIntBits(z);
+		result = prime * result + Float.floatToIntBits(w);
+		return result;
+	}
+
+	public boolean equals(Object o) {
+		if (o instanceof Quat) {
+			Quat r = (Quat) o;
+			if (x == r.x && y == r.y && z == r.z && w == r.w) return true;
+		}
+		return false;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,407 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A hierarchy of transforms that keeps a world matrix for every node and recomputes only the nodes that changed.
+ *
+ * Nodes are identified by their index. Every node has a parent index, or -1 for a root, and a local and world matrix. The world matrix of a node is its local matrix followed by the world matrix of its parent, local.mul(parentWorld). After changing a local matrix, call markDirty() on its node. update() then recomputes the world matrices of the dirty nodes and their descendants only, so the cost of an update depends on how much of the hierarchy changed rather than on its size. Independent dirty subtrees are updated in parallel on a ForkJoinPool when there is enough work.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class TransformHierarchy {
+	private static final int SEQUENTIAL_THRESHOLD = 2048;
+
+	private Mat4[] local;
+	private Mat4[] world;
+	private int[] parent;
+	private int[] firstChild;
+	private int[] nextSibling;
+	private int[] subtreeSize;
+	private boolean[] dirty;
+	private int[] dirtyNodes;
+	private int dirtyCount;
+	private int[] roots;
+	// Prefix sums of the subtree sizes of the roots, so that a range of roots can be split by work
+	private int[] rootWork;
+	private int[] stack;
+	private final ThreadLocal<int[]> workerStacks = new ThreadLocal<int[]>();
+	private int[] stamp;
+	private int epoch;
+	private int size;
+	private boolean subtreeSizesValid;
+
+	// Constructors
+
+	/**
+	 * Constructs an empty TransformHierarchy with room for 16 nodes.
+	 */
+	public TransformHierarchy() {
+		this(16);
+	}
+
+	/**
+	 * Constructs an empty TransformHierarchy with room for the given number of nodes. The storage grows if more nodes are added.
+	 * 
+	 * @param capacity
+	 *            the number of nodes to allocate room for.
+	 */
+	public TransformHierarchy(int capacity) {
+		if (capacity < 1) capacity = 1;
+		local = new Mat4[capacity];
+		world = new Mat4[capacity];
+		parent = new int[capacity];
+		firstChild = new int[capacity];
+		nextSibling = new int[capacity];
+		subtreeSize = new int[capacity];
+		dirty = new boolean[capacity];
+		dirtyNodes = new int[capacity];
+		roots = new int[capacity];
+		rootWork = new int[capacity + 1];
+		stack = new int[capacity];
+		stamp = new int[capacity];
+	}
+
+	// Structure methods
+
+	/**
+	 * Adds a node with an identity local matrix. The new node is dirty.
+	 * 
+	 * @param parentIndex
+	 *            the index of the parent node, or -1 to add a root.
+	 * 
+	 * @return the index of the new node.
+	 */
+	public int add(int parentIndex) {
+		if (parentIndex < -1 || parentIndex >= size) throw new IndexOutOfBoundsException("No parent node " + parentIndex);
+		if (size == parent.length) grow(size * 2);
+
+		int i = size++;
+		local[i] = new Mat4();
+		world[i] = new Mat4();
+		parent[i] = parentIndex;
+		firstChild[i] = -1;
+		nextSibling[i] = -1;
+		if (parentIndex >= 0) {
+			nextSibling[i] = firstChild[parentIndex];
+			firstChild[parentIndex] = i;
+		}
+		subtreeSizesValid = false;
+		markDirty(i);
+		return i;
+	}
+
+	/**
+	 * Adds a node with the given local matrix. The new node is dirty.
+	 * 
+	 * @param parentIndex
+	 *            the index of the parent node, or -1 to add a root.
+	 * @param m
+	 *            the local matrix to copy.
+	 * 
+	 * @return the index of the new node.
+	 */
+	public int add(int parentIndex, Mat4 m) {
+		int i = add(parentIndex);
+		local[i].set(m);
+		return i;
+	}
+
+	private void grow(int capacity) {
+		local = Arrays.copyOf(local, capacity);
+		world = Arrays.copyOf(world, capacity);
+		parent = Arrays.copyOf(parent, capacity);
+		firstChild = Arrays.copyOf(firstChild, capacity);
+		nextSibling = Arrays.copyOf(nextSibling, capacity);
+		subtreeSize = Arrays.copyOf(subtreeSize, capacity);
+		dirty = Arrays.copyOf(dirty, capacity);
+		dirtyNodes = Arrays.copyOf(dirtyNodes, capacity);
+		roots = Arrays.copyOf(roots, capacity);
+		rootWork = Arrays.copyOf(rootWork, capacity + 1);
+		stack = Arrays.copyOf(stack, capacity);
+		stamp = Arrays.copyOf(stamp, capacity);
+	}
+
+	/**
+	 * Gets the number of nodes.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the index of the parent of node i.
+	 * 
+	 * @param i
+	 *            the index of the node.
+	 * 
+	 * @return the result, or -1 if node i is a root.
+	 */
+	public int parent(int i) {
+		checkIndex(i);
+		return parent[i];
+	}
+
+	/**
+	 * Gets the number of nodes in the subtree of node i, including node i.
+	 * 
+	 * @param i
+	 *            the index of the node.
+	 * 
+	 * @return the result.
+	 */
+	public int subtreeSize(int i) {
+		checkIndex(i);
+		if (!subtreeSizesValid) computeSubtreeSizes();
+		return subtreeSize[i];
+	}
+
+	private void computeSubtreeSizes() {
+		// Children always have a higher index than their parent, so one backwards pass is enough
+		Arrays.fill(subtreeSize, 0, size, 1);
+		for (int i = size - 1; i >= 0; i--) {
+			int p = parent[i];
+			if (p >= 0) subtreeSize[p] += subtreeSize[i];
+		}
+		subtreeSizesValid = true;
+	}
+
+	// Transform methods
+
+	/**
+	 * Gets the local matrix of node i. If it is modified, call markDirty(i) afterwards.
+	 * 
+	 * @param i
+	 *            the index of the node.
+	 * 
+	 * @return the result.
+	 */
+	public Mat4 local(int i) {
+		checkIndex(i);
+		return local[i];
+	}
+
+	/**
+	 * Gets the world matrix of node i, as of the last update(). It should not be modified.
+	 * 
+	 * @param i
+	 *            the index of the node.
+	 * 
+	 * @return the result.
+	 */
+	public Mat4 world(int i) {
+		checkIndex(i);
+		return world[i];
+	}
+
+	/**
+	 * Sets the local matrix of node i and marks it dirty.
+	 * 
+	 * @param i
+	 *            the index of the node.
+	 * @param m
+	 *            the matrix to copy.
+	 * 
+	 * @return this hierarchy.
+	 */
+	public TransformHierarchy setLocal(int i, Mat4 m) {
+		local(i).set(m);
+		return markDirty(i);
+	}
+
+	/**
+	 * Marks node i as changed, so that the world matrices of it and its descendants are recomputed by the next update().
+	 * 
+	 * @param i
+	 *            the index of the node.
+	 * 
+	 * @return this hierarchy.
+	 */
+	public TransformHierarchy markDirty(int i) {
+		checkIndex(i);
+		if (!dirty[i]) {
+			dirty[i] = true;
+			dirtyNodes[dirtyCount++] = i;
+		}
+		return this;
+	}
+
+	/**
+	 * Recomputes the world matrices of every dirty node and its descendants, using the common ForkJoinPool for large updates.
+	 * 
+	 * @return this hierarchy.
+	 */
+	public TransformHierarchy update() {
+		return update(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Recomputes the world matrices of every dirty node and its descendants, using the given ForkJoinPool for large updates.
+	 * 
+	 * @param pool
+	 *            the pool to run parallel updates on.
+	 * 
+	 * @return this hierarchy.
+	 */
+	public TransformHierarchy update(ForkJoinPool pool) {
+		if (!subtreeSizesValid) computeSubtreeSizes();
+
+		// A dirty node with a dirty ancestor is updated as part of the ancestor's subtree
+		int rootCount = 0;
+		int work = 0;
+		// Clean nodes passed on the way up are stamped, so that no ancestor chain is walked twice in one update
+		int clean = ++epoch;
+		int covered = -clean;
+		for (int k = 0; k < dirtyCount; k++) {
+			int i = dirtyNodes[k];
+			int p = parent[i];
+			while (p >= 0 && !dirty[p] && stamp[p] != clean && stamp[p] != covered) {
+				p = parent[p];
+			}
+			boolean root = p < 0 || stamp[p] == clean;
+			int s = root ? clean : covered;
+			for (int q = parent[i]; q != p; q = parent[q]) {
+				stamp[q] = s;
+			}
+			if (root) {
+				roots[rootCount++] = i;
+				work += subtreeSize[i];
+				rootWork[rootCount] = work;
+			}
+		}
+
+		if (work <= SEQUENTIAL_THRESHOLD) {
+			for (int k = 0; k < rootCount; k++) {
+				updateSubtree(roots[k], stack);
+			}
+		} else {
+			pool.invoke(new RootsTask(0, rootCount));
+		}
+
+		for (int k = 0; k < dirtyCount; k++) {
+			dirty[dirtyNodes[k]] = false;
+		}
+		dirtyCount = 0;
+		return this;
+	}
+
+	private void updateNode(int i) {
+		int p = parent[i];
+		if (p < 0) world[i].set(local[i]);
+		else local[i].mul(world[p], world[i]);
+	}
+
+	private void updateSubtree(int root, int[] stack) {
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int i = stack[--top];
+			updateNode(i);
+			for (int c = firstChild[i]; c >= 0; c = nextSibling[c]) {
+				stack[top++] = c;
+			}
+		}
+	}
+
+	/**
+	 * Gets the traversal stack of the current thread, so that parallel updates do not allocate one per task.
+	 */
+	private int[] workerStack() {
+		int[] s = workerStacks.get();
+		if (s == null || s.length < size) {
+			s = new int[parent.length];
+			workerStacks.set(s);
+		}
+		return s;
+	}
+
+	private class RootsTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		RootsTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			int work = rootWork[to] - rootWork[from];
+			if (to - from == 1 && work > SEQUENTIAL_THRESHOLD) {
+				new SubtreeTask(roots[from]).compute();
+			} else if (work <= SEQUENTIAL_THRESHOLD) {
+				int[] stack = workerStack();
+				for (int k = from; k < to; k++) {
+					updateSubtree(roots[k], stack);
+				}
+			} else {
+				// Split where the work reaches half, so that many small roots are batched into few tasks
+				int mid = Arrays.binarySearch(rootWork, from + 1, to, rootWork[from] + work / 2);
+				if (mid < 0) mid = -mid - 1;
+				if (mid >= to) mid = to - 1;
+				invokeAll(new RootsTask(from, mid), new RootsTask(mid, to));
+			}
+		}
+	}
+
+	private class SubtreeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int node;
+		// The task forked before this one by the same parent task, so that forked tasks are joined without a list
+		private SubtreeTask next;
+
+		SubtreeTask(int node) {
+			this.node = node;
+		}
+
+		protected void compute() {
+			int[] stack = workerStack();
+			SubtreeTask forked = null;
+
+			// Small children are updated here and large ones are forked, except for the largest, which this task continues with. Forked subtrees are then at most half the size of
+			// their parent's, which keeps the recursion shallow even for long chains.
+			int i = node;
+			while (subtreeSize[i] > SEQUENTIAL_THRESHOLD) {
+				updateNode(i);
+				int heavy = firstChild[i];
+				for (int c = firstChild[i]; c >= 0; c = nextSibling[c]) {
+					if (subtreeSize[c] > subtreeSize[heavy]) heavy = c;
+				}
+				for (int c = firstChild[i]; c >= 0; c = nextSibling[c]) {
+					if (c == heavy) continue;
+					if (subtreeSize[c] <= SEQUENTIAL_THRESHOLD) {
+						updateSubtree(c, stack);
+					} else {
+						SubtreeTask task = new SubtreeTask(c);
+						task.next = forked;
+						forked = task;
+						task.fork();
+					}
+				}
+				i = heavy;
+			}
+			updateSubtree(i, stack);
+
+			for (SubtreeTask task = forked; task != null; task = task.next) {
+				task.join();
+			}
+		}
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "TransformHierarchy(" + size + ")";
+	}
+}
\ No newline at end of file
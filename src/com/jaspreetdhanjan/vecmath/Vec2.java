@@ -2,6 +2,8 @@ package com.jaspreetdhanjan.vecmath;
 
 import java.nio.FloatBuffer;
 
+import com.jaspreetdhanjan.vecmath.util.TrigUtil;
+
 /**
  * A 2-element vector that is represented by 2 single-precision floating numbers.
  *
@@ -124,6 +126,18 @@ public class Vec2 implements Vecmath<Vec2> {
 		buffer.flip();
 	}
 
+	/**
+	 * Writes the vector information into the given FloatBuffer starting at the given index. The position and limit of the buffer are not changed, so many objects can be written back-to-back into one buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer where the vector will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 */
+	public void putInto(FloatBuffer buffer, int offset) {
+		buffer.put(offset, x).put(offset + 1, y);
+	}
+
 	// Addition methods
 
 	/**
@@ -393,9 +407,24 @@ public class Vec2 implements Vecmath<Vec2> {
 	 * @return the result.
 	 */
 	public Vec2 rot(float angle) {
-		float cos = (float) Math.cos(angle);
-		float sin = (float) Math.sin(angle);
-		return new Vec2(cos * x, sin * y);
+		return rot(angle, new Vec2());
+	}
+
+	/**
+	 * Rotates this vector by a given value and stores the result in vector dest.
+	 * 
+	 * @param angle
+	 *            the amount, in radians, to rotate.
+	 * @param dest
+	 *            the vector where the result is stored. May be this vector.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2 rot(float angle, Vec2 dest) {
+		long sinCos = TrigUtil.sinCos(angle);
+		float cos = TrigUtil.cosOf(sinCos);
+		float sin = TrigUtil.sinOf(sinCos);
+		return dest.set(cos * x, sin * y);
 	}
 
 	/**
@@ -0,0 +1,635 @@
+package com.jaspreetdhanjan.vecmath;
+
+/**
+ * A structure-of-arrays container of 2-element vectors. The x and y coordinates are held in two separate single-precision float arrays.
+ *
+ * The bulk operations mirror those of Vec2 and Vec3Array, and are applied to every element in the range [from, to) in a single loop.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Vec2Array {
+	public final float[] x;
+	public final float[] y;
+
+	// Constructors and setters
+
+	/**
+	 * Constructs a Vec2Array of the given length with every element initialised to (0, 0).
+	 * 
+	 * @param length
+	 *            the number of elements.
+	 */
+	public Vec2Array(int length) {
+		this(new float[length], new float[length]);
+	}
+
+	/**
+	 * Constructs a Vec2Array that is backed by the given coordinate arrays. The arrays are not copied.
+	 * 
+	 * @param x
+	 *            the x coordinates.
+	 * @param y
+	 *            the y coordinates.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length.
+	 */
+	public Vec2Array(float[] x, float[] y) {
+		if (x.length != y.length) {
+			throw new IllegalArgumentException("Coordinate arrays differ in length: " + x.length + ", " + y.length);
+		}
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Constructs a Vec2Array from the attributes of the given vectors.
+	 * 
+	 * @param r
+	 *            the vectors to copy.
+	 */
+	public Vec2Array(Vec2... r) {
+		this(r.length);
+		for (int i = 0; i < r.length; i++) {
+			set(i, r[i]);
+		}
+	}
+
+	/**
+	 * Gets the number of elements in this array.
+	 * 
+	 * @return the result.
+	 */
+	public int length() {
+		return x.length;
+	}
+
+	/**
+	 * Copies the element at index i into vector dest.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param dest
+	 *            the vector to store the element into.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2 get(int i, Vec2 dest) {
+		return dest.set(x[i], y[i]);
+	}
+
+	/**
+	 * Sets the element at index i to the given x, y values.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param xx
+	 *            the x coordinate.
+	 * @param yy
+	 *            the y coordinate.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array set(int i, float xx, float yy) {
+		x[i] = xx;
+		y[i] = yy;
+		return this;
+	}
+
+	/**
+	 * Sets the element at index i to the values of vector r.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param r
+	 *            the vector to copy.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array set(int i, Vec2 r) {
+		return set(i, r.x, r.y);
+	}
+
+	/**
+	 * Sets every element in the range to the values of vector r.
+	 * 
+	 * @param r
+	 *            the vector to copy.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array set(Vec2 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] = rx;
+			y[i] = ry;
+		}
+		return this;
+	}
+
+	/**
+	 * Copies the elements in the range from the same indices of array r.
+	 * 
+	 * @param r
+	 *            the array to copy.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array set(Vec2Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		System.arraycopy(r.x, from, x, from, to - from);
+		System.arraycopy(r.y, from, y, from, to - from);
+		return this;
+	}
+
+	// Addition methods
+
+	/**
+	 * Adds the value r to the x, y coordinates of every element in the range.
+	 * 
+	 * @param r
+	 *            value to add.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array add(float r, int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			x[i] += r;
+			y[i] += r;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the x, y attributes of vector r to every element in the range.
+	 * 
+	 * @param r
+	 *            the vector added.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array add(Vec2 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] += rx;
+			y[i] += ry;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the elements of array r to the elements of this array at the same indices.
+	 * 
+	 * @param r
+	 *            the array added.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array add(Vec2Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] += rx[i];
+			y[i] += ry[i];
+		}
+		return this;
+	}
+
+	// Subtraction methods
+
+	/**
+	 * Subtracts the value r from the x, y coordinates of every element in the range.
+	 * 
+	 * @param r
+	 *            value to subtract.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array sub(float r, int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			x[i] -= r;
+			y[i] -= r;
+		}
+		return this;
+	}
+
+	/**
+	 * Subtracts the x, y attributes of vector r from every element in the range.
+	 * 
+	 * @param r
+	 *            the vector subtracted.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array sub(Vec2 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] -= rx;
+			y[i] -= ry;
+		}
+		return this;
+	}
+
+	/**
+	 * Subtracts the elements of array r from the elements of this array at the same indices.
+	 * 
+	 * @param r
+	 *            the array subtracted.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array sub(Vec2Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] -= rx[i];
+			y[i] -= ry[i];
+		}
+		return this;
+	}
+
+	// Multiplication methods
+
+	/**
+	 * Multiplies the x, y coordinates of every element in the range by the value r.
+	 * 
+	 * @param r
+	 *            value to multiply by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array mul(float r, int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			x[i] *= r;
+			y[i] *= r;
+		}
+		return this;
+	}
+
+	/**
+	 * Multiplies every element in the range by the x, y attributes of vector r.
+	 * 
+	 * @param r
+	 *            the vector to multiply by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array mul(Vec2 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] *= rx;
+			y[i] *= ry;
+		}
+		return this;
+	}
+
+	/**
+	 * Multiplies the elements of this array by the elements of array r at the same indices.
+	 * 
+	 * @param r
+	 *            the array to multiply by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array mul(Vec2Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] *= rx[i];
+			y[i] *= ry[i];
+		}
+		return this;
+	}
+
+	// Division methods
+
+	/**
+	 * Divides the x, y coordinates of every element in the range by the value r.
+	 * 
+	 * @param r
+	 *            value to divide by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array div(float r, int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			x[i] /= r;
+			y[i] /= r;
+		}
+		return this;
+	}
+
+	/**
+	 * Divides every element in the range by the x, y attributes of vector r.
+	 * 
+	 * @param r
+	 *            the vector to divide by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array div(Vec2 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] /= rx;
+			y[i] /= ry;
+		}
+		return this;
+	}
+
+	/**
+	 * Divides the elements of this array by the elements of array r at the same indices.
+	 * 
+	 * @param r
+	 *            the array to divide by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array div(Vec2Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			x[i] /= rx[i];
+			y[i] /= ry[i];
+		}
+		return this;
+	}
+
+	// Other methods
+
+	/**
+	 * Adds the value of v to every element in the range with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the direction of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array mulAdd(Vec2 v, float s, int from, int to) {
+		checkRange(from, to);
+		float vx = v.x * s, vy = v.y * s;
+		for (int i = from; i < to; i++) {
+			x[i] += vx;
+			y[i] += vy;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the elements of array v to the elements of this array at the same indices with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the directions of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array mulAdd(Vec2Array v, float s, int from, int to) {
+		checkRange(from, to);
+		v.checkRange(from, to);
+		float[] vx = v.x, vy = v.y;
+		for (int i = from; i < to; i++) {
+			x[i] += vx[i] * s;
+			y[i] += vy[i] * s;
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the dot product of every element in the range and vector r.
+	 * 
+	 * @param r
+	 *            the other vector.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices as the elements.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public float[] dot(Vec2 r, float[] dest, int from, int to) {
+		checkRange(from, to);
+		Vec3Array.checkRange(dest.length, from, to);
+		float rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			dest[i] = x[i] * rx + y[i] * ry;
+		}
+		return dest;
+	}
+
+	/**
+	 * Gets the dot product of every element in the range and the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the other array.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices as the elements.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public float[] dot(Vec2Array r, float[] dest, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		Vec3Array.checkRange(dest.length, from, to);
+		float[] rx = r.x, ry = r.y;
+		for (int i = from; i < to; i++) {
+			dest[i] = x[i] * rx[i] + y[i] * ry[i];
+		}
+		return dest;
+	}
+
+	/**
+	 * Normalises every element in the range to its directional component. Elements with a magnitude of 0 are set to (0, 0).
+	 * 
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array normalise(int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			float xx = x[i], yy = y[i];
+			float lenSqrd = xx * xx + yy * yy;
+			float invLen = lenSqrd > 0 ? 1f / (float) Math.sqrt(lenSqrd) : 0f;
+			x[i] = xx * invLen;
+			y[i] = yy * invLen;
+		}
+		return this;
+	}
+
+	/**
+	 * Linearly interpolates every element in the range towards vector p.
+	 * 
+	 * @param p
+	 *            direction of the interpolation.
+	 * @param t
+	 *            step size.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array lerpTo(Vec2 p, float t, int from, int to) {
+		checkRange(from, to);
+		float px = p.x, py = p.y;
+		for (int i = from; i < to; i++) {
+			x[i] += (px - x[i]) * t;
+			y[i] += (py - y[i]) * t;
+		}
+		return this;
+	}
+
+	/**
+	 * Linearly interpolates every element in the range towards the element of array p at the same index.
+	 * 
+	 * @param p
+	 *            directions of the interpolation.
+	 * @param t
+	 *            step size.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec2Array lerpTo(Vec2Array p, float t, int from, int to) {
+		checkRange(from, to);
+		p.checkRange(from, to);
+		float[] px = p.x, py = p.y;
+		for (int i = from; i < to; i++) {
+			x[i] += (px[i] - x[i]) * t;
+			y[i] += (py[i] - y[i]) * t;
+		}
+		return this;
+	}
+
+	/**
+	 * Checks that the range is within this array.
+	 * 
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 *             if from is negative, to is greater than the length or from is greater than to.
+	 */
+	public void checkRange(int from, int to) {
+		Vec3Array.checkRange(x.length, from, to);
+	}
+
+	// java.lang.Object overrides
+
+	public Vec2Array clone() {
+		return new Vec2Array(x.clone(), y.clone());
+	}
+
+	public String toString() {
+		// Only the first few elements are shown, as the array may hold millions
+		StringBuilder b = new StringBuilder("Vec2Array(").append(x.length);
+		int n = Math.min(x.length, 4);
+		for (int i = 0; i < n; i++) {
+			b.append(i == 0 ? ": " : ", ");
+			b.append("(").append(x[i]).append(", ").append(y[i]).append(")");
+		}
+		if (n < x.length) b.append(", ...");
+		return b.append(")").toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,464 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.util.Arrays;
+
+/**
+ * A lazily evaluated chain of bulk operations over a Vec2Array. The operations mirror those of Vec2Array, but are only recorded when they are called, and are run by into() in a single fused pass.
+ *
+ * The range is processed in tiles of 512 elements in the same way as Vec3Pipeline, so that every element is read once and written once however long the chain is.
+ *
+ * Scalars and vectors are copied when an operation is recorded, while arrays are read when the pipeline is run. A pipeline can be run any number of times, but is not thread-safe as it owns its scratch arrays.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Vec2Pipeline {
+	private static final int TILE = 512;
+
+	private static final int ADD = 0;
+	private static final int ADD_ARRAY = 1;
+	private static final int SUB_ARRAY = 2;
+	private static final int MUL = 3;
+	private static final int MUL_ARRAY = 4;
+	private static final int DIV = 5;
+	private static final int DIV_ARRAY = 6;
+	private static final int MUL_ADD_ARRAY = 7;
+	private static final int NORMALISE = 8;
+	private static final int LERP = 9;
+	private static final int LERP_ARRAY = 10;
+
+	private final Vec2Array source;
+
+	// Each operation is stored as its code, the index of its first constant and the index of its array operand, or -1 if it has none.
+	private int[] ops = new int[3 * 8];
+	private float[] constants = new float[16];
+	private Vec2Array[] arrays = new Vec2Array[4];
+	private int opCount;
+	private int constantCount;
+	private int arrayCount;
+
+	private final float[] tx = new float[TILE];
+	private final float[] ty = new float[TILE];
+
+	/**
+	 * Constructs an empty pipeline that reads its elements from array source.
+	 * 
+	 * @param source
+	 *            the array to read from.
+	 */
+	public Vec2Pipeline(Vec2Array source) {
+		this.source = source;
+	}
+
+	/**
+	 * Gets the array that the pipeline reads from.
+	 * 
+	 * @return the result.
+	 */
+	public Vec2Array getSource() {
+		return source;
+	}
+
+	/**
+	 * Gets the number of recorded operations.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return opCount;
+	}
+
+	/**
+	 * Removes every recorded operation, so that the pipeline can be reused for a different chain.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline clear() {
+		Arrays.fill(arrays, 0, arrayCount, null);
+		opCount = 0;
+		constantCount = 0;
+		arrayCount = 0;
+		return this;
+	}
+
+	// Addition methods
+
+	/**
+	 * Adds the value r to the x, y coordinates of every element.
+	 * 
+	 * @param r
+	 *            value to add.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline add(float r) {
+		return record(ADD, r, r, null);
+	}
+
+	/**
+	 * Adds the x, y attributes of vector r to every element.
+	 * 
+	 * @param r
+	 *            the vector added.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline add(Vec2 r) {
+		return record(ADD, r.x, r.y, null);
+	}
+
+	/**
+	 * Adds the elements of array r at the same indices.
+	 * 
+	 * @param r
+	 *            the array added.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline add(Vec2Array r) {
+		return record(ADD_ARRAY, 0, 0, r);
+	}
+
+	// Subtraction methods
+
+	/**
+	 * Subtracts the value r from the x, y coordinates of every element.
+	 * 
+	 * @param r
+	 *            value to subtract.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline sub(float r) {
+		return record(ADD, -r, -r, null);
+	}
+
+	/**
+	 * Subtracts the x, y attributes of vector r from every element.
+	 * 
+	 * @param r
+	 *            the vector subtracted.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline sub(Vec2 r) {
+		return record(ADD, -r.x, -r.y, null);
+	}
+
+	/**
+	 * Subtracts the elements of array r at the same indices.
+	 * 
+	 * @param r
+	 *            the array subtracted.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline sub(Vec2Array r) {
+		return record(SUB_ARRAY, 0, 0, r);
+	}
+
+	// Multiplication methods
+
+	/**
+	 * Multiplies the x, y coordinates of every element by the value r.
+	 * 
+	 * @param r
+	 *            value to multiply by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline mul(float r) {
+		return record(MUL, r, r, null);
+	}
+
+	/**
+	 * Multiplies every element by the x, y attributes of vector r.
+	 * 
+	 * @param r
+	 *            the vector to multiply by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline mul(Vec2 r) {
+		return record(MUL, r.x, r.y, null);
+	}
+
+	/**
+	 * Multiplies every element by the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the array to multiply by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline mul(Vec2Array r) {
+		return record(MUL_ARRAY, 0, 0, r);
+	}
+
+	// Division methods
+
+	/**
+	 * Divides the x, y coordinates of every element by the value r.
+	 * 
+	 * @param r
+	 *            value to divide by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline div(float r) {
+		return record(DIV, r, r, null);
+	}
+
+	/**
+	 * Divides every element by the x, y attributes of vector r.
+	 * 
+	 * @param r
+	 *            the vector to divide by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline div(Vec2 r) {
+		return record(DIV, r.x, r.y, null);
+	}
+
+	/**
+	 * Divides every element by the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the array to divide by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline div(Vec2Array r) {
+		return record(DIV_ARRAY, 0, 0, r);
+	}
+
+	// Other methods
+
+	/**
+	 * Adds the value of v to every element with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the direction of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline mulAdd(Vec2 v, float s) {
+		return record(ADD, v.x * s, v.y * s, null);
+	}
+
+	/**
+	 * Adds the elements of array v at the same indices with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the directions of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline mulAdd(Vec2Array v, float s) {
+		return record(MUL_ADD_ARRAY, s, 0, v);
+	}
+
+	/**
+	 * Normalises every element to its directional component. Elements with a magnitude of 0 are set to (0, 0).
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline normalise() {
+		return record(NORMALISE, 0, 0, null);
+	}
+
+	/**
+	 * Linearly interpolates every element towards vector p.
+	 * 
+	 * @param p
+	 *            direction of the interpolation.
+	 * @param t
+	 *            step size.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline lerpTo(Vec2 p, float t) {
+		record(LERP, p.x, p.y, null);
+		return constant(t);
+	}
+
+	/**
+	 * Linearly interpolates every element towards the element of array p at the same index.
+	 * 
+	 * @param p
+	 *            directions of the interpolation.
+	 * @param t
+	 *            step size.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec2Pipeline lerpTo(Vec2Array p, float t) {
+		return record(LERP_ARRAY, t, 0, p);
+	}
+
+	private Vec2Pipeline record(int op, float a, float b, Vec2Array array) {
+		if (3 * opCount == ops.length) ops = Arrays.copyOf(ops, 2 * ops.length);
+		int o = 3 * opCount++;
+		ops[o] = op;
+		ops[o + 1] = constantCount;
+		ops[o + 2] = array == null ? -1 : arrayCount;
+		if (array != null) {
+			if (arrayCount == arrays.length) arrays = Arrays.copyOf(arrays, 2 * arrays.length);
+			arrays[arrayCount++] = array;
+		}
+		return constant(a).constant(b);
+	}
+
+	private Vec2Pipeline constant(float c) {
+		if (constantCount == constants.length) constants = Arrays.copyOf(constants, 2 * constants.length);
+		constants[constantCount++] = c;
+		return this;
+	}
+
+	// Evaluation
+
+	/**
+	 * Runs the recorded operations over every element of the source array in the range and stores the results in array dest at the same indices.
+	 * 
+	 * @param dest
+	 *            the array where the results are stored. May be the source array or any of the array operands.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2Array into(Vec2Array dest, int from, int to) {
+		source.checkRange(from, to);
+		dest.checkRange(from, to);
+		for (int i = 0; i < arrayCount; i++) {
+			arrays[i].checkRange(from, to);
+		}
+
+		float[] tx = this.tx, ty = this.ty;
+		for (int base = from; base < to; base += TILE) {
+			int n = Math.min(TILE, to - base);
+			System.arraycopy(source.x, base, tx, 0, n);
+			System.arraycopy(source.y, base, ty, 0, n);
+			for (int i = 0; i < opCount; i++) {
+				apply(ops[3 * i], ops[3 * i + 1], ops[3 * i + 2], base, n);
+			}
+			System.arraycopy(tx, 0, dest.x, base, n);
+			System.arraycopy(ty, 0, dest.y, base, n);
+		}
+		return dest;
+	}
+
+	/**
+	 * Applies one operation to the n elements of the tile, which start at index base of the arrays.
+	 */
+	private void apply(int op, int c, int a, int base, int n) {
+		float[] tx = this.tx, ty = this.ty;
+		float[] k = constants;
+		Vec2Array r = a < 0 ? null : arrays[a];
+		switch (op) {
+		case ADD: {
+			float rx = k[c], ry = k[c + 1];
+			for (int i = 0; i < n; i++) {
+				tx[i] += rx;
+				ty[i] += ry;
+			}
+			break;
+		}
+		case ADD_ARRAY: {
+			float[] rx = r.x, ry = r.y;
+			for (int i = 0; i < n; i++) {
+				tx[i] += rx[base + i];
+				ty[i] += ry[base + i];
+			}
+			break;
+		}
+		case SUB_ARRAY: {
+			float[] rx = r.x, ry = r.y;
+			for (int i = 0; i < n; i++) {
+				tx[i] -= rx[base + i];
+				ty[i] -= ry[base + i];
+			}
+			break;
+		}
+		case MUL: {
+			float rx = k[c], ry = k[c + 1];
+			for (int i = 0; i < n; i++) {
+				tx[i] *= rx;
+				ty[i] *= ry;
+			}
+			break;
+		}
+		case MUL_ARRAY: {
+			float[] rx = r.x, ry = r.y;
+			for (int i = 0; i < n; i++) {
+				tx[i] *= rx[base + i];
+				ty[i] *= ry[base + i];
+			}
+			break;
+		}
+		case DIV: {
+			float rx = k[c], ry = k[c + 1];
+			for (int i = 0; i < n; i++) {
+				tx[i] /= rx;
+				ty[i] /= ry;
+			}
+			break;
+		}
+		case DIV_ARRAY: {
+			float[] rx = r.x, ry = r.y;
+			for (int i = 0; i < n; i++) {
+				tx[i] /= rx[base + i];
+				ty[i] /= ry[base + i];
+			}
+			break;
+		}
+		case MUL_ADD_ARRAY: {
+			float s = k[c];
+			float[] vx = r.x, vy = r.y;
+			for (int i = 0; i < n; i++) {
+				tx[i] += vx[base + i] * s;
+				ty[i] += vy[base + i] * s;
+			}
+			break;
+		}
+		case NORMALISE: {
+			for (int i = 0; i < n; i++) {
+				float xx = tx[i], yy = ty[i];
+				float lenSqrd = xx * xx + yy * yy;
+				float invLen = lenSqrd > 0 ? 1f / (float) Math.sqrt(lenSqrd) : 0f;
+				tx[i] = xx * invLen;
+				ty[i] = yy * invLen;
+			}
+			break;
+		}
+		case LERP: {
+			float px = k[c], py = k[c + 1], t = k[c + 2];
+			for (int i = 0; i < n; i++) {
+				tx[i] += (px - tx[i]) * t;
+				ty[i] += (py - ty[i]) * t;
+			}
+			break;
+		}
+		case LERP_ARRAY: {
+			float t = k[c];
+			float[] px = r.x, py = r.y;
+			for (int i = 0; i < n; i++) {
+				tx[i] += (px[base + i] - tx[i]) * t;
+				ty[i] += (py[base + i] - ty[i]) * t;
+			}
+			break;
+		}
+		}
+	}
+}
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.jaspreetdhanjan.vecmath;
 
 import java.nio.FloatBuffer;
 
+import com.jaspreetdhanjan.vecmath.util.TrigUtil;
+
 /**
  * A 3-element vector that is represented by 3 single-precision floating numbers.
  *
@@ -138,6 +140,18 @@ public class Vec3 implements Vecmath<Vec3> {
 		buffer.flip();
 	}
 
+	/**
+	 * Writes the vector information into the given FloatBuffer starting at the given index. The position and limit of the buffer are not changed, so many objects can be written back-to-back into one buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer where the vector will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 */
+	public void putInto(FloatBuffer buffer, int offset) {
+		buffer.put(offset, x).put(offset + 1, y).put(offset + 2, z);
+	}
+
 	// Addition methods
 
 	/**
@@ -430,8 +444,9 @@ public class Vec3 implements Vecmath<Vec3> {
 	 * @return the result.
 	 */
 	public Vec3 rotX(float angle) {
-		float sin = (float) Math.sin(angle);
-		float cos = (float) Math.cos(angle);
+		long sinCos = TrigUtil.sinCos(angle);
+		float sin = TrigUtil.sinOf(sinCos);
+		float cos = TrigUtil.cosOf(sinCos);
 		return set(x, cos * y + sin * z, cos * z - sin * y);
 	}
 
@@ -444,8 +459,9 @@ public class Vec3 implements Vecmath<Vec3> {
 	 * @return the result.
 	 */
 	public Vec3 rotY(float angle) {
-		float sin = (float) Math.sin(angle);
-		float cos = (float) Math.cos(angle);
+		long sinCos = TrigUtil.sinCos(angle);
+		float sin = TrigUtil.sinOf(sinCos);
+		float cos = TrigUtil.cosOf(sinCos);
 		return set(cos * x + sin * z, y, cos * z - sin * x);
 	}
 
@@ -458,8 +474,9 @@ public class Vec3 implements Vecmath<Vec3> {
 	 * @return the result.
 	 */
 	public Vec3 rotZ(float angle) {
-		float sin = (float) Math.sin(angle);
-		float cos = (float) Math.cos(angle);
+		long sinCos = TrigUtil.sinCos(angle);
+		float sin = TrigUtil.sinOf(sinCos);
+		float cos = TrigUtil.cosOf(sinCos);
 		return set(cos * x - sin * y, sin * x + cos * y, z);
 	}
 
@@ -556,7 +573,19 @@ public class Vec3 implements Vecmath<Vec3> {
 	 * @return the result.
 	 */
 	public Vec2 toVec2() {
-		return new Vec2(x, y);
+		return toVec2(new Vec2());
+	}
+
+	/**
+	 * Stores the x and y component of this vector in vector dest.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2 toVec2(Vec2 dest) {
+		return dest.set(x, y);
 	}
 
 	// java.lang.Object overrides
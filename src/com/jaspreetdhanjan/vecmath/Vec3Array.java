@@ -0,0 +1,866 @@
+package com.jaspreetdhanjan.vecmath;
+
+/**
+ * A structure-of-arrays container of 3-element vectors. The x, y and z coordinates are held in three separate single-precision float arrays.
+ *
+ * The bulk operations mirror those of Vec3, but are applied to every element in the range [from, to) in a single loop.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Vec3Array {
+	public final float[] x;
+	public final float[] y;
+	public final float[] z;
+
+	// Constructors and setters
+
+	/**
+	 * Constructs a Vec3Array of the given length with every element initialised to (0, 0, 0).
+	 * 
+	 * @param length
+	 *            the number of elements.
+	 */
+	public Vec3Array(int length) {
+		this(new float[length], new float[length], new float[length]);
+	}
+
+	/**
+	 * Constructs a Vec3Array that is backed by the given coordinate arrays. The arrays are not copied.
+	 * 
+	 * @param x
+	 *            the x coordinates.
+	 * @param y
+	 *            the y coordinates.
+	 * @param z
+	 *            the z coordinates.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length.
+	 */
+	public Vec3Array(float[] x, float[] y, float[] z) {
+		if (x.length != y.length || x.length != z.length) {
+			throw new IllegalArgumentException("Coordinate arrays differ in length: " + x.length + ", " + y.length + ", " + z.length);
+		}
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	/**
+	 * Constructs a Vec3Array from the attributes of the given vectors.
+	 * 
+	 * @param r
+	 *            the vectors to copy.
+	 */
+	public Vec3Array(Vec3... r) {
+		this(r.length);
+		for (int i = 0; i < r.length; i++) {
+			set(i, r[i]);
+		}
+	}
+
+	/**
+	 * Gets the number of elements in this array.
+	 * 
+	 * @return the result.
+	 */
+	public int length() {
+		return x.length;
+	}
+
+	/**
+	 * Copies the element at index i into vector dest.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param dest
+	 *            the vector to store the element into.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 get(int i, Vec3 dest) {
+		return dest.set(x[i], y[i], z[i]);
+	}
+
+	/**
+	 * Sets the element at index i to the given x, y, z values.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param xx
+	 *            the x coordinate.
+	 * @param yy
+	 *            the y coordinate.
+	 * @param zz
+	 *            the z coordinate.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array set(int i, float xx, float yy, float zz) {
+		x[i] = xx;
+		y[i] = yy;
+		z[i] = zz;
+		return this;
+	}
+
+	/**
+	 * Sets the element at index i to the values of vector r.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param r
+	 *            the vector to copy.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array set(int i, Vec3 r) {
+		return set(i, r.x, r.y, r.z);
+	}
+
+	/**
+	 * Sets every element in the range to the values of vector r.
+	 * 
+	 * @param r
+	 *            the vector to copy.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array set(Vec3 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] = rx;
+			y[i] = ry;
+			z[i] = rz;
+		}
+		return this;
+	}
+
+	/**
+	 * Copies the elements in the range from the same indices of array r.
+	 * 
+	 * @param r
+	 *            the array to copy.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array set(Vec3Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		System.arraycopy(r.x, from, x, from, to - from);
+		System.arraycopy(r.y, from, y, from, to - from);
+		System.arraycopy(r.z, from, z, from, to - from);
+		return this;
+	}
+
+	// Addition methods
+
+	/**
+	 * Adds the value r to the x, y, z coordinates of every element in the range.
+	 * 
+	 * @param r
+	 *            value to add.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array add(float r, int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			x[i] += r;
+			y[i] += r;
+			z[i] += r;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the x, y, z attributes of vector r to every element in the range.
+	 * 
+	 * @param r
+	 *            the vector added.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array add(Vec3 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] += rx;
+			y[i] += ry;
+			z[i] += rz;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the elements of array r to the elements of this array at the same indices.
+	 * 
+	 * @param r
+	 *            the array added.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array add(Vec3Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] += rx[i];
+			y[i] += ry[i];
+			z[i] += rz[i];
+		}
+		return this;
+	}
+
+	// Subtraction methods
+
+	/**
+	 * Subtracts the value r from the x, y, z coordinates of every element in the range.
+	 * 
+	 * @param r
+	 *            value to subtract.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array sub(float r, int from, int to) {
+		return add(-r, from, to);
+	}
+
+	/**
+	 * Subtracts the x, y, z attributes of vector r from every element in the range.
+	 * 
+	 * @param r
+	 *            the vector subtracted.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array sub(Vec3 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] -= rx;
+			y[i] -= ry;
+			z[i] -= rz;
+		}
+		return this;
+	}
+
+	/**
+	 * Subtracts the elements of array r from the elements of this array at the same indices.
+	 * 
+	 * @param r
+	 *            the array subtracted.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array sub(Vec3Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] -= rx[i];
+			y[i] -= ry[i];
+			z[i] -= rz[i];
+		}
+		return this;
+	}
+
+	// Multiplication methods
+
+	/**
+	 * Multiplies the value r to the x, y, z coordinates of every element in the range.
+	 * 
+	 * @param r
+	 *            value to multiply.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array mul(float r, int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			x[i] *= r;
+			y[i] *= r;
+			z[i] *= r;
+		}
+		return this;
+	}
+
+	/**
+	 * Multiplies the x, y, z attributes of vector r to every element in the range.
+	 * 
+	 * @param r
+	 *            value to multiply.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array mul(Vec3 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] *= rx;
+			y[i] *= ry;
+			z[i] *= rz;
+		}
+		return this;
+	}
+
+	/**
+	 * Multiplies the elements of array r to the elements of this array at the same indices.
+	 * 
+	 * @param r
+	 *            the array to multiply.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array mul(Vec3Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] *= rx[i];
+			y[i] *= ry[i];
+			z[i] *= rz[i];
+		}
+		return this;
+	}
+
+	// Division methods
+
+	/**
+	 * Divides the x, y, z coordinates of every element in the range by the value r.
+	 * 
+	 * @param r
+	 *            value to divide.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array div(float r, int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			x[i] /= r;
+			y[i] /= r;
+			z[i] /= r;
+		}
+		return this;
+	}
+
+	/**
+	 * Divides every element in the range by the x, y, z attributes of vector r.
+	 * 
+	 * @param r
+	 *            value to divide.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array div(Vec3 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] /= rx;
+			y[i] /= ry;
+			z[i] /= rz;
+		}
+		return this;
+	}
+
+	/**
+	 * Divides the elements of this array by the elements of array r at the same indices.
+	 * 
+	 * @param r
+	 *            the array to divide.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array div(Vec3Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			x[i] /= rx[i];
+			y[i] /= ry[i];
+			z[i] /= rz[i];
+		}
+		return this;
+	}
+
+	// Other methods
+
+	/**
+	 * Adds the value of v to every element in the range with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the direction of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array mulAdd(Vec3 v, float s, int from, int to) {
+		checkRange(from, to);
+		float vx = v.x * s, vy = v.y * s, vz = v.z * s;
+		for (int i = from; i < to; i++) {
+			x[i] += vx;
+			y[i] += vy;
+			z[i] += vz;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the elements of array v to the elements of this array at the same indices with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the directions of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array mulAdd(Vec3Array v, float s, int from, int to) {
+		checkRange(from, to);
+		v.checkRange(from, to);
+		float[] vx = v.x, vy = v.y, vz = v.z;
+		for (int i = from; i < to; i++) {
+			x[i] += vx[i] * s;
+			y[i] += vy[i] * s;
+			z[i] += vz[i] * s;
+		}
+		return this;
+	}
+
+	/**
+	 * Sets every element in the range to the cross-product of itself and vector r.
+	 * 
+	 * @param r
+	 *            the other vector.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array cross(Vec3 r, int from, int to) {
+		checkRange(from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			float xx = y[i] * rz - z[i] * ry;
+			float yy = z[i] * rx - x[i] * rz;
+			float zz = x[i] * ry - y[i] * rx;
+			x[i] = xx;
+			y[i] = yy;
+			z[i] = zz;
+		}
+		return this;
+	}
+
+	/**
+	 * Sets every element in the range to the cross-product of itself and the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the other array.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array cross(Vec3Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		float[] rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			float xx = y[i] * rz[i] - z[i] * ry[i];
+			float yy = z[i] * rx[i] - x[i] * rz[i];
+			float zz = x[i] * ry[i] - y[i] * rx[i];
+			x[i] = xx;
+			y[i] = yy;
+			z[i] = zz;
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the dot product of every element in the range and vector r.
+	 * 
+	 * @param r
+	 *            the other vector.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices as the elements.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public float[] dot(Vec3 r, float[] dest, int from, int to) {
+		checkRange(from, to);
+		checkRange(dest.length, from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			dest[i] = x[i] * rx + y[i] * ry + z[i] * rz;
+		}
+		return dest;
+	}
+
+	/**
+	 * Gets the dot product of every element in the range and the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the other array.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices as the elements.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public float[] dot(Vec3Array r, float[] dest, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		checkRange(dest.length, from, to);
+		float[] rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			dest[i] = x[i] * rx[i] + y[i] * ry[i] + z[i] * rz[i];
+		}
+		return dest;
+	}
+
+	/**
+	 * Normalises every element in the range to its directional component. Elements with a magnitude of 0 are set to (0, 0, 0).
+	 * 
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array normalise(int from, int to) {
+		checkRange(from, to);
+		for (int i = from; i < to; i++) {
+			float xx = x[i], yy = y[i], zz = z[i];
+			float lenSqrd = xx * xx + yy * yy + zz * zz;
+			float invLen = lenSqrd > 0 ? 1f / (float) Math.sqrt(lenSqrd) : 0f;
+			x[i] = xx * invLen;
+			y[i] = yy * invLen;
+			z[i] = zz * invLen;
+		}
+		return this;
+	}
+
+	/**
+	 * Linearly interpolates every element in the range towards vector p.
+	 * 
+	 * @param p
+	 *            direction of the interpolation.
+	 * @param t
+	 *            step size.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array lerpTo(Vec3 p, float t, int from, int to) {
+		checkRange(from, to);
+		float px = p.x, py = p.y, pz = p.z;
+		for (int i = from; i < to; i++) {
+			x[i] += (px - x[i]) * t;
+			y[i] += (py - y[i]) * t;
+			z[i] += (pz - z[i]) * t;
+		}
+		return this;
+	}
+
+	/**
+	 * Linearly interpolates every element in the range towards the element of array p at the same index.
+	 * 
+	 * @param p
+	 *            directions of the interpolation.
+	 * @param t
+	 *            step size.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array lerpTo(Vec3Array p, float t, int from, int to) {
+		checkRange(from, to);
+		p.checkRange(from, to);
+		float[] px = p.x, py = p.y, pz = p.z;
+		for (int i = from; i < to; i++) {
+			x[i] += (px[i] - x[i]) * t;
+			y[i] += (py[i] - y[i]) * t;
+			z[i] += (pz[i] - z[i]) * t;
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the squared distance from every element in the range to vector r.
+	 * 
+	 * @param r
+	 *            the other vector.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices as the elements.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public float[] distanceToSqrd(Vec3 r, float[] dest, int from, int to) {
+		checkRange(from, to);
+		checkRange(dest.length, from, to);
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			float xd = rx - x[i];
+			float yd = ry - y[i];
+			float zd = rz - z[i];
+			dest[i] = xd * xd + yd * yd + zd * zd;
+		}
+		return dest;
+	}
+
+	/**
+	 * Gets the squared distance from every element in the range to the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the other array.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices as the elements.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public float[] distanceToSqrd(Vec3Array r, float[] dest, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		checkRange(dest.length, from, to);
+		float[] rx = r.x, ry = r.y, rz = r.z;
+		for (int i = from; i < to; i++) {
+			float xd = rx[i] - x[i];
+			float yd = ry[i] - y[i];
+			float zd = rz[i] - z[i];
+			dest[i] = xd * xd + yd * yd + zd * zd;
+		}
+		return dest;
+	}
+
+	/**
+	 * Multiplies every element in the range by matrix m, in the same way as Mat4.mul(Vec3).
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array transform(Mat4 m, int from, int to) {
+		return transform(m, this, from, to);
+	}
+
+	/**
+	 * Multiplies every element in the range by matrix m, in the same way as Mat4.mul(Vec3), and stores the results in array dest at the same indices.
+	 * 
+	 * The loop reads each coordinate array once and writes each coordinate array once, with the matrix held in locals, so that it can be vectorised by the JIT.
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param dest
+	 *            the array where the results are stored. May be this array.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3Array transform(Mat4 m, Vec3Array dest, int from, int to) {
+		checkRange(from, to);
+		dest.checkRange(from, to);
+		float m11 = m.m11, m12 = m.m12, m13 = m.m13;
+		float m21 = m.m21, m22 = m.m22, m23 = m.m23;
+		float m31 = m.m31, m32 = m.m32, m33 = m.m33;
+		float m41 = m.m41, m42 = m.m42, m43 = m.m43;
+		float[] dx = dest.x, dy = dest.y, dz = dest.z;
+		for (int i = from; i < to; i++) {
+			float xx = x[i], yy = y[i], zz = z[i];
+			dx[i] = xx * m11 + yy * m21 + zz * m31 + m41;
+			dy[i] = xx * m12 + yy * m22 + zz * m32 + m42;
+			dz[i] = xx * m13 + yy * m23 + zz * m33 + m43;
+		}
+		return dest;
+	}
+
+	/**
+	 * Multiplies every element in the range by matrix m and divides the result by its w component, as when projecting points to normalised device coordinates.
+	 * 
+	 * @param m
+	 *            the matrix to multiply by, such as a view-projection matrix.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this array.
+	 */
+	public Vec3Array project(Mat4 m, int from, int to) {
+		return project(m, this, from, to);
+	}
+
+	/**
+	 * Multiplies every element in the range by matrix m, divides the result by its w component and stores it in array dest at the same indices.
+	 * 
+	 * @param m
+	 *            the matrix to multiply by, such as a view-projection matrix.
+	 * @param dest
+	 *            the array where the results are stored. May be this array.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3Array project(Mat4 m, Vec3Array dest, int from, int to) {
+		checkRange(from, to);
+		dest.checkRange(from, to);
+		float m11 = m.m11, m12 = m.m12, m13 = m.m13, m14 = m.m14;
+		float m21 = m.m21, m22 = m.m22, m23 = m.m23, m24 = m.m24;
+		float m31 = m.m31, m32 = m.m32, m33 = m.m33, m34 = m.m34;
+		float m41 = m.m41, m42 = m.m42, m43 = m.m43, m44 = m.m44;
+		float[] dx = dest.x, dy = dest.y, dz = dest.z;
+		for (int i = from; i < to; i++) {
+			float xx = x[i], yy = y[i], zz = z[i];
+			float invW = 1f / (xx * m14 + yy * m24 + zz * m34 + m44);
+			dx[i] = (xx * m11 + yy * m21 + zz * m31 + m41) * invW;
+			dy[i] = (xx * m12 + yy * m22 + zz * m32 + m42) * invW;
+			dz[i] = (xx * m13 + yy * m23 + zz * m33 + m43) * invW;
+		}
+		return dest;
+	}
+
+	/**
+	 * Checks that the range is within this array.
+	 * 
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 *             if from is negative, to is greater than the length or from is greater than to.
+	 */
+	public void checkRange(int from, int to) {
+		checkRange(x.length, from, to);
+	}
+
+	static void checkRange(int length, int from, int to) {
+		if (from < 0 || to > length || from > to) {
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length);
+		}
+	}
+
+	// java.lang.Object overrides
+
+	public Vec3Array clone() {
+		return new Vec3Array(x.clone(), y.clone(), z.clone());
+	}
+
+	public String toString() {
+		// Only the first few elements are shown, as the array may hold millions
+		StringBuilder b = new StringBuilder("Vec3Array(").append(x.length);
+		int n = Math.min(x.length, 4);
+		for (int i = 0; i < n; i++) {
+			b.append(i == 0 ? ": " : ", ");
+			b.append("(").append(x[i]).append(", ").append(y[i]).append(", ").append(z[i]).append(")");
+		}
+		if (n < x.length) b.append(", ...");
+		return b.append(")").toString();
+	}
+}
\ No newline at end of file
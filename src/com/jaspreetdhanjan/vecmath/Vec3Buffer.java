@@ -0,0 +1,412 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * An array of 3-element vectors that lives in a FloatBuffer, usually off-heap. Each element is stored as 3 consecutive floats: x, y, z.
+ *
+ * Elements are read and written in place by index, so the buffer can be handed to OpenGL or native code without copying through Vec3.set(FloatBuffer) or putInto(FloatBuffer).
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Vec3Buffer {
+	public static final int FLOATS = 3;
+
+	public final FloatBuffer buffer;
+
+	// Constructors and setters
+
+	/**
+	 * Allocates a Vec3Buffer of the given length in native memory with every element initialised to (0, 0, 0).
+	 * 
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return the result.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the length is negative or the elements do not fit in one direct buffer of at most Integer.MAX_VALUE bytes.
+	 */
+	public static Vec3Buffer allocate(int length) {
+		// The size is computed in long, as it overflows an int long before the length does
+		long size = (long) length * FLOATS * 4;
+		if (length < 0 || size > Integer.MAX_VALUE) throw new IllegalArgumentException("Cannot allocate " + length + " vectors in one direct buffer");
+		ByteBuffer bytes = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+		return new Vec3Buffer(bytes.asFloatBuffer());
+	}
+
+	/**
+	 * Constructs a Vec3Buffer that views the remaining floats of the given buffer. The contents are not copied and the position of the buffer is not changed.
+	 * 
+	 * @param buffer
+	 *            the buffer to view.
+	 */
+	public Vec3Buffer(FloatBuffer buffer) {
+		this.buffer = buffer.slice();
+	}
+
+	/**
+	 * Gets the number of elements in this buffer.
+	 * 
+	 * @return the result.
+	 */
+	public int length() {
+		return buffer.limit() / FLOATS;
+	}
+
+	/**
+	 * Copies the element at index i into vector dest.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param dest
+	 *            the vector to store the element into.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 get(int i, Vec3 dest) {
+		int p = i * FLOATS;
+		return dest.set(buffer.get(p), buffer.get(p + 1), buffer.get(p + 2));
+	}
+
+	/**
+	 * Copies the elements in the range into array dest, at the same indices.
+	 * 
+	 * @param dest
+	 *            the array to store the elements into.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3Array get(Vec3Array dest, int from, int to) {
+		checkRange(from, to);
+		dest.checkRange(from, to);
+		FloatBuffer b = buffer;
+		float[] x = dest.x, y = dest.y, z = dest.z;
+		for (int i = from, p = from * FLOATS; i < to; i++, p += FLOATS) {
+			x[i] = b.get(p);
+			y[i] = b.get(p + 1);
+			z[i] = b.get(p + 2);
+		}
+		return dest;
+	}
+
+	/**
+	 * Sets the element at index i to the given x, y, z values.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param x
+	 *            the x coordinate.
+	 * @param y
+	 *            the y coordinate.
+	 * @param z
+	 *            the z coordinate.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer set(int i, float x, float y, float z) {
+		int p = i * FLOATS;
+		buffer.put(p, x).put(p + 1, y).put(p + 2, z);
+		return this;
+	}
+
+	/**
+	 * Sets the element at index i to the values of vector r.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param r
+	 *            the vector to copy.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer set(int i, Vec3 r) {
+		return set(i, r.x, r.y, r.z);
+	}
+
+	/**
+	 * Copies the elements in the range from the same indices of array r.
+	 * 
+	 * @param r
+	 *            the array to copy.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer set(Vec3Array r, int from, int to) {
+		checkRange(from, to);
+		r.checkRange(from, to);
+		FloatBuffer b = buffer;
+		float[] x = r.x, y = r.y, z = r.z;
+		for (int i = from, p = from * FLOATS; i < to; i++, p += FLOATS) {
+			b.put(p, x[i]);
+			b.put(p + 1, y[i]);
+			b.put(p + 2, z[i]);
+		}
+		return this;
+	}
+
+	// Arithmetic methods
+
+	/**
+	 * Adds the x, y, z attributes of vector r to every element in the range.
+	 * 
+	 * @param r
+	 *            the vector added.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer add(Vec3 r, int from, int to) {
+		return mulAdd(r, 1f, from, to);
+	}
+
+	/**
+	 * Adds the elements of buffer r to the elements of this buffer at the same indices.
+	 * 
+	 * @param r
+	 *            the buffer added.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer add(Vec3Buffer r, int from, int to) {
+		return mulAdd(r, 1f, from, to);
+	}
+
+	/**
+	 * Subtracts the x, y, z attributes of vector r from every element in the range.
+	 * 
+	 * @param r
+	 *            the vector subtracted.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer sub(Vec3 r, int from, int to) {
+		return mulAdd(r, -1f, from, to);
+	}
+
+	/**
+	 * Subtracts the elements of buffer r from the elements of this buffer at the same indices.
+	 * 
+	 * @param r
+	 *            the buffer subtracted.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer sub(Vec3Buffer r, int from, int to) {
+		return mulAdd(r, -1f, from, to);
+	}
+
+	/**
+	 * Multiplies the value r to the x, y, z coordinates of every element in the range.
+	 * 
+	 * @param r
+	 *            value to multiply.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer mul(float r, int from, int to) {
+		checkRange(from, to);
+		FloatBuffer b = buffer;
+		for (int p = from * FLOATS, end = to * FLOATS; p < end; p++) {
+			b.put(p, b.get(p) * r);
+		}
+		return this;
+	}
+
+	/**
+	 * Multiplies the x, y, z attributes of vector r to every element in the range.
+	 * 
+	 * @param r
+	 *            value to multiply.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer mul(Vec3 r, int from, int to) {
+		checkRange(from, to);
+		FloatBuffer b = buffer;
+		float rx = r.x, ry = r.y, rz = r.z;
+		for (int p = from * FLOATS, end = to * FLOATS; p < end; p += FLOATS) {
+			b.put(p, b.get(p) * rx);
+			b.put(p + 1, b.get(p + 1) * ry);
+			b.put(p + 2, b.get(p + 2) * rz);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the value of v to every element in the range with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the direction of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer mulAdd(Vec3 v, float s, int from, int to) {
+		checkRange(from, to);
+		FloatBuffer b = buffer;
+		float vx = v.x * s, vy = v.y * s, vz = v.z * s;
+		for (int p = from * FLOATS, end = to * FLOATS; p < end; p += FLOATS) {
+			b.put(p, b.get(p) + vx);
+			b.put(p + 1, b.get(p + 1) + vy);
+			b.put(p + 2, b.get(p + 2) + vz);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the elements of buffer v to the elements of this buffer at the same indices with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the directions of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer mulAdd(Vec3Buffer v, float s, int from, int to) {
+		checkRange(from, to);
+		v.checkRange(from, to);
+		FloatBuffer b = buffer, vb = v.buffer;
+		for (int p = from * FLOATS, end = to * FLOATS; p < end; p++) {
+			b.put(p, b.get(p) + vb.get(p) * s);
+		}
+		return this;
+	}
+
+	/**
+	 * Normalises every element in the range to its directional component. Elements with a magnitude of 0 are set to (0, 0, 0).
+	 * 
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer normalise(int from, int to) {
+		checkRange(from, to);
+		FloatBuffer b = buffer;
+		for (int p = from * FLOATS, end = to * FLOATS; p < end; p += FLOATS) {
+			float x = b.get(p), y = b.get(p + 1), z = b.get(p + 2);
+			float lenSqrd = x * x + y * y + z * z;
+			float invLen = lenSqrd > 0 ? 1f / (float) Math.sqrt(lenSqrd) : 0f;
+			b.put(p, x * invLen);
+			b.put(p + 1, y * invLen);
+			b.put(p + 2, z * invLen);
+		}
+		return this;
+	}
+
+	/**
+	 * Linearly interpolates every element in the range towards vector p.
+	 * 
+	 * @param p
+	 *            direction of the interpolation.
+	 * @param t
+	 *            step size.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer lerpTo(Vec3 p, float t, int from, int to) {
+		checkRange(from, to);
+		FloatBuffer b = buffer;
+		float px = p.x, py = p.y, pz = p.z;
+		for (int q = from * FLOATS, end = to * FLOATS; q < end; q += FLOATS) {
+			float x = b.get(q), y = b.get(q + 1), z = b.get(q + 2);
+			b.put(q, x + (px - x) * t);
+			b.put(q + 1, y + (py - y) * t);
+			b.put(q + 2, z + (pz - z) * t);
+		}
+		return this;
+	}
+
+	/**
+	 * Multiplies every element in the range by matrix m, in the same way as Mat4.mul(Vec3).
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return this buffer.
+	 */
+	public Vec3Buffer transform(Mat4 m, int from, int to) {
+		checkRange(from, to);
+		FloatBuffer b = buffer;
+		float m11 = m.m11, m12 = m.m12, m13 = m.m13;
+		float m21 = m.m21, m22 = m.m22, m23 = m.m23;
+		float m31 = m.m31, m32 = m.m32, m33 = m.m33;
+		float m41 = m.m41, m42 = m.m42, m43 = m.m43;
+		for (int p = from * FLOATS, end = to * FLOATS; p < end; p += FLOATS) {
+			float x = b.get(p), y = b.get(p + 1), z = b.get(p + 2);
+			b.put(p, x * m11 + y * m21 + z * m31 + m41);
+			b.put(p + 1, x * m12 + y * m22 + z * m32 + m42);
+			b.put(p + 2, x * m13 + y * m23 + z * m33 + m43);
+		}
+		return this;
+	}
+
+	void checkRange(int from, int to) {
+		Vec3Array.checkRange(length(), from, to);
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "Vec3Buffer(" + length() + ")";
+	}
+}
\ No newline at end of file
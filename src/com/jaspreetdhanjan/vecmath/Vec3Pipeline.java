@@ -0,0 +1,585 @@
+package com.jaspreetdhanjan.vecmath;
+
+import java.util.Arrays;
+
+/**
+ * A lazily evaluated chain of bulk operations over a Vec3Array. The operations mirror those of Vec3Array, but are only recorded when they are called, and are run by into() in a single fused pass.
+ *
+ * Chaining the Vec3Array methods reads and writes the whole range once per operation, which makes long chains over large arrays bound by memory bandwidth. The pipeline instead processes the range in tiles of 512 elements: a tile is copied from the source into scratch arrays that stay in the L1 cache, every recorded operation is applied to the tile in its own simple loop, and the tile is then written to the destination. Every element is therefore read once and written once, however long the chain is, and each per-operation loop remains simple enough for the JIT to vectorise.
+ *
+ * Scalars, vectors and matrices are copied when an operation is recorded, while arrays are read when the pipeline is run. A pipeline can be run any number of times, but is not thread-safe as it owns its scratch arrays.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Vec3Pipeline {
+	private static final int TILE = 512;
+
+	private static final int ADD = 0;
+	private static final int ADD_ARRAY = 1;
+	private static final int SUB_ARRAY = 2;
+	private static final int MUL = 3;
+	private static final int MUL_ARRAY = 4;
+	private static final int DIV = 5;
+	private static final int DIV_ARRAY = 6;
+	private static final int MUL_ADD_ARRAY = 7;
+	private static final int CROSS = 8;
+	private static final int CROSS_ARRAY = 9;
+	private static final int NORMALISE = 10;
+	private static final int LERP = 11;
+	private static final int LERP_ARRAY = 12;
+	private static final int TRANSFORM = 13;
+	private static final int PROJECT = 14;
+
+	private final Vec3Array source;
+
+	// Each operation is stored as its code, the index of its first constant and the index of its array operand, or -1 if it has none.
+	private int[] ops = new int[3 * 8];
+	private float[] constants = new float[32];
+	private Vec3Array[] arrays = new Vec3Array[4];
+	private int opCount;
+	private int constantCount;
+	private int arrayCount;
+
+	private final float[] tx = new float[TILE];
+	private final float[] ty = new float[TILE];
+	private final float[] tz = new float[TILE];
+
+	/**
+	 * Constructs an empty pipeline that reads its elements from array source.
+	 * 
+	 * @param source
+	 *            the array to read from.
+	 */
+	public Vec3Pipeline(Vec3Array source) {
+		this.source = source;
+	}
+
+	/**
+	 * Gets the array that the pipeline reads from.
+	 * 
+	 * @return the result.
+	 */
+	public Vec3Array getSource() {
+		return source;
+	}
+
+	/**
+	 * Gets the number of recorded operations.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return opCount;
+	}
+
+	/**
+	 * Removes every recorded operation, so that the pipeline can be reused for a different chain.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline clear() {
+		Arrays.fill(arrays, 0, arrayCount, null);
+		opCount = 0;
+		constantCount = 0;
+		arrayCount = 0;
+		return this;
+	}
+
+	// Addition methods
+
+	/**
+	 * Adds the value r to the x, y, z coordinates of every element.
+	 * 
+	 * @param r
+	 *            value to add.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline add(float r) {
+		return record(ADD, r, r, r, null);
+	}
+
+	/**
+	 * Adds the x, y, z attributes of vector r to every element.
+	 * 
+	 * @param r
+	 *            the vector added.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline add(Vec3 r) {
+		return record(ADD, r.x, r.y, r.z, null);
+	}
+
+	/**
+	 * Adds the elements of array r at the same indices.
+	 * 
+	 * @param r
+	 *            the array added.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline add(Vec3Array r) {
+		return record(ADD_ARRAY, 0, 0, 0, r);
+	}
+
+	// Subtraction methods
+
+	/**
+	 * Subtracts the value r from the x, y, z coordinates of every element.
+	 * 
+	 * @param r
+	 *            value to subtract.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline sub(float r) {
+		return record(ADD, -r, -r, -r, null);
+	}
+
+	/**
+	 * Subtracts the x, y, z attributes of vector r from every element.
+	 * 
+	 * @param r
+	 *            the vector subtracted.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline sub(Vec3 r) {
+		return record(ADD, -r.x, -r.y, -r.z, null);
+	}
+
+	/**
+	 * Subtracts the elements of array r at the same indices.
+	 * 
+	 * @param r
+	 *            the array subtracted.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline sub(Vec3Array r) {
+		return record(SUB_ARRAY, 0, 0, 0, r);
+	}
+
+	// Multiplication methods
+
+	/**
+	 * Multiplies the x, y, z coordinates of every element by the value r.
+	 * 
+	 * @param r
+	 *            value to multiply by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline mul(float r) {
+		return record(MUL, r, r, r, null);
+	}
+
+	/**
+	 * Multiplies every element by the x, y, z attributes of vector r.
+	 * 
+	 * @param r
+	 *            the vector to multiply by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline mul(Vec3 r) {
+		return record(MUL, r.x, r.y, r.z, null);
+	}
+
+	/**
+	 * Multiplies every element by the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the array to multiply by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline mul(Vec3Array r) {
+		return record(MUL_ARRAY, 0, 0, 0, r);
+	}
+
+	// Division methods
+
+	/**
+	 * Divides the x, y, z coordinates of every element by the value r.
+	 * 
+	 * @param r
+	 *            value to divide by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline div(float r) {
+		return record(DIV, r, r, r, null);
+	}
+
+	/**
+	 * Divides every element by the x, y, z attributes of vector r.
+	 * 
+	 * @param r
+	 *            the vector to divide by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline div(Vec3 r) {
+		return record(DIV, r.x, r.y, r.z, null);
+	}
+
+	/**
+	 * Divides every element by the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the array to divide by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline div(Vec3Array r) {
+		return record(DIV_ARRAY, 0, 0, 0, r);
+	}
+
+	// Other methods
+
+	/**
+	 * Adds the value of v to every element with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the direction of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline mulAdd(Vec3 v, float s) {
+		return record(ADD, v.x * s, v.y * s, v.z * s, null);
+	}
+
+	/**
+	 * Adds the elements of array v at the same indices with multiple s.
+	 * 
+	 * T = T + (V * S)
+	 * 
+	 * @param v
+	 *            the directions of the adder.
+	 * @param s
+	 *            the multiple of the adder.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline mulAdd(Vec3Array v, float s) {
+		return record(MUL_ADD_ARRAY, s, 0, 0, v);
+	}
+
+	/**
+	 * Sets every element to the cross-product of itself and vector r.
+	 * 
+	 * @param r
+	 *            the other vector.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline cross(Vec3 r) {
+		return record(CROSS, r.x, r.y, r.z, null);
+	}
+
+	/**
+	 * Sets every element to the cross-product of itself and the element of array r at the same index.
+	 * 
+	 * @param r
+	 *            the other array.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline cross(Vec3Array r) {
+		return record(CROSS_ARRAY, 0, 0, 0, r);
+	}
+
+	/**
+	 * Normalises every element to its directional component. Elements with a magnitude of 0 are set to (0, 0, 0).
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline normalise() {
+		return record(NORMALISE, 0, 0, 0, null);
+	}
+
+	/**
+	 * Linearly interpolates every element towards vector p.
+	 * 
+	 * @param p
+	 *            direction of the interpolation.
+	 * @param t
+	 *            step size.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline lerpTo(Vec3 p, float t) {
+		record(LERP, p.x, p.y, p.z, null);
+		return constant(t);
+	}
+
+	/**
+	 * Linearly interpolates every element towards the element of array p at the same index.
+	 * 
+	 * @param p
+	 *            directions of the interpolation.
+	 * @param t
+	 *            step size.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline lerpTo(Vec3Array p, float t) {
+		return record(LERP_ARRAY, t, 0, 0, p);
+	}
+
+	/**
+	 * Multiplies every element by matrix m, in the same way as Vec3Array.transform().
+	 * 
+	 * @param m
+	 *            the matrix to multiply by.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline transform(Mat4 m) {
+		record(TRANSFORM, m.m11, m.m12, m.m13, null);
+		return constant(m.m21).constant(m.m22).constant(m.m23).constant(m.m31).constant(m.m32).constant(m.m33).constant(m.m41).constant(m.m42).constant(m.m43);
+	}
+
+	/**
+	 * Multiplies every element by matrix m and divides the result by its w component, in the same way as Vec3Array.project().
+	 * 
+	 * @param m
+	 *            the matrix to multiply by, such as a view-projection matrix.
+	 * 
+	 * @return this pipeline.
+	 */
+	public Vec3Pipeline project(Mat4 m) {
+		record(PROJECT, m.m11, m.m12, m.m13, null);
+		constant(m.m14).constant(m.m21).constant(m.m22).constant(m.m23).constant(m.m24).constant(m.m31).constant(m.m32).constant(m.m33).constant(m.m34);
+		return constant(m.m41).constant(m.m42).constant(m.m43).constant(m.m44);
+	}
+
+	private Vec3Pipeline record(int op, float a, float b, float c, Vec3Array array) {
+		if (3 * opCount == ops.length) ops = Arrays.copyOf(ops, 2 * ops.length);
+		int o = 3 * opCount++;
+		ops[o] = op;
+		ops[o + 1] = constantCount;
+		ops[o + 2] = array == null ? -1 : arrayCount;
+		if (array != null) {
+			if (arrayCount == arrays.length) arrays = Arrays.copyOf(arrays, 2 * arrays.length);
+			arrays[arrayCount++] = array;
+		}
+		return constant(a).constant(b).constant(c);
+	}
+
+	private Vec3Pipeline constant(float c) {
+		if (constantCount == constants.length) constants = Arrays.copyOf(constants, 2 * constants.length);
+		constants[constantCount++] = c;
+		return this;
+	}
+
+	// Evaluation
+
+	/**
+	 * Runs the recorded operations over every element of the source array in the range and stores the results in array dest at the same indices.
+	 * 
+	 * @param dest
+	 *            the array where the results are stored. May be the source array or any of the array operands.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3Array into(Vec3Array dest, int from, int to) {
+		source.checkRange(from, to);
+		dest.checkRange(from, to);
+		for (int i = 0; i < arrayCount; i++) {
+			arrays[i].checkRange(from, to);
+		}
+
+		float[] tx = this.tx, ty = this.ty, tz = this.tz;
+		for (int base = from; base < to; base += TILE) {
+			int n = Math.min(TILE, to - base);
+			System.arraycopy(source.x, base, tx, 0, n);
+			System.arraycopy(source.y, base, ty, 0, n);
+			System.arraycopy(source.z, base, tz, 0, n);
+			for (int i = 0; i < opCount; i++) {
+				apply(ops[3 * i], ops[3 * i + 1], ops[3 * i + 2], base, n);
+			}
+			System.arraycopy(tx, 0, dest.x, base, n);
+			System.arraycopy(ty, 0, dest.y, base, n);
+			System.arraycopy(tz, 0, dest.z, base, n);
+		}
+		return dest;
+	}
+
+	/**
+	 * Applies one operation to the n elements of the tile, which start at index base of the arrays.
+	 */
+	private void apply(int op, int c, int a, int base, int n) {
+		float[] tx = this.tx, ty = this.ty, tz = this.tz;
+		float[] k = constants;
+		Vec3Array r = a < 0 ? null : arrays[a];
+		switch (op) {
+		case ADD: {
+			float rx = k[c], ry = k[c + 1], rz = k[c + 2];
+			for (int i = 0; i < n; i++) {
+				tx[i] += rx;
+				ty[i] += ry;
+				tz[i] += rz;
+			}
+			break;
+		}
+		case ADD_ARRAY: {
+			float[] rx = r.x, ry = r.y, rz = r.z;
+			for (int i = 0; i < n; i++) {
+				tx[i] += rx[base + i];
+				ty[i] += ry[base + i];
+				tz[i] += rz[base + i];
+			}
+			break;
+		}
+		case SUB_ARRAY: {
+			float[] rx = r.x, ry = r.y, rz = r.z;
+			for (int i = 0; i < n; i++) {
+				tx[i] -= rx[base + i];
+				ty[i] -= ry[base + i];
+				tz[i] -= rz[base + i];
+			}
+			break;
+		}
+		case MUL: {
+			float rx = k[c], ry = k[c + 1], rz = k[c + 2];
+			for (int i = 0; i < n; i++) {
+				tx[i] *= rx;
+				ty[i] *= ry;
+				tz[i] *= rz;
+			}
+			break;
+		}
+		case MUL_ARRAY: {
+			float[] rx = r.x, ry = r.y, rz = r.z;
+			for (int i = 0; i < n; i++) {
+				tx[i] *= rx[base + i];
+				ty[i] *= ry[base + i];
+				tz[i] *= rz[base + i];
+			}
+			break;
+		}
+		case DIV: {
+			float rx = k[c], ry = k[c + 1], rz = k[c + 2];
+			for (int i = 0; i < n; i++) {
+				tx[i] /= rx;
+				ty[i] /= ry;
+				tz[i] /= rz;
+			}
+			break;
+		}
+		case DIV_ARRAY: {
+			float[] rx = r.x, ry = r.y, rz = r.z;
+			for (int i = 0; i < n; i++) {
+				tx[i] /= rx[base + i];
+				ty[i] /= ry[base + i];
+				tz[i] /= rz[base + i];
+			}
+			break;
+		}
+		case MUL_ADD_ARRAY: {
+			float s = k[c];
+			float[] vx = r.x, vy = r.y, vz = r.z;
+			for (int i = 0; i < n; i++) {
+				tx[i] += vx[base + i] * s;
+				ty[i] += vy[base + i] * s;
+				tz[i] += vz[base + i] * s;
+			}
+			break;
+		}
+		case CROSS: {
+			float rx = k[c], ry = k[c + 1], rz = k[c + 2];
+			for (int i = 0; i < n; i++) {
+				float xx = ty[i] * rz - tz[i] * ry;
+				float yy = tz[i] * rx - tx[i] * rz;
+				float zz = tx[i] * ry - ty[i] * rx;
+				tx[i] = xx;
+				ty[i] = yy;
+				tz[i] = zz;
+			}
+			break;
+		}
+		case CROSS_ARRAY: {
+			float[] rx = r.x, ry = r.y, rz = r.z;
+			for (int i = 0; i < n; i++) {
+				int j = base + i;
+				float xx = ty[i] * rz[j] - tz[i] * ry[j];
+				float yy = tz[i] * rx[j] - tx[i] * rz[j];
+				float zz = tx[i] * ry[j] - ty[i] * rx[j];
+				tx[i] = xx;
+				ty[i] = yy;
+				tz[i] = zz;
+			}
+			break;
+		}
+		case NORMALISE: {
+			for (int i = 0; i < n; i++) {
+				float xx = tx[i], yy = ty[i], zz = tz[i];
+				float lenSqrd = xx * xx + yy * yy + zz * zz;
+				float invLen = lenSqrd > 0 ? 1f / (float) Math.sqrt(lenSqrd) : 0f;
+				tx[i] = xx * invLen;
+				ty[i] = yy * invLen;
+				tz[i] = zz * invLen;
+			}
+			break;
+		}
+		case LERP: {
+			float px = k[c], py = k[c + 1], pz = k[c + 2], t = k[c + 3];
+			for (int i = 0; i < n; i++) {
+				tx[i] += (px - tx[i]) * t;
+				ty[i] += (py - ty[i]) * t;
+				tz[i] += (pz - tz[i]) * t;
+			}
+			break;
+		}
+		case LERP_ARRAY: {
+			float t = k[c];
+			float[] px = r.x, py = r.y, pz = r.z;
+			for (int i = 0; i < n; i++) {
+				tx[i] += (px[base + i] - tx[i]) * t;
+				ty[i] += (py[base + i] - ty[i]) * t;
+				tz[i] += (pz[base + i] - tz[i]) * t;
+			}
+			break;
+		}
+		case TRANSFORM: {
+			float m11 = k[c], m12 = k[c + 1], m13 = k[c + 2];
+			float m21 = k[c + 3], m22 = k[c + 4], m23 = k[c + 5];
+			float m31 = k[c + 6], m32 = k[c + 7], m33 = k[c + 8];
+			float m41 = k[c + 9], m42 = k[c + 10], m43 = k[c + 11];
+			for (int i = 0; i < n; i++) {
+				float xx = tx[i], yy = ty[i], zz = tz[i];
+				tx[i] = xx * m11 + yy * m21 + zz * m31 + m41;
+				ty[i] = xx * m12 + yy * m22 + zz * m32 + m42;
+				tz[i] = xx * m13 + yy * m23 + zz * m33 + m43;
+			}
+			break;
+		}
+		case PROJECT: {
+			float m11 = k[c], m12 = k[c + 1], m13 = k[c + 2], m14 = k[c + 3];
+			float m21 = k[c + 4], m22 = k[c + 5], m23 = k[c + 6], m24 = k[c + 7];
+			float m31 = k[c + 8], m32 = k[c + 9], m33 = k[c + 10], m34 = k[c + 11];
+			float m41 = k[c + 12], m42 = k[c + 13], m43 = k[c + 14], m44 = k[c + 15];
+			for (int i = 0; i < n; i++) {
+				float xx = tx[i], yy = ty[i], zz = tz[i];
+				float invW = 1f / (xx * m14 + yy * m24 + zz * m34 + m44);
+				tx[i] = (xx * m11 + yy * m21 + zz * m31 + m41) * invW;
+				ty[i] = (xx * m12 + yy * m22 + zz * m32 + m42) * invW;
+				tz[i] = (xx * m13 + yy * m23 + zz * m33 + m43) * invW;
+			}
+			break;
+		}
+		}
+	}
+}
\ No newline at end of file
@@ -6,4 +6,18 @@ public interface Vecmath<T> {
 	public T set(FloatBuffer buffer);
 
 	public void putInto(FloatBuffer buffer);
+
+	/**
+	 * Writes the object into the given FloatBuffer starting at the given index, without changing the position and limit of the buffer. The default writes through a slice of the buffer with putInto(FloatBuffer); implementations override it with absolute puts.
+	 * 
+	 * @param buffer
+	 *            the buffer where the object will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 */
+	public default void putInto(FloatBuffer buffer, int offset) {
+		FloatBuffer view = buffer.duplicate();
+		view.clear().position(offset);
+		putInto(view.slice());
+	}
 }
\ No newline at end of file
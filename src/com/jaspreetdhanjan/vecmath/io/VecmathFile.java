@@ -0,0 +1,471 @@
+package com.jaspreetdhanjan.vecmath.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Mat4Buffer;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+import com.jaspreetdhanjan.vecmath.Vec3Buffer;
+
+/**
+ * A binary file of Vec3 or Mat4 elements that is memory-mapped rather than read, so that opening it takes the same time whatever its size.
+ *
+ * The file starts with a 32 byte little-endian header: the magic number 0x46544D56 ("VMTF"), the format version, the element type, the number of floats per element, the number of elements as a long and 8 reserved bytes. The elements follow as little-endian floats, laid out as in Vec3Buffer and Mat4Buffer.
+ *
+ * A single mapping is limited to 2 GB, so the elements are mapped in chunks of up to 1 GB. vec3Chunk() and mat4Chunk() view a chunk in place as a Vec3Buffer or Mat4Buffer without copying, and the get(), read() and write() methods take long indices and work across chunks. Changes made through a file opened for writing go straight to the mapped memory; force() writes them to the storage device.
+ *
+ * Java 8 cannot unmap a mapping, so the chunks stay mapped until they are garbage collected, even after close().
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class VecmathFile implements Closeable {
+	public static final int TYPE_VEC3 = 1;
+	public static final int TYPE_MAT4 = 2;
+
+	public static final int MAGIC = 0x46544D56;
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 32;
+
+	static final long MAX_CHUNK_BYTES = 1 << 30;
+
+	private final FileChannel channel;
+	private final int type;
+	private final int floats;
+	private final long length;
+	private final int chunkLength;
+	private final MappedByteBuffer[] chunks;
+	private final FloatBuffer[] views;
+
+	// Constructors
+
+	private VecmathFile(FileChannel channel, int type, long length, boolean writable, long maxChunkBytes) throws IOException {
+		this.channel = channel;
+		this.type = type;
+		this.floats = floatsPerElement(type);
+		this.length = length;
+
+		int elementBytes = floats * 4;
+		chunkLength = (int) Math.max(1, maxChunkBytes / elementBytes);
+		int count = (int) ((length + chunkLength - 1) / chunkLength);
+		chunks = new MappedByteBuffer[count];
+		views = new FloatBuffer[count];
+		FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+		for (int c = 0; c < count; c++) {
+			long first = (long) c * chunkLength;
+			long elements = Math.min(chunkLength, length - first);
+			chunks[c] = channel.map(mode, HEADER_BYTES + first * elementBytes, elements * elementBytes);
+			chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+			views[c] = chunks[c].asFloatBuffer();
+		}
+	}
+
+	/**
+	 * Opens an existing file for reading only.
+	 * 
+	 * @param path
+	 *            the path of the file.
+	 * 
+	 * @return the result.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be read or does not have a valid header.
+	 */
+	public static VecmathFile open(Path path) throws IOException {
+		return open(path, false, MAX_CHUNK_BYTES);
+	}
+
+	/**
+	 * Opens an existing file for reading, and for writing if writable is true.
+	 * 
+	 * @param path
+	 *            the path of the file.
+	 * @param writable
+	 *            true to allow the elements to be changed.
+	 * 
+	 * @return the result.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be opened or does not have a valid header.
+	 */
+	public static VecmathFile open(Path path, boolean writable) throws IOException {
+		return open(path, writable, MAX_CHUNK_BYTES);
+	}
+
+	static VecmathFile open(Path path, boolean writable, long maxChunkBytes) throws IOException {
+		FileChannel channel = writable ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) throw new IOException("File is too short for a header: " + path);
+			}
+			if (header.getInt(0) != MAGIC) throw new IOException("Not a vecmath file: " + path);
+			if (header.getInt(4) != VERSION) throw new IOException("Unsupported version " + header.getInt(4) + ": " + path);
+			int type = header.getInt(8);
+			if (type != TYPE_VEC3 && type != TYPE_MAT4) throw new IOException("Unknown element type " + type + ": " + path);
+			if (header.getInt(12) != floatsPerElement(type)) throw new IOException("Wrong element size for type " + type + ": " + path);
+			long length = header.getLong(16);
+			// Compared by division, as the byte size of a corrupt length can overflow a long
+			if (length < 0 || length > (channel.size() - HEADER_BYTES) / (floatsPerElement(type) * 4)) throw new IOException("File is too short for " + length + " elements: " + path);
+			return new VecmathFile(channel, type, length, writable, maxChunkBytes);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates a file, replacing any existing one, with room for the given number of elements, all initialised to 0. It is open for reading and writing.
+	 * 
+	 * @param path
+	 *            the path of the file.
+	 * @param type
+	 *            the element type, TYPE_VEC3 or TYPE_MAT4.
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return the result.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be created.
+	 */
+	public static VecmathFile create(Path path, int type, long length) throws IOException {
+		return create(path, type, length, MAX_CHUNK_BYTES);
+	}
+
+	static VecmathFile create(Path path, int type, long length, long maxChunkBytes) throws IOException {
+		int floats = floatsPerElement(type);
+		if (length < 0) throw new IllegalArgumentException("Length must not be negative: " + length);
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, type).putInt(12, floats).putLong(16, length);
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+			// Extends the file to its full size, which the mappings require
+			long size = HEADER_BYTES + length * floats * 4;
+			if (size > HEADER_BYTES) channel.write(ByteBuffer.allocate(1), size - 1);
+			return new VecmathFile(channel, type, length, true, maxChunkBytes);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the elements of array src in the range to a new file, replacing any existing one.
+	 * 
+	 * @param path
+	 *            the path of the file.
+	 * @param src
+	 *            the elements to write.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	public static void write(Path path, Vec3Array src, int from, int to) throws IOException {
+		src.checkRange(from, to);
+		try (VecmathFile file = create(path, TYPE_VEC3, to - from)) {
+			file.write(0, src, from, to);
+			file.force();
+		}
+	}
+
+	/**
+	 * Writes the matrices to a new file, replacing any existing one.
+	 * 
+	 * @param path
+	 *            the path of the file.
+	 * @param src
+	 *            the matrices to write.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	public static void write(Path path, Mat4... src) throws IOException {
+		try (VecmathFile file = create(path, TYPE_MAT4, src.length)) {
+			for (int i = 0; i < src.length; i++) {
+				file.set(i, src[i]);
+			}
+			file.force();
+		}
+	}
+
+	private static int floatsPerElement(int type) {
+		if (type == TYPE_VEC3) return Vec3Buffer.FLOATS;
+		if (type == TYPE_MAT4) return Mat4Buffer.FLOATS;
+		throw new IllegalArgumentException("Unknown element type: " + type);
+	}
+
+	// Query methods
+
+	/**
+	 * Gets the element type, TYPE_VEC3 or TYPE_MAT4.
+	 * 
+	 * @return the result.
+	 */
+	public int type() {
+		return type;
+	}
+
+	/**
+	 * Gets the number of elements.
+	 * 
+	 * @return the result.
+	 */
+	public long length() {
+		return length;
+	}
+
+	/**
+	 * Gets the number of mapped chunks.
+	 * 
+	 * @return the result.
+	 */
+	public int chunkCount() {
+		return chunks.length;
+	}
+
+	/**
+	 * Gets the index of the first element of a chunk.
+	 * 
+	 * @param c
+	 *            the index of the chunk.
+	 * 
+	 * @return the result.
+	 */
+	public long chunkStart(int c) {
+		checkChunk(c);
+		return (long) c * chunkLength;
+	}
+
+	/**
+	 * Gets a view of the elements of a Vec3 file chunk. Element 0 of the view is element chunkStart(c) of the file.
+	 * 
+	 * @param c
+	 *            the index of the chunk.
+	 * 
+	 * @return the result.
+	 */
+	public Vec3Buffer vec3Chunk(int c) {
+		checkType(TYPE_VEC3);
+		checkChunk(c);
+		return new Vec3Buffer(views[c]);
+	}
+
+	/**
+	 * Gets a view of the elements of a Mat4 file chunk. Element 0 of the view is element chunkStart(c) of the file.
+	 * 
+	 * @param c
+	 *            the index of the chunk.
+	 * 
+	 * @return the result.
+	 */
+	public Mat4Buffer mat4Chunk(int c) {
+		checkType(TYPE_MAT4);
+		checkChunk(c);
+		return new Mat4Buffer(views[c]);
+	}
+
+	/**
+	 * Copies element i of a Vec3 file into vector dest.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param dest
+	 *            the vector to store the element into.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 get(long i, Vec3 dest) {
+		checkType(TYPE_VEC3);
+		checkIndex(i);
+		FloatBuffer b = views[(int) (i / chunkLength)];
+		int p = (int) (i % chunkLength) * floats;
+		return dest.set(b.get(p), b.get(p + 1), b.get(p + 2));
+	}
+
+	/**
+	 * Copies element i of a Mat4 file into matrix dest.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param dest
+	 *            the matrix to store the element into.
+	 * 
+	 * @return dest.
+	 */
+	public Mat4 get(long i, Mat4 dest) {
+		checkType(TYPE_MAT4);
+		checkIndex(i);
+		FloatBuffer b = views[(int) (i / chunkLength)];
+		int p = (int) (i % chunkLength) * floats;
+		return dest.set(b.get(p), b.get(p + 1), b.get(p + 2), b.get(p + 3), b.get(p + 4), b.get(p + 5), b.get(p + 6), b.get(p + 7), b.get(p + 8), b.get(p + 9), b.get(p + 10), b.get(p + 11), b.get(p + 12), b.get(p + 13), b.get(p + 14), b.get(p + 15));
+	}
+
+	/**
+	 * Sets element i of a Vec3 file to the values of vector v.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param v
+	 *            the vector to copy.
+	 * 
+	 * @return this file.
+	 */
+	public VecmathFile set(long i, Vec3 v) {
+		checkType(TYPE_VEC3);
+		checkIndex(i);
+		v.putInto(views[(int) (i / chunkLength)], (int) (i % chunkLength) * floats);
+		return this;
+	}
+
+	/**
+	 * Sets element i of a Mat4 file to the values of matrix m.
+	 * 
+	 * @param i
+	 *            the index of the element.
+	 * @param m
+	 *            the matrix to copy.
+	 * 
+	 * @return this file.
+	 */
+	public VecmathFile set(long i, Mat4 m) {
+		checkType(TYPE_MAT4);
+		checkIndex(i);
+		m.putInto(views[(int) (i / chunkLength)], (int) (i % chunkLength) * floats);
+		return this;
+	}
+
+	/**
+	 * Copies consecutive elements of a Vec3 file, starting at element first, into the range of array dest.
+	 * 
+	 * @param first
+	 *            the index of the first element to copy.
+	 * @param dest
+	 *            the array to store the elements into.
+	 * @param from
+	 *            the first index of dest, inclusive.
+	 * @param to
+	 *            the last index of dest, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3Array read(long first, Vec3Array dest, int from, int to) {
+		checkType(TYPE_VEC3);
+		dest.checkRange(from, to);
+		checkElements(first, to - from);
+		float[] scratch = new float[Math.min(to - from, 1024) * 3];
+		float[] x = dest.x, y = dest.y, z = dest.z;
+		while (from < to) {
+			FloatBuffer b = views[(int) (first / chunkLength)].duplicate();
+			int offset = (int) (first % chunkLength);
+			int n = Math.min(Math.min(to - from, chunkLength - offset), scratch.length / 3);
+			b.position(offset * 3);
+			b.get(scratch, 0, n * 3);
+			for (int i = 0, p = 0; i < n; i++, p += 3) {
+				x[from + i] = scratch[p];
+				y[from + i] = scratch[p + 1];
+				z[from + i] = scratch[p + 2];
+			}
+			from += n;
+			first += n;
+		}
+		return dest;
+	}
+
+	/**
+	 * Copies the range of array src into consecutive elements of a Vec3 file, starting at element first.
+	 * 
+	 * @param first
+	 *            the index of the first element to write.
+	 * @param src
+	 *            the elements to copy.
+	 * @param from
+	 *            the first index of src, inclusive.
+	 * @param to
+	 *            the last index of src, exclusive.
+	 * 
+	 * @return this file.
+	 */
+	public VecmathFile write(long first, Vec3Array src, int from, int to) {
+		checkType(TYPE_VEC3);
+		src.checkRange(from, to);
+		checkElements(first, to - from);
+		float[] scratch = new float[Math.min(to - from, 1024) * 3];
+		float[] x = src.x, y = src.y, z = src.z;
+		while (from < to) {
+			FloatBuffer b = views[(int) (first / chunkLength)].duplicate();
+			int offset = (int) (first % chunkLength);
+			int n = Math.min(Math.min(to - from, chunkLength - offset), scratch.length / 3);
+			for (int i = 0, p = 0; i < n; i++, p += 3) {
+				scratch[p] = x[from + i];
+				scratch[p + 1] = y[from + i];
+				scratch[p + 2] = z[from + i];
+			}
+			b.position(offset * 3);
+			b.put(scratch, 0, n * 3);
+			from += n;
+			first += n;
+		}
+		return this;
+	}
+
+	/**
+	 * Writes any changes to the elements to the storage device.
+	 * 
+	 * @return this file.
+	 */
+	public VecmathFile force() {
+		for (MappedByteBuffer chunk : chunks) {
+			if (!chunk.isReadOnly()) chunk.force();
+		}
+		return this;
+	}
+
+	/**
+	 * Closes the file channel. The chunks remain readable until they are garbage collected.
+	 * 
+	 * @throws IOException
+	 *             if the channel cannot be closed.
+	 */
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void checkType(int expected) {
+		if (type != expected) throw new IllegalStateException("File holds element type " + type + ", not " + expected);
+	}
+
+	private void checkChunk(int c) {
+		if (c < 0 || c >= chunks.length) throw new IndexOutOfBoundsException("Chunk " + c + " out of bounds for " + chunks.length + " chunks");
+	}
+
+	private void checkIndex(long i) {
+		if (i < 0 || i >= length) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + length);
+	}
+
+	private void checkElements(long first, int count) {
+		if (first < 0 || first + count > length) throw new IndexOutOfBoundsException("Range [" + first + ", " + (first + count) + ") out of bounds for length " + length);
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "VecmathFile(" + (type == TYPE_VEC3 ? "Vec3" : "Mat4") + ", " + length + ")";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,564 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * A bounding volume hierarchy over a triangle soup, for ray casts and box overlap queries.
+ *
+ * The triangles are given as three Vec3Arrays holding the first, second and third vertex of every triangle. The hierarchy is built with the surface area heuristic over 16 bins per split, and large subtrees are built in parallel on a ForkJoinPool. The nodes are stored depth-first in flat arrays, so the left child of a node always directly follows it, and the triangles are copied into the order of the leaves.
+ *
+ * The input arrays are only read while building, so later changes to them are not seen. Queries do not modify the hierarchy and can run from many threads at once.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Bvh {
+	static final int BINS = 16;
+	static final int MAX_LEAF_SIZE = 4;
+	static final int PARALLEL_THRESHOLD = 8192;
+
+	// Per node: minX, minY, minZ, maxX, maxY, maxZ
+	private final float[] bounds;
+	// Per node: index of the right child and 0 for an interior node, or index of the first triangle and the triangle count for a leaf
+	private final int[] nodes;
+	private final int nodeCount;
+	private final int depth;
+
+	// Triangles in leaf order, and the original index of each
+	private final RayTriangle leaves;
+	private final int[] triangles;
+
+	// Constructors
+
+	/**
+	 * Builds a Bvh over every triangle of the arrays, using the common ForkJoinPool.
+	 * 
+	 * @param v0
+	 *            the first vertex of every triangle.
+	 * @param v1
+	 *            the second vertex of every triangle.
+	 * @param v2
+	 *            the third vertex of every triangle.
+	 */
+	public Bvh(Vec3Array v0, Vec3Array v1, Vec3Array v2) {
+		this(v0, v1, v2, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Builds a Bvh over every triangle of the arrays, using the given ForkJoinPool.
+	 * 
+	 * @param v0
+	 *            the first vertex of every triangle.
+	 * @param v1
+	 *            the second vertex of every triangle.
+	 * @param v2
+	 *            the third vertex of every triangle.
+	 * @param pool
+	 *            the pool to build on.
+	 */
+	public Bvh(Vec3Array v0, Vec3Array v1, Vec3Array v2, ForkJoinPool pool) {
+		int n = v0.length();
+		if (v1.length() != n || v2.length() != n) throw new IllegalArgumentException("Vertex arrays must have the same length");
+
+		Builder builder = new Builder(v0, v1, v2);
+		depth = n == 0 ? 0 : pool.invoke(builder.new BuildTask(0, 0, n, null));
+
+		// Subtrees are built into node ranges reserved for their worst case, so they are compacted into depth-first order afterwards
+		int maxNodes = Math.max(1, 2 * n - 1);
+		int[] remap = new int[maxNodes];
+		int[] stack = new int[depth + 1];
+		bounds = new float[maxNodes * 6];
+		nodes = new int[maxNodes * 2];
+		int count = 0;
+		if (n > 0) {
+			int sp = 0;
+			stack[sp++] = 0;
+			while (sp > 0) {
+				int old = stack[--sp];
+				int i = count++;
+				remap[old] = i;
+				System.arraycopy(builder.bounds, old * 6, bounds, i * 6, 6);
+				nodes[i * 2] = builder.nodes[old * 2];
+				nodes[i * 2 + 1] = builder.nodes[old * 2 + 1];
+				if (nodes[i * 2 + 1] == 0) {
+					stack[sp++] = builder.nodes[old * 2];
+					stack[sp++] = old + 1;
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				if (nodes[i * 2 + 1] == 0) nodes[i * 2] = remap[nodes[i * 2]];
+			}
+		}
+		nodeCount = count;
+
+		triangles = builder.index;
+		leaves = new RayTriangle(v0, v1, v2, triangles);
+	}
+
+	// Query methods
+
+	/**
+	 * Gets the number of triangles.
+	 * 
+	 * @return the result.
+	 */
+	public int triangleCount() {
+		return triangles.length;
+	}
+
+	/**
+	 * Gets the number of nodes.
+	 * 
+	 * @return the result.
+	 */
+	public int nodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Gets the number of levels of nodes.
+	 * 
+	 * @return the result.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Gets the bounds of every triangle.
+	 * 
+	 * @param min
+	 *            the vector where the minimum corner is stored.
+	 * @param max
+	 *            the vector where the maximum corner is stored.
+	 */
+	public void getBounds(Vec3 min, Vec3 max) {
+		if (nodeCount == 0) {
+			min.set(Float.POSITIVE_INFINITY);
+			max.set(Float.NEGATIVE_INFINITY);
+			return;
+		}
+		min.set(bounds[0], bounds[1], bounds[2]);
+		max.set(bounds[3], bounds[4], bounds[5]);
+	}
+
+	/**
+	 * Finds the closest triangle hit by a ray.
+	 * 
+	 * @param origin
+	 *            the origin of the ray.
+	 * @param dir
+	 *            the direction of the ray. It does not need to be normalised; distances are measured in multiples of it.
+	 * @param maxDistance
+	 *            the largest distance to accept a hit at.
+	 * @param hit
+	 *            where the hit is stored. It is cleared if nothing is hit.
+	 * 
+	 * @return true if a triangle was hit.
+	 */
+	public boolean raycast(Vec3 origin, Vec3 dir, float maxDistance, RayHit hit) {
+		return raycast(origin, dir, maxDistance, hit, false);
+	}
+
+	/**
+	 * Checks if a ray hits any triangle, stopping at the first one found. This is cheaper than raycast() for shadow and line-of-sight checks.
+	 * 
+	 * @param origin
+	 *            the origin of the ray.
+	 * @param dir
+	 *            the direction of the ray.
+	 * @param maxDistance
+	 *            the largest distance to accept a hit at.
+	 * @param hit
+	 *            where the hit is stored. It is not necessarily the closest hit. It is cleared if nothing is hit.
+	 * 
+	 * @return true if a triangle was hit.
+	 */
+	public boolean anyHit(Vec3 origin, Vec3 dir, float maxDistance, RayHit hit) {
+		return raycast(origin, dir, maxDistance, hit, true);
+	}
+
+	private boolean raycast(Vec3 origin, Vec3 dir, float maxDistance, RayHit hit, boolean any) {
+		hit.clear();
+		if (nodeCount == 0) return false;
+
+		float ox = origin.x, oy = origin.y, oz = origin.z;
+		float dx = dir.x, dy = dir.y, dz = dir.z;
+		float ix = 1f / dx, iy = 1f / dy, iz = 1f / dz;
+		float tMax = maxDistance;
+		int found = -1;
+
+		hit.ensureStack(depth + 1);
+		int[] stack = hit.stack;
+		float[] stackDistance = hit.stackDistance;
+		int sp = 0;
+		float entry = slab(0, ox, oy, oz, ix, iy, iz, tMax);
+		if (entry != Float.POSITIVE_INFINITY) {
+			stack[sp] = 0;
+			stackDistance[sp++] = entry;
+		}
+
+		while (sp > 0) {
+			int node = stack[--sp];
+			if (stackDistance[sp] > tMax) continue;
+
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				int first = nodes[node * 2];
+				int i = leaves.nearest(first, first + count, ox, oy, oz, dx, dy, dz, tMax, hit);
+				if (i >= 0) {
+					tMax = hit.distance;
+					found = i;
+					if (any) sp = 0;
+				}
+			} else {
+				int left = node + 1, right = nodes[node * 2];
+				float tl = slab(left, ox, oy, oz, ix, iy, iz, tMax);
+				float tr = slab(right, ox, oy, oz, ix, iy, iz, tMax);
+				// Push the far child first so that the near child is visited first
+				if (tl > tr) {
+					int ti = left;
+					left = right;
+					right = ti;
+					float tt = tl;
+					tl = tr;
+					tr = tt;
+				}
+				if (tr != Float.POSITIVE_INFINITY) {
+					stack[sp] = right;
+					stackDistance[sp++] = tr;
+				}
+				if (tl != Float.POSITIVE_INFINITY) {
+					stack[sp] = left;
+					stackDistance[sp++] = tl;
+				}
+			}
+		}
+
+		if (found < 0) return false;
+		hit.triangle = triangles[found];
+		return true;
+	}
+
+	private float slab(int node, float ox, float oy, float oz, float ix, float iy, float iz, float tMax) {
+		float[] b = bounds;
+		int p = node * 6;
+		float x0 = (b[p] - ox) * ix, x1 = (b[p + 3] - ox) * ix;
+		float y0 = (b[p + 1] - oy) * iy, y1 = (b[p + 4] - oy) * iy;
+		float z0 = (b[p + 2] - oz) * iz, z1 = (b[p + 5] - oz) * iz;
+		// A ray parallel to an axis that starts exactly on a bound gives 0 * inf = NaN for that axis. It lies within the slab, so the NaN must not constrain the interval: Math.min/Math.max keep it per axis, and the NaN is then dropped when the axes are combined.
+		float near = maxNumber(maxNumber(Math.min(x0, x1), Math.min(y0, y1)), maxNumber(Math.min(z0, z1), 0f));
+		float far = minNumber(minNumber(Math.max(x0, x1), Math.max(y0, y1)), minNumber(Math.max(z0, z1), tMax));
+		return near <= far ? near : Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * The larger of a and b, or the other value if one of them is NaN.
+	 */
+	private static float maxNumber(float a, float b) {
+		return a > b || b != b ? a : b;
+	}
+
+	/**
+	 * The smaller of a and b, or the other value if one of them is NaN.
+	 */
+	private static float minNumber(float a, float b) {
+		return a < b || b != b ? a : b;
+	}
+
+	/**
+	 * Finds the triangles whose bounds overlap an axis-aligned box.
+	 * 
+	 * @param min
+	 *            the minimum corner of the box.
+	 * @param max
+	 *            the maximum corner of the box.
+	 * @param dest
+	 *            the array where the indices of the triangles are stored. If there are more triangles than it has room for, the rest are counted but not stored.
+	 * 
+	 * @return the number of triangles found.
+	 */
+	public int overlap(Vec3 min, Vec3 max, int[] dest) {
+		if (nodeCount == 0) return 0;
+
+		float x0 = min.x, y0 = min.y, z0 = min.z;
+		float x1 = max.x, y1 = max.y, z1 = max.z;
+		float[] b = bounds;
+		float[] ax = leaves.ax, ay = leaves.ay, az = leaves.az;
+		float[] e1x = leaves.e1x, e1y = leaves.e1y, e1z = leaves.e1z;
+		float[] e2x = leaves.e2x, e2y = leaves.e2y, e2z = leaves.e2z;
+		int[] stack = new int[depth + 1];
+		int sp = 0;
+		int found = 0;
+		stack[sp++] = 0;
+		while (sp > 0) {
+			int node = stack[--sp];
+			int p = node * 6;
+			if (b[p] > x1 || b[p + 3] < x0 || b[p + 1] > y1 || b[p + 4] < y0 || b[p + 2] > z1 || b[p + 5] < z0) continue;
+
+			int count = nodes[node * 2 + 1];
+			if (count == 0) {
+				stack[sp++] = nodes[node * 2];
+				stack[sp++] = node + 1;
+				continue;
+			}
+			for (int i = nodes[node * 2], end = i + count; i < end; i++) {
+				float bx = ax[i] + e1x[i], cx = ax[i] + e2x[i];
+				float by = ay[i] + e1y[i], cy = ay[i] + e2y[i];
+				float bz = az[i] + e1z[i], cz = az[i] + e2z[i];
+				if (Math.min(ax[i], Math.min(bx, cx)) > x1 || Math.max(ax[i], Math.max(bx, cx)) < x0) continue;
+				if (Math.min(ay[i], Math.min(by, cy)) > y1 || Math.max(ay[i], Math.max(by, cy)) < y0) continue;
+				if (Math.min(az[i], Math.min(bz, cz)) > z1 || Math.max(az[i], Math.max(bz, cz)) < z0) continue;
+				if (found < dest.length) dest[found] = triangles[i];
+				found++;
+			}
+		}
+		return found;
+	}
+
+	private static class Builder {
+		// Per triangle, in the order of index: minX, minY, minZ, maxX, maxY, maxZ, then the centroid x, y, z. Records are swapped along with index so that every pass reads them in order.
+		static final int STRIDE = 9;
+
+		final float[] prims;
+		final int[] index;
+		// Per node, with room for the worst case of one triangle per leaf
+		final float[] bounds;
+		final int[] nodes;
+
+		Builder(Vec3Array v0, Vec3Array v1, Vec3Array v2) {
+			int n = v0.length();
+			prims = new float[n * STRIDE];
+			index = new int[n];
+			for (int i = 0, p = 0; i < n; i++, p += STRIDE) {
+				float minX = Math.min(v0.x[i], Math.min(v1.x[i], v2.x[i]));
+				float minY = Math.min(v0.y[i], Math.min(v1.y[i], v2.y[i]));
+				float minZ = Math.min(v0.z[i], Math.min(v1.z[i], v2.z[i]));
+				float maxX = Math.max(v0.x[i], Math.max(v1.x[i], v2.x[i]));
+				float maxY = Math.max(v0.y[i], Math.max(v1.y[i], v2.y[i]));
+				float maxZ = Math.max(v0.z[i], Math.max(v1.z[i], v2.z[i]));
+				prims[p] = minX;
+				prims[p + 1] = minY;
+				prims[p + 2] = minZ;
+				prims[p + 3] = maxX;
+				prims[p + 4] = maxY;
+				prims[p + 5] = maxZ;
+				prims[p + 6] = (minX + maxX) * 0.5f;
+				prims[p + 7] = (minY + maxY) * 0.5f;
+				prims[p + 8] = (minZ + maxZ) * 0.5f;
+				index[i] = i;
+			}
+			int maxNodes = Math.max(1, 2 * n - 1);
+			bounds = new float[maxNodes * 6];
+			nodes = new int[maxNodes * 2];
+		}
+
+		private class BuildTask extends RecursiveTask<Integer> {
+			private static final long serialVersionUID = 1L;
+
+			private final int node;
+			private final int start;
+			private final int end;
+			private final float[] box;
+
+			BuildTask(int node, int start, int end, float[] box) {
+				this.node = node;
+				this.start = start;
+				this.end = end;
+				this.box = box;
+			}
+
+			protected Integer compute() {
+				return build(node, start, end, box == null ? measure(start, end) : box, new Scratch());
+			}
+		}
+
+		/**
+		 * Binning arrays reused by every node that one task builds. They are no longer needed once a node is split, so they can be shared by its children.
+		 */
+		private static class Scratch {
+			final int[] binCount = new int[BINS];
+			// Per bin: bounds of the triangles, then bounds of their centroids
+			final float[] bins = new float[BINS * 12];
+			final float[] rightCost = new float[BINS];
+			final float[] side = new float[12];
+		}
+
+		/**
+		 * Gets the bounds of the triangles in the range followed by the bounds of their centroids.
+		 */
+		float[] measure(int start, int end) {
+			float[] box = empty(new float[12], 0, 2);
+			for (int i = start, p = start * STRIDE; i < end; i++, p += STRIDE) {
+				include(box, 0, prims, p);
+			}
+			return box;
+		}
+
+		int build(int node, int start, int end, float[] box, Scratch scratch) {
+			int count = end - start;
+			System.arraycopy(box, 0, bounds, node * 6, 6);
+			if (count <= 1) return leaf(node, start, count);
+
+			// Bin the centroids along the axis where they are most spread out
+			float ex = box[9] - box[6], ey = box[10] - box[7], ez = box[11] - box[8];
+			int axis = ex >= ey && ex >= ez ? 0 : ey >= ez ? 1 : 2;
+			float c0 = box[6 + axis];
+			float extent = axis == 0 ? ex : axis == 1 ? ey : ez;
+
+			int mid = -1;
+			float[] leftBox = null, rightBox = null;
+			if (extent > 0f) {
+				float k = BINS * (1f - 1e-6f) / extent;
+				int[] binCount = scratch.binCount;
+				float[] bins = empty(scratch.bins, 0, BINS * 2);
+				Arrays.fill(binCount, 0);
+				for (int i = start, p = start * STRIDE; i < end; i++, p += STRIDE) {
+					int b = Math.min(BINS - 1, (int) ((prims[p + 6 + axis] - c0) * k));
+					binCount[b]++;
+					include(bins, b * 12, prims, p);
+				}
+
+				// Sweep from the right to get the cost of every right side, then from the left to find the cheapest split
+				float[] rightCost = scratch.rightCost;
+				float[] side = empty(scratch.side, 0, 2);
+				int rightCount = 0;
+				for (int b = BINS - 1; b > 0; b--) {
+					merge(side, bins, b * 12);
+					rightCount += binCount[b];
+					rightCost[b] = rightCount == 0 ? 0f : area(side) * rightCount;
+				}
+
+				float bestCost = Float.POSITIVE_INFINITY;
+				int bestBin = -1;
+				empty(side, 0, 2);
+				int leftCount = 0;
+				for (int b = 0; b < BINS - 1; b++) {
+					merge(side, bins, b * 12);
+					leftCount += binCount[b];
+					if (leftCount == 0 || leftCount == count) continue;
+					float cost = area(side) * leftCount + rightCost[b + 1];
+					if (cost < bestCost) {
+						bestCost = cost;
+						bestBin = b;
+					}
+				}
+
+				// A leaf costs one test per triangle; a split costs one box test plus the tests of each side weighted by the chance of entering it
+				float nodeArea = area(box);
+				if (count <= MAX_LEAF_SIZE && (bestBin < 0 || count * nodeArea <= nodeArea + bestCost)) return leaf(node, start, count);
+
+				if (bestBin >= 0) {
+					int i = start, j = end - 1;
+					while (i <= j) {
+						if (Math.min(BINS - 1, (int) ((prims[i * STRIDE + 6 + axis] - c0) * k)) <= bestBin) {
+							i++;
+						} else {
+							swap(i, j--);
+						}
+					}
+					mid = i;
+					leftBox = empty(new float[12], 0, 2);
+					rightBox = empty(new float[12], 0, 2);
+					for (int b = 0; b < BINS; b++) {
+						merge(b <= bestBin ? leftBox : rightBox, bins, b * 12);
+					}
+				}
+			} else if (count <= MAX_LEAF_SIZE) {
+				return leaf(node, start, count);
+			}
+
+			// Every centroid is in the same place, so split the triangles in half
+			if (leftBox == null) {
+				mid = start + count / 2;
+				leftBox = measure(start, mid);
+				rightBox = measure(mid, end);
+			}
+
+			int left = node + 1;
+			int right = node + 2 * (mid - start);
+			nodes[node * 2] = right;
+			nodes[node * 2 + 1] = 0;
+
+			int leftDepth, rightDepth;
+			if (count > PARALLEL_THRESHOLD) {
+				BuildTask task = new BuildTask(left, start, mid, leftBox);
+				task.fork();
+				rightDepth = build(right, mid, end, rightBox, scratch);
+				leftDepth = task.join();
+			} else {
+				leftDepth = build(left, start, mid, leftBox, scratch);
+				rightDepth = build(right, mid, end, rightBox, scratch);
+			}
+			return 1 + Math.max(leftDepth, rightDepth);
+		}
+
+		private int leaf(int node, int start, int count) {
+			nodes[node * 2] = start;
+			nodes[node * 2 + 1] = count;
+			return 1;
+		}
+
+		private void swap(int i, int j) {
+			int t = index[i];
+			index[i] = index[j];
+			index[j] = t;
+			for (int p = i * STRIDE, q = j * STRIDE, end = p + STRIDE; p < end; p++, q++) {
+				float f = prims[p];
+				prims[p] = prims[q];
+				prims[q] = f;
+			}
+		}
+
+		/**
+		 * Sets count consecutive boxes, each a minimum and maximum corner, to empty.
+		 */
+		private static float[] empty(float[] boxes, int offset, int count) {
+			for (int p = offset, end = offset + count * 6; p < end; p += 6) {
+				boxes[p] = boxes[p + 1] = boxes[p + 2] = Float.POSITIVE_INFINITY;
+				boxes[p + 3] = boxes[p + 4] = boxes[p + 5] = Float.NEGATIVE_INFINITY;
+			}
+			return boxes;
+		}
+
+		/**
+		 * Grows the bounds and centroid bounds at box[offset] to include the triangle record at prims[p].
+		 */
+		private static void include(float[] box, int offset, float[] prims, int p) {
+			for (int k = 0; k < 3; k++) {
+				box[offset + k] = Math.min(box[offset + k], prims[p + k]);
+				box[offset + 3 + k] = Math.max(box[offset + 3 + k], prims[p + 3 + k]);
+				box[offset + 6 + k] = Math.min(box[offset + 6 + k], prims[p + 6 + k]);
+				box[offset + 9 + k] = Math.max(box[offset + 9 + k], prims[p + 6 + k]);
+			}
+		}
+
+		/**
+		 * Grows the bounds and centroid bounds in box to include those at boxes[offset].
+		 */
+		private static void merge(float[] box, float[] boxes, int offset) {
+			for (int k = 0; k < 3; k++) {
+				box[k] = Math.min(box[k], boxes[offset + k]);
+				box[3 + k] = Math.max(box[3 + k], boxes[offset + 3 + k]);
+				box[6 + k] = Math.min(box[6 + k], boxes[offset + 6 + k]);
+				box[9 + k] = Math.max(box[9 + k], boxes[offset + 9 + k]);
+			}
+		}
+
+		private static float area(float[] box) {
+			float dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+			return dx * dy + dy * dz + dz * dx;
+		}
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "Bvh(" + triangles.length + " triangles, " + nodeCount + " nodes, depth " + depth + ")";
+	}
+}
\ No newline at end of file
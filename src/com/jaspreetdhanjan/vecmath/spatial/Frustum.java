@@ -0,0 +1,366 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * The six planes of a view frustum, used to cull bounding spheres and axis-aligned bounding boxes.
+ *
+ * The planes are extracted from a view-projection matrix, such as view.mul(projection) with a projection from MatrixUtil.createPerspectiveMatrix() or MatrixUtil.createOrthographicMatrix(). Plane normals point into the frustum and are normalised, so the plane distance of a point is in world units.
+ *
+ * The batch methods test bounds stored as structure-of-arrays, such as Vec3Array, and write the indices of the visible ones back-to-back into an int array.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class Frustum {
+	public static final int LEFT = 0;
+	public static final int RIGHT = 1;
+	public static final int BOTTOM = 2;
+	public static final int TOP = 3;
+	public static final int NEAR = 4;
+	public static final int FAR = 5;
+
+	static final int CHUNK = 4096;
+
+	private final float[] nx = new float[6];
+	private final float[] ny = new float[6];
+	private final float[] nz = new float[6];
+	private final float[] d = new float[6];
+
+	// Constructors and setters
+
+	/**
+	 * Constructs a Frustum that contains every point. Call set() to extract the planes from a matrix.
+	 */
+	public Frustum() {
+		for (int i = 0; i < 6; i++) {
+			d[i] = Float.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * Constructs a Frustum from the view-projection matrix m.
+	 * 
+	 * @param m
+	 *            the view-projection matrix.
+	 */
+	public Frustum(Mat4 m) {
+		set(m);
+	}
+
+	/**
+	 * Extracts the planes of the view-projection matrix m.
+	 * 
+	 * @param m
+	 *            the view-projection matrix.
+	 * 
+	 * @return this frustum.
+	 */
+	public Frustum set(Mat4 m) {
+		// A point p is inside if -w <= x, y, z <= w, where (x, y, z, w) is p multiplied by m, so each plane is a sum or difference of two columns of m
+		setPlane(LEFT, m.m14 + m.m11, m.m24 + m.m21, m.m34 + m.m31, m.m44 + m.m41);
+		setPlane(RIGHT, m.m14 - m.m11, m.m24 - m.m21, m.m34 - m.m31, m.m44 - m.m41);
+		setPlane(BOTTOM, m.m14 + m.m12, m.m24 + m.m22, m.m34 + m.m32, m.m44 + m.m42);
+		setPlane(TOP, m.m14 - m.m12, m.m24 - m.m22, m.m34 - m.m32, m.m44 - m.m42);
+		setPlane(NEAR, m.m14 + m.m13, m.m24 + m.m23, m.m34 + m.m33, m.m44 + m.m43);
+		setPlane(FAR, m.m14 - m.m13, m.m24 - m.m23, m.m34 - m.m33, m.m44 - m.m43);
+		return this;
+	}
+
+	private void setPlane(int i, float a, float b, float c, float w) {
+		float len = (float) Math.sqrt(a * a + b * b + c * c);
+		float inv = len > 0 ? 1f / len : 0f;
+		nx[i] = a * inv;
+		ny[i] = b * inv;
+		nz[i] = c * inv;
+		d[i] = w * inv;
+	}
+
+	/**
+	 * Gets one of the planes of this frustum.
+	 * 
+	 * @param plane
+	 *            the plane, from LEFT to FAR.
+	 * @param normal
+	 *            the vector where the normal of the plane is stored. It points into the frustum.
+	 * 
+	 * @return the distance term of the plane, so that a point p is on the plane when normal.dot(p) + distance is 0.
+	 */
+	public float getPlane(int plane, Vec3 normal) {
+		normal.set(nx[plane], ny[plane], nz[plane]);
+		return d[plane];
+	}
+
+	// Single tests
+
+	/**
+	 * Checks if point p is inside this frustum.
+	 * 
+	 * @param p
+	 *            the point.
+	 * 
+	 * @return the result.
+	 */
+	public boolean testPoint(Vec3 p) {
+		return testSphere(p, 0f);
+	}
+
+	/**
+	 * Checks if a sphere intersects this frustum. Spheres near a corner of the frustum may be reported as visible when they are not.
+	 * 
+	 * @param center
+	 *            the center of the sphere.
+	 * @param radius
+	 *            the radius of the sphere.
+	 * 
+	 * @return the result.
+	 */
+	public boolean testSphere(Vec3 center, float radius) {
+		for (int i = 0; i < 6; i++) {
+			if (nx[i] * center.x + ny[i] * center.y + nz[i] * center.z + d[i] < -radius) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if an axis-aligned bounding box intersects this frustum. Boxes near a corner of the frustum may be reported as visible when they are not.
+	 * 
+	 * @param min
+	 *            the minimum corner of the box.
+	 * @param max
+	 *            the maximum corner of the box.
+	 * 
+	 * @return the result.
+	 */
+	public boolean testAabb(Vec3 min, Vec3 max) {
+		return testAabb(min.x, min.y, min.z, max.x, max.y, max.z);
+	}
+
+	boolean testAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float cx = (minX + maxX) * 0.5f, cy = (minY + maxY) * 0.5f, cz = (minZ + maxZ) * 0.5f;
+		float ex = (maxX - minX) * 0.5f, ey = (maxY - minY) * 0.5f, ez = (maxZ - minZ) * 0.5f;
+		for (int i = 0; i < 6; i++) {
+			float r = Math.abs(nx[i]) * ex + Math.abs(ny[i]) * ey + Math.abs(nz[i]) * ez;
+			if (nx[i] * cx + ny[i] * cy + nz[i] * cz + d[i] < -r) return false;
+		}
+		return true;
+	}
+
+	// Batch tests
+
+	/**
+	 * Tests the spheres in the range and writes the indices of the visible ones, in increasing order, to the start of array dest.
+	 * 
+	 * @param centers
+	 *            the centers of the spheres.
+	 * @param radii
+	 *            the radii of the spheres, at the same indices.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the array where the visible indices are stored. It must have room for to - from indices.
+	 * 
+	 * @return the number of visible spheres.
+	 */
+	public int cullSpheres(Vec3Array centers, float[] radii, int from, int to, int[] dest) {
+		checkSpheres(centers, radii, from, to, dest);
+		return cullSpheres(centers, radii, from, to, dest, 0);
+	}
+
+	/**
+	 * Tests the spheres in the range and writes the indices of the visible ones, in increasing order, to the start of array dest. Large ranges are split across the given ForkJoinPool.
+	 * 
+	 * @param centers
+	 *            the centers of the spheres.
+	 * @param radii
+	 *            the radii of the spheres, at the same indices.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the array where the visible indices are stored. It must have room for to - from indices.
+	 * @param pool
+	 *            the pool to run on.
+	 * 
+	 * @return the number of visible spheres.
+	 */
+	public int cullSpheres(Vec3Array centers, float[] radii, int from, int to, int[] dest, ForkJoinPool pool) {
+		checkSpheres(centers, radii, from, to, dest);
+		return cullParallel(centers, radii, null, from, to, dest, pool);
+	}
+
+	/**
+	 * Tests the axis-aligned bounding boxes in the range and writes the indices of the visible ones, in increasing order, to the start of array dest.
+	 * 
+	 * @param min
+	 *            the minimum corners of the boxes.
+	 * @param max
+	 *            the maximum corners of the boxes, at the same indices.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the array where the visible indices are stored. It must have room for to - from indices.
+	 * 
+	 * @return the number of visible boxes.
+	 */
+	public int cullAabbs(Vec3Array min, Vec3Array max, int from, int to, int[] dest) {
+		checkAabbs(min, max, from, to, dest);
+		return cullAabbs(min, max, from, to, dest, 0);
+	}
+
+	/**
+	 * Tests the axis-aligned bounding boxes in the range and writes the indices of the visible ones, in increasing order, to the start of array dest. Large ranges are split across the given ForkJoinPool.
+	 * 
+	 * @param min
+	 *            the minimum corners of the boxes.
+	 * @param max
+	 *            the maximum corners of the boxes, at the same indices.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the array where the visible indices are stored. It must have room for to - from indices.
+	 * @param pool
+	 *            the pool to run on.
+	 * 
+	 * @return the number of visible boxes.
+	 */
+	public int cullAabbs(Vec3Array min, Vec3Array max, int from, int to, int[] dest, ForkJoinPool pool) {
+		checkAabbs(min, max, from, to, dest);
+		return cullParallel(min, null, max, from, to, dest, pool);
+	}
+
+	private int cullSpheres(Vec3Array centers, float[] radii, int from, int to, int[] dest, int offset) {
+		float[] x = centers.x, y = centers.y, z = centers.z;
+		float ax = nx[0], ay = ny[0], az = nz[0], ad = d[0];
+		float bx = nx[1], by = ny[1], bz = nz[1], bd = d[1];
+		float cx = nx[2], cy = ny[2], cz = nz[2], cd = d[2];
+		float dx = nx[3], dy = ny[3], dz = nz[3], dd = d[3];
+		float ex = nx[4], ey = ny[4], ez = nz[4], ed = d[4];
+		float fx = nx[5], fy = ny[5], fz = nz[5], fd = d[5];
+		int n = offset;
+		for (int i = from; i < to; i++) {
+			float px = x[i], py = y[i], pz = z[i], r = -radii[i];
+			boolean visible = ax * px + ay * py + az * pz + ad >= r
+					& bx * px + by * py + bz * pz + bd >= r
+					& cx * px + cy * py + cz * pz + cd >= r
+					& dx * px + dy * py + dz * pz + dd >= r
+					& ex * px + ey * py + ez * pz + ed >= r
+					& fx * px + fy * py + fz * pz + fd >= r;
+			// Always write and only advance when visible, so the loop has no unpredictable branch
+			dest[n] = i;
+			n += visible ? 1 : 0;
+		}
+		return n - offset;
+	}
+
+	private int cullAabbs(Vec3Array min, Vec3Array max, int from, int to, int[] dest, int offset) {
+		float[] x0 = min.x, y0 = min.y, z0 = min.z;
+		float[] x1 = max.x, y1 = max.y, z1 = max.z;
+		int n = offset;
+		for (int i = from; i < to; i++) {
+			float cx = (x0[i] + x1[i]) * 0.5f, cy = (y0[i] + y1[i]) * 0.5f, cz = (z0[i] + z1[i]) * 0.5f;
+			float ex = (x1[i] - x0[i]) * 0.5f, ey = (y1[i] - y0[i]) * 0.5f, ez = (z1[i] - z0[i]) * 0.5f;
+			boolean visible = true;
+			for (int k = 0; k < 6; k++) {
+				float r = Math.abs(nx[k]) * ex + Math.abs(ny[k]) * ey + Math.abs(nz[k]) * ez;
+				visible &= nx[k] * cx + ny[k] * cy + nz[k] * cz + d[k] >= -r;
+			}
+			dest[n] = i;
+			n += visible ? 1 : 0;
+		}
+		return n - offset;
+	}
+
+	private int cullParallel(Vec3Array a, float[] radii, Vec3Array b, int from, int to, int[] dest, ForkJoinPool pool) {
+		int chunks = (to - from + CHUNK - 1) / CHUNK;
+		if (chunks <= 1) return radii != null ? cullSpheres(a, radii, from, to, dest, 0) : cullAabbs(a, b, from, to, dest, 0);
+
+		// Each chunk is culled into its own slot of dest in parallel, then the slots are moved together
+		int[] counts = new int[chunks];
+		pool.invoke(new CullTask(a, radii, b, from, to, dest, counts, 0, chunks));
+		int n = counts[0];
+		for (int c = 1; c < chunks; c++) {
+			System.arraycopy(dest, c * CHUNK, dest, n, counts[c]);
+			n += counts[c];
+		}
+		return n;
+	}
+
+	private class CullTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Vec3Array a;
+		private final float[] radii;
+		private final Vec3Array b;
+		private final int from;
+		private final int to;
+		private final int[] dest;
+		private final int[] counts;
+		private final int firstChunk;
+		private final int lastChunk;
+
+		CullTask(Vec3Array a, float[] radii, Vec3Array b, int from, int to, int[] dest, int[] counts, int firstChunk, int lastChunk) {
+			this.a = a;
+			this.radii = radii;
+			this.b = b;
+			this.from = from;
+			this.to = to;
+			this.dest = dest;
+			this.counts = counts;
+			this.firstChunk = firstChunk;
+			this.lastChunk = lastChunk;
+		}
+
+		protected void compute() {
+			if (lastChunk - firstChunk > 1) {
+				int mid = (firstChunk + lastChunk) >>> 1;
+				invokeAll(new CullTask(a, radii, b, from, to, dest, counts, firstChunk, mid), new CullTask(a, radii, b, from, to, dest, counts, mid, lastChunk));
+				return;
+			}
+
+			int start = from + firstChunk * CHUNK;
+			int end = Math.min(start + CHUNK, to);
+			int offset = firstChunk * CHUNK;
+			counts[firstChunk] = radii != null ? cullSpheres(a, radii, start, end, dest, offset) : cullAabbs(a, b, start, end, dest, offset);
+		}
+	}
+
+	private static void checkSpheres(Vec3Array centers, float[] radii, int from, int to, int[] dest) {
+		centers.checkRange(from, to);
+		if (to > radii.length) throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for " + radii.length + " radii");
+		checkDest(from, to, dest);
+	}
+
+	private static void checkAabbs(Vec3Array min, Vec3Array max, int from, int to, int[] dest) {
+		min.checkRange(from, to);
+		max.checkRange(from, to);
+		checkDest(from, to, dest);
+	}
+
+	private static void checkDest(int from, int to, int[] dest) {
+		if (dest.length < to - from) throw new IndexOutOfBoundsException("Destination has room for " + dest.length + " indices but " + (to - from) + " are needed");
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Frustum(");
+		for (int i = 0; i < 6; i++) {
+			if (i > 0) sb.append(", ");
+			sb.append("(" + nx[i] + ", " + ny[i] + ", " + nz[i] + ", " + d[i] + ")");
+		}
+		return sb.append(")").toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,321 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * A k-d tree over a static set of points, for nearest neighbour and radius queries.
+ *
+ * The tree is implicit: the points are reordered in place so that the median of every range on its split axis sits in the middle of the range, with the smaller points before it and the larger points after it. No nodes are stored besides one split axis per point. Ranges of up to 8 points are leaves and are scanned directly. Large ranges are split in parallel on a ForkJoinPool.
+ *
+ * The input points are copied while building, so later changes to them are not seen. Queries write into arrays supplied by the caller, do not allocate and can run from many threads at once.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class KdTree {
+	static final int MAX_LEAF_SIZE = 8;
+	static final int PARALLEL_THRESHOLD = 8192;
+
+	// Points in tree order
+	private final float[] x, y, z;
+	private final int[] ids;
+	// The split axis of the range whose median is at each position: 0, 1 or 2
+	private final byte[] axis;
+
+	// Constructors
+
+	/**
+	 * Builds a KdTree over every point of the array, using the common ForkJoinPool.
+	 * 
+	 * @param points
+	 *            the points.
+	 */
+	public KdTree(Vec3Array points) {
+		this(points, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Builds a KdTree over every point of the array, using the given ForkJoinPool.
+	 * 
+	 * @param points
+	 *            the points.
+	 * @param pool
+	 *            the pool to build on.
+	 */
+	public KdTree(Vec3Array points, ForkJoinPool pool) {
+		int n = points.length();
+		x = points.x.clone();
+		y = points.y.clone();
+		z = points.z.clone();
+		ids = new int[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = i;
+		}
+		axis = new byte[n];
+		if (n > MAX_LEAF_SIZE) pool.invoke(new BuildTask(0, n));
+	}
+
+	/**
+	 * Builds a KdTree over the given points, using the common ForkJoinPool.
+	 * 
+	 * @param points
+	 *            the points.
+	 */
+	public KdTree(Vec3... points) {
+		this(new Vec3Array(points));
+	}
+
+	// Build methods
+
+	private class BuildTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		BuildTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				build(from, to);
+			} else {
+				int mid = split(from, to);
+				invokeAll(new BuildTask(from, mid), new BuildTask(mid + 1, to));
+			}
+		}
+	}
+
+	private void build(int lo, int hi) {
+		while (hi - lo > MAX_LEAF_SIZE) {
+			int mid = split(lo, hi);
+			build(lo, mid);
+			lo = mid + 1;
+		}
+	}
+
+	private int split(int lo, int hi) {
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = lo; i < hi; i++) {
+			float px = x[i], py = y[i], pz = z[i];
+			if (px < minX) minX = px;
+			if (px > maxX) maxX = px;
+			if (py < minY) minY = py;
+			if (py > maxY) maxY = py;
+			if (pz < minZ) minZ = pz;
+			if (pz > maxZ) maxZ = pz;
+		}
+		float ex = maxX - minX, ey = maxY - minY, ez = maxZ - minZ;
+		int a = ex >= ey && ex >= ez ? 0 : ey >= ez ? 1 : 2;
+
+		int mid = (lo + hi) >>> 1;
+		select(a == 0 ? x : a == 1 ? y : z, lo, hi, mid);
+		axis[mid] = (byte) a;
+		return mid;
+	}
+
+	// Moves the k-th smallest value of c in [lo, hi) to position k, with smaller or equal values before it and larger or equal values after it
+	private void select(float[] c, int lo, int hi, int k) {
+		int r = hi - 1;
+		while (r > lo) {
+			int mid = (lo + r) >>> 1;
+			float a = c[lo], b = c[mid], d = c[r];
+			float pivot = a < b ? (b < d ? b : a < d ? d : a) : (a < d ? a : b < d ? d : b);
+
+			int i = lo, j = r;
+			while (i <= j) {
+				while (c[i] < pivot)
+					i++;
+				while (c[j] > pivot)
+					j--;
+				if (i <= j) swap(i++, j--);
+			}
+			if (k <= j) r = j;
+			else if (k >= i) lo = i;
+			else return;
+		}
+	}
+
+	private void swap(int i, int j) {
+		float t = x[i];
+		x[i] = x[j];
+		x[j] = t;
+		t = y[i];
+		y[i] = y[j];
+		y[j] = t;
+		t = z[i];
+		z[i] = z[j];
+		z[j] = t;
+		int id = ids[i];
+		ids[i] = ids[j];
+		ids[j] = id;
+	}
+
+	// Query methods
+
+	/**
+	 * Gets the number of points.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Finds the k points nearest to a position, sorted from nearest to furthest.
+	 * 
+	 * @param point
+	 *            the position to search from.
+	 * @param k
+	 *            the number of points to find.
+	 * @param dest
+	 *            the array where the indices of the points are stored. It must have room for k values.
+	 * @param destDistanceSqrd
+	 *            the array where the squared distances to the points are stored. It must have room for k values.
+	 * 
+	 * @return the number of points found, which is less than k only if the tree has fewer than k points.
+	 */
+	public int nearest(Vec3 point, int k, int[] dest, float[] destDistanceSqrd) {
+		if (k < 0 || dest.length < k || destDistanceSqrd.length < k) throw new IllegalArgumentException("Result arrays must have room for " + k + " points");
+		if (k == 0) return 0;
+
+		// The results are kept as a max-heap on distance while searching, so the furthest one is at index 0
+		int count = nearest(0, ids.length, point.x, point.y, point.z, k, dest, destDistanceSqrd, 0);
+
+		// Sorts the heap from nearest to furthest
+		for (int end = count - 1; end > 0; end--) {
+			int id = dest[0];
+			float d = destDistanceSqrd[0];
+			dest[0] = dest[end];
+			destDistanceSqrd[0] = destDistanceSqrd[end];
+			dest[end] = id;
+			destDistanceSqrd[end] = d;
+			siftDown(dest, destDistanceSqrd, end);
+		}
+		return count;
+	}
+
+	private int nearest(int lo, int hi, float qx, float qy, float qz, int k, int[] heap, float[] heapDistance, int count) {
+		while (hi - lo > MAX_LEAF_SIZE) {
+			int mid = (lo + hi) >>> 1;
+			count = offer(mid, qx, qy, qz, k, heap, heapDistance, count);
+
+			int a = axis[mid];
+			float diff = a == 0 ? qx - x[mid] : a == 1 ? qy - y[mid] : qz - z[mid];
+			if (diff < 0) {
+				count = nearest(lo, mid, qx, qy, qz, k, heap, heapDistance, count);
+				if (count == k && diff * diff >= heapDistance[0]) return count;
+				lo = mid + 1;
+			} else {
+				count = nearest(mid + 1, hi, qx, qy, qz, k, heap, heapDistance, count);
+				if (count == k && diff * diff >= heapDistance[0]) return count;
+				hi = mid;
+			}
+		}
+		for (int i = lo; i < hi; i++) {
+			count = offer(i, qx, qy, qz, k, heap, heapDistance, count);
+		}
+		return count;
+	}
+
+	private int offer(int i, float qx, float qy, float qz, int k, int[] heap, float[] heapDistance, int count) {
+		float dx = x[i] - qx, dy = y[i] - qy, dz = z[i] - qz;
+		float d = dx * dx + dy * dy + dz * dz;
+		if (count < k) {
+			// Sifts the new point up from the end of the heap
+			int c = count;
+			while (c > 0) {
+				int p = (c - 1) >>> 1;
+				if (heapDistance[p] >= d) break;
+				heap[c] = heap[p];
+				heapDistance[c] = heapDistance[p];
+				c = p;
+			}
+			heap[c] = ids[i];
+			heapDistance[c] = d;
+			return count + 1;
+		}
+		if (d < heapDistance[0]) {
+			heap[0] = ids[i];
+			heapDistance[0] = d;
+			siftDown(heap, heapDistance, count);
+		}
+		return count;
+	}
+
+	private static void siftDown(int[] heap, float[] heapDistance, int count) {
+		int id = heap[0];
+		float d = heapDistance[0];
+		int p = 0;
+		while (true) {
+			int c = 2 * p + 1;
+			if (c >= count) break;
+			if (c + 1 < count && heapDistance[c + 1] > heapDistance[c]) c++;
+			if (heapDistance[c] <= d) break;
+			heap[p] = heap[c];
+			heapDistance[p] = heapDistance[c];
+			p = c;
+		}
+		heap[p] = id;
+		heapDistance[p] = d;
+	}
+
+	/**
+	 * Finds the points within a radius of a center, inclusive.
+	 * 
+	 * @param center
+	 *            the center of the search.
+	 * @param radius
+	 *            the radius of the search.
+	 * @param dest
+	 *            the array where the indices of the points are stored. If there are more points than it has room for, the rest are counted but not stored.
+	 * 
+	 * @return the number of points found.
+	 */
+	public int query(Vec3 center, float radius, int[] dest) {
+		return query(0, ids.length, center.x, center.y, center.z, radius, radius * radius, dest, 0);
+	}
+
+	private int query(int lo, int hi, float qx, float qy, float qz, float radius, float r2, int[] dest, int found) {
+		while (hi - lo > MAX_LEAF_SIZE) {
+			int mid = (lo + hi) >>> 1;
+			found = accept(mid, qx, qy, qz, r2, dest, found);
+
+			int a = axis[mid];
+			float diff = a == 0 ? qx - x[mid] : a == 1 ? qy - y[mid] : qz - z[mid];
+			// Visits the side the center is on last, so it continues the loop
+			if (diff < 0) {
+				if (diff >= -radius) found = query(mid + 1, hi, qx, qy, qz, radius, r2, dest, found);
+				hi = mid;
+			} else {
+				if (diff <= radius) found = query(lo, mid, qx, qy, qz, radius, r2, dest, found);
+				lo = mid + 1;
+			}
+		}
+		for (int i = lo; i < hi; i++) {
+			found = accept(i, qx, qy, qz, r2, dest, found);
+		}
+		return found;
+	}
+
+	private int accept(int i, float qx, float qy, float qz, float r2, int[] dest, int found) {
+		float dx = x[i] - qx, dy = y[i] - qy, dz = z[i] - qz;
+		if (dx * dx + dy * dy + dz * dz > r2) return found;
+		if (found < dest.length) dest[found] = ids[i];
+		return found + 1;
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "KdTree(" + ids.length + ")";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,417 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import java.util.Arrays;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+
+/**
+ * A loose octree of axis-aligned bounding boxes that can be inserted, moved and removed one at a time, for broad-phase and visibility queries over dynamic objects.
+ *
+ * Every node covers a cube of the world, and its loose bounds are twice as wide. An object is stored in the deepest node whose cube contains the center of its box and whose loose bounds contain the whole box. Because the loose bounds overlap, an object that moves a little usually still fits its node, and move() then only updates its bounds. Objects outside the world cube or larger than it are kept in the root.
+ *
+ * Objects are identified by the handle returned by insert(). Nodes are allocated in blocks of eight siblings from a pool, and a block is returned to the pool when its parent's subtree becomes empty, so a tree that keeps a steady number of objects stops allocating. Queries write into arrays supplied by the caller and do not allocate.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class LooseOctree {
+	private final int maxDepth;
+
+	// Per node: the center and half width of its cube, its parent, its first child or -1, its first object or -1 and the number of objects in its subtree
+	private float[] nodeX, nodeY, nodeZ, nodeHalf;
+	private int[] nodeParent;
+	private int[] nodeChildren;
+	private int[] nodeFirst;
+	private int[] nodeCount;
+	private int nodeCapacity;
+	private int[] freeBlocks;
+	private int freeBlockCount;
+
+	// Per object: minX, minY, minZ, maxX, maxY, maxZ
+	private float[] bounds;
+	// Per object: its node or -1 if the handle is free, and the next and previous objects in its node
+	private int[] objectNode;
+	private int[] objectNext;
+	private int[] objectPrev;
+	private int objectCapacity;
+	private int freeHandle = -1;
+	private int size;
+
+	// Constructors
+
+	/**
+	 * Constructs an empty LooseOctree over a cube of the world.
+	 * 
+	 * @param center
+	 *            the center of the cube.
+	 * @param halfSize
+	 *            half the width of the cube.
+	 * @param maxDepth
+	 *            the largest number of levels below the root.
+	 */
+	public LooseOctree(Vec3 center, float halfSize, int maxDepth) {
+		if (!(halfSize > 0)) throw new IllegalArgumentException("Half size must be positive: " + halfSize);
+		if (maxDepth < 0) throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+		this.maxDepth = maxDepth;
+
+		growNodes(1 + 8 * 8);
+		nodeCapacity = 1;
+		nodeX[0] = center.x;
+		nodeY[0] = center.y;
+		nodeZ[0] = center.z;
+		nodeHalf[0] = halfSize;
+		nodeParent[0] = -1;
+		nodeChildren[0] = -1;
+		nodeFirst[0] = -1;
+
+		growObjects(64);
+	}
+
+	private void growNodes(int capacity) {
+		int old = nodeX == null ? 0 : nodeX.length;
+		if (capacity <= old) return;
+		capacity = Math.max(capacity, old * 2);
+		nodeX = old == 0 ? new float[capacity] : Arrays.copyOf(nodeX, capacity);
+		nodeY = old == 0 ? new float[capacity] : Arrays.copyOf(nodeY, capacity);
+		nodeZ = old == 0 ? new float[capacity] : Arrays.copyOf(nodeZ, capacity);
+		nodeHalf = old == 0 ? new float[capacity] : Arrays.copyOf(nodeHalf, capacity);
+		nodeParent = old == 0 ? new int[capacity] : Arrays.copyOf(nodeParent, capacity);
+		nodeChildren = old == 0 ? new int[capacity] : Arrays.copyOf(nodeChildren, capacity);
+		nodeFirst = old == 0 ? new int[capacity] : Arrays.copyOf(nodeFirst, capacity);
+		nodeCount = old == 0 ? new int[capacity] : Arrays.copyOf(nodeCount, capacity);
+		freeBlocks = old == 0 ? new int[capacity / 8 + 1] : Arrays.copyOf(freeBlocks, capacity / 8 + 1);
+	}
+
+	private void growObjects(int capacity) {
+		bounds = bounds == null ? new float[capacity * 6] : Arrays.copyOf(bounds, capacity * 6);
+		objectNode = objectNode == null ? new int[capacity] : Arrays.copyOf(objectNode, capacity);
+		objectNext = objectNext == null ? new int[capacity] : Arrays.copyOf(objectNext, capacity);
+		objectPrev = objectPrev == null ? new int[capacity] : Arrays.copyOf(objectPrev, capacity);
+	}
+
+	// Object methods
+
+	/**
+	 * Inserts an object.
+	 * 
+	 * @param min
+	 *            the minimum corner of the object's box.
+	 * @param max
+	 *            the maximum corner of the object's box.
+	 * 
+	 * @return the handle of the object.
+	 */
+	public int insert(Vec3 min, Vec3 max) {
+		int h = freeHandle;
+		if (h >= 0) {
+			freeHandle = objectNext[h];
+		} else {
+			if (objectCapacity == objectNode.length) growObjects(objectCapacity * 2);
+			h = objectCapacity++;
+		}
+		setBounds(h, min, max);
+		link(h);
+		size++;
+		return h;
+	}
+
+	/**
+	 * Moves an object to new bounds. If the new bounds still fit the object's node, only the bounds are updated.
+	 * 
+	 * @param handle
+	 *            the handle of the object.
+	 * @param min
+	 *            the new minimum corner of the object's box.
+	 * @param max
+	 *            the new maximum corner of the object's box.
+	 * 
+	 * @return this octree.
+	 */
+	public LooseOctree move(int handle, Vec3 min, Vec3 max) {
+		checkHandle(handle);
+		setBounds(handle, min, max);
+		if (!fits(objectNode[handle], handle)) {
+			unlink(handle);
+			link(handle);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes an object. Its handle may be returned by a later insert().
+	 * 
+	 * @param handle
+	 *            the handle of the object.
+	 * 
+	 * @return this octree.
+	 */
+	public LooseOctree remove(int handle) {
+		checkHandle(handle);
+		unlink(handle);
+		objectNode[handle] = -1;
+		objectNext[handle] = freeHandle;
+		freeHandle = handle;
+		size--;
+		return this;
+	}
+
+	/**
+	 * Gets the bounds of an object.
+	 * 
+	 * @param handle
+	 *            the handle of the object.
+	 * @param min
+	 *            the vector where the minimum corner is stored.
+	 * @param max
+	 *            the vector where the maximum corner is stored.
+	 * 
+	 * @return this octree.
+	 */
+	public LooseOctree getBounds(int handle, Vec3 min, Vec3 max) {
+		checkHandle(handle);
+		int b = handle * 6;
+		min.set(bounds[b], bounds[b + 1], bounds[b + 2]);
+		max.set(bounds[b + 3], bounds[b + 4], bounds[b + 5]);
+		return this;
+	}
+
+	/**
+	 * Gets the number of objects.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of nodes in use, including the root.
+	 * 
+	 * @return the result.
+	 */
+	public int nodeCount() {
+		return nodeCapacity - freeBlockCount * 8;
+	}
+
+	private void setBounds(int h, Vec3 min, Vec3 max) {
+		int b = h * 6;
+		bounds[b] = min.x;
+		bounds[b + 1] = min.y;
+		bounds[b + 2] = min.z;
+		bounds[b + 3] = max.x;
+		bounds[b + 4] = max.y;
+		bounds[b + 5] = max.z;
+	}
+
+	// Checks that object h can stay in its node: the root keeps the objects that do not fit the world cube, and any other node keeps the objects that lie in its loose bounds with their center in its cube
+	private boolean fits(int node, int h) {
+		if (node == 0) return !inside(0, h);
+		return inside(node, h);
+	}
+
+	private boolean inside(int node, int h) {
+		int b = h * 6;
+		float half = nodeHalf[node];
+		float ex = bounds[b + 3] - bounds[b], ey = bounds[b + 4] - bounds[b + 1], ez = bounds[b + 5] - bounds[b + 2];
+		if (Math.max(ex, Math.max(ey, ez)) * 0.5f > half) return false;
+		float dx = (bounds[b] + bounds[b + 3]) * 0.5f - nodeX[node];
+		float dy = (bounds[b + 1] + bounds[b + 4]) * 0.5f - nodeY[node];
+		float dz = (bounds[b + 2] + bounds[b + 5]) * 0.5f - nodeZ[node];
+		return Math.abs(dx) <= half && Math.abs(dy) <= half && Math.abs(dz) <= half;
+	}
+
+	private void link(int h) {
+		int b = h * 6;
+		float cx = (bounds[b] + bounds[b + 3]) * 0.5f, cy = (bounds[b + 1] + bounds[b + 4]) * 0.5f, cz = (bounds[b + 2] + bounds[b + 5]) * 0.5f;
+		float extent = Math.max(bounds[b + 3] - bounds[b], Math.max(bounds[b + 4] - bounds[b + 1], bounds[b + 5] - bounds[b + 2])) * 0.5f;
+
+		int node = 0;
+		nodeCount[0]++;
+		if (inside(0, h)) {
+			for (int depth = 0; depth < maxDepth && extent <= nodeHalf[node] * 0.5f; depth++) {
+				if (nodeChildren[node] < 0) split(node);
+				int octant = (cx >= nodeX[node] ? 1 : 0) | (cy >= nodeY[node] ? 2 : 0) | (cz >= nodeZ[node] ? 4 : 0);
+				node = nodeChildren[node] + octant;
+				nodeCount[node]++;
+			}
+		}
+
+		objectNode[h] = node;
+		objectPrev[h] = -1;
+		objectNext[h] = nodeFirst[node];
+		if (nodeFirst[node] >= 0) objectPrev[nodeFirst[node]] = h;
+		nodeFirst[node] = h;
+	}
+
+	private void unlink(int h) {
+		int node = objectNode[h];
+		int prev = objectPrev[h], next = objectNext[h];
+		if (prev >= 0) objectNext[prev] = next;
+		else nodeFirst[node] = next;
+		if (next >= 0) objectPrev[next] = prev;
+
+		// Returns the children of every node on the way up whose subtree is now empty
+		for (; node >= 0; node = nodeParent[node]) {
+			if (--nodeCount[node] == 0 && nodeChildren[node] >= 0) {
+				freeBlocks[freeBlockCount++] = nodeChildren[node];
+				nodeChildren[node] = -1;
+			}
+		}
+	}
+
+	private void split(int node) {
+		int first;
+		if (freeBlockCount > 0) {
+			first = freeBlocks[--freeBlockCount];
+		} else {
+			growNodes(nodeCapacity + 8);
+			first = nodeCapacity;
+			nodeCapacity += 8;
+		}
+		float half = nodeHalf[node] * 0.5f;
+		for (int i = 0; i < 8; i++) {
+			int c = first + i;
+			nodeX[c] = nodeX[node] + ((i & 1) != 0 ? half : -half);
+			nodeY[c] = nodeY[node] + ((i & 2) != 0 ? half : -half);
+			nodeZ[c] = nodeZ[node] + ((i & 4) != 0 ? half : -half);
+			nodeHalf[c] = half;
+			nodeParent[c] = node;
+			nodeChildren[c] = -1;
+			nodeFirst[c] = -1;
+			nodeCount[c] = 0;
+		}
+		nodeChildren[node] = first;
+	}
+
+	private void checkHandle(int handle) {
+		if (handle < 0 || handle >= objectCapacity || objectNode[handle] < 0) throw new IllegalArgumentException("No object with handle " + handle);
+	}
+
+	// Query methods
+
+	/**
+	 * Finds the objects whose boxes overlap a box, including boxes that only touch it.
+	 * 
+	 * @param min
+	 *            the minimum corner of the box.
+	 * @param max
+	 *            the maximum corner of the box.
+	 * @param dest
+	 *            the array where the handles of the objects are stored. If there are more objects than it has room for, the rest are counted but not stored.
+	 * 
+	 * @return the number of objects found.
+	 */
+	public int queryBox(Vec3 min, Vec3 max, int[] dest) {
+		return queryBox(0, min.x, min.y, min.z, max.x, max.y, max.z, dest, 0);
+	}
+
+	private int queryBox(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int[] dest, int found) {
+		if (nodeCount[node] == 0) return found;
+		if (node != 0) {
+			float loose = nodeHalf[node] * 2f;
+			if (nodeX[node] - loose > maxX || nodeX[node] + loose < minX) return found;
+			if (nodeY[node] - loose > maxY || nodeY[node] + loose < minY) return found;
+			if (nodeZ[node] - loose > maxZ || nodeZ[node] + loose < minZ) return found;
+		}
+		for (int h = nodeFirst[node]; h >= 0; h = objectNext[h]) {
+			int b = h * 6;
+			if (bounds[b] > maxX || bounds[b + 3] < minX) continue;
+			if (bounds[b + 1] > maxY || bounds[b + 4] < minY) continue;
+			if (bounds[b + 2] > maxZ || bounds[b + 5] < minZ) continue;
+			if (found < dest.length) dest[found] = h;
+			found++;
+		}
+		int c = nodeChildren[node];
+		if (c >= 0) {
+			for (int i = 0; i < 8; i++) {
+				found = queryBox(c + i, minX, minY, minZ, maxX, maxY, maxZ, dest, found);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Finds the objects whose boxes intersect a sphere.
+	 * 
+	 * @param center
+	 *            the center of the sphere.
+	 * @param radius
+	 *            the radius of the sphere.
+	 * @param dest
+	 *            the array where the handles of the objects are stored. If there are more objects than it has room for, the rest are counted but not stored.
+	 * 
+	 * @return the number of objects found.
+	 */
+	public int querySphere(Vec3 center, float radius, int[] dest) {
+		return querySphere(0, center.x, center.y, center.z, radius * radius, dest, 0);
+	}
+
+	private int querySphere(int node, float cx, float cy, float cz, float r2, int[] dest, int found) {
+		if (nodeCount[node] == 0) return found;
+		if (node != 0) {
+			float loose = nodeHalf[node] * 2f;
+			float dx = Math.max(Math.abs(cx - nodeX[node]) - loose, 0f);
+			float dy = Math.max(Math.abs(cy - nodeY[node]) - loose, 0f);
+			float dz = Math.max(Math.abs(cz - nodeZ[node]) - loose, 0f);
+			if (dx * dx + dy * dy + dz * dz > r2) return found;
+		}
+		for (int h = nodeFirst[node]; h >= 0; h = objectNext[h]) {
+			int b = h * 6;
+			float dx = Math.max(Math.max(bounds[b] - cx, cx - bounds[b + 3]), 0f);
+			float dy = Math.max(Math.max(bounds[b + 1] - cy, cy - bounds[b + 4]), 0f);
+			float dz = Math.max(Math.max(bounds[b + 2] - cz, cz - bounds[b + 5]), 0f);
+			if (dx * dx + dy * dy + dz * dz > r2) continue;
+			if (found < dest.length) dest[found] = h;
+			found++;
+		}
+		int c = nodeChildren[node];
+		if (c >= 0) {
+			for (int i = 0; i < 8; i++) {
+				found = querySphere(c + i, cx, cy, cz, r2, dest, found);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Finds the objects whose boxes intersect a frustum. As with Frustum.testAabb(), boxes near a corner of the frustum may be reported when they are outside it.
+	 * 
+	 * @param frustum
+	 *            the frustum.
+	 * @param dest
+	 *            the array where the handles of the objects are stored. If there are more objects than it has room for, the rest are counted but not stored.
+	 * 
+	 * @return the number of objects found.
+	 */
+	public int queryFrustum(Frustum frustum, int[] dest) {
+		return queryFrustum(0, frustum, dest, 0);
+	}
+
+	private int queryFrustum(int node, Frustum frustum, int[] dest, int found) {
+		if (nodeCount[node] == 0) return found;
+		if (node != 0) {
+			float loose = nodeHalf[node] * 2f;
+			float x = nodeX[node], y = nodeY[node], z = nodeZ[node];
+			if (!frustum.testAabb(x - loose, y - loose, z - loose, x + loose, y + loose, z + loose)) return found;
+		}
+		for (int h = nodeFirst[node]; h >= 0; h = objectNext[h]) {
+			int b = h * 6;
+			if (!frustum.testAabb(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5])) continue;
+			if (found < dest.length) dest[found] = h;
+			found++;
+		}
+		int c = nodeChildren[node];
+		if (c >= 0) {
+			for (int i = 0; i < 8; i++) {
+				found = queryFrustum(c + i, frustum, dest, found);
+			}
+		}
+		return found;
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "LooseOctree(" + size + " objects, " + nodeCount() + " nodes)";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+
+/**
+ * The result of a ray query: the distance along the ray, the index of the triangle that was hit and the barycentric coordinates of the hit on that triangle.
+ *
+ * A RayHit also holds the traversal stack used by the query, so reusing one RayHit for many queries does not allocate.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class RayHit {
+	public float distance;
+	public int triangle;
+	public float u;
+	public float v;
+
+	int[] stack = new int[64];
+	float[] stackDistance = new float[64];
+
+	/**
+	 * Constructs a RayHit with no hit.
+	 */
+	public RayHit() {
+		clear();
+	}
+
+	/**
+	 * Resets this hit to no hit: a triangle index of -1 and an infinite distance.
+	 * 
+	 * @return this hit.
+	 */
+	public RayHit clear() {
+		distance = Float.POSITIVE_INFINITY;
+		triangle = -1;
+		u = 0;
+		v = 0;
+		return this;
+	}
+
+	/**
+	 * Checks if a triangle was hit.
+	 * 
+	 * @return the result.
+	 */
+	public boolean isHit() {
+		return triangle >= 0;
+	}
+
+	/**
+	 * Gets the point that was hit on the ray with the given origin and direction.
+	 * 
+	 * @param origin
+	 *            the origin of the ray.
+	 * @param dir
+	 *            the direction of the ray.
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 getPoint(Vec3 origin, Vec3 dir, Vec3 dest) {
+		return dest.set(origin.x + dir.x * distance, origin.y + dir.y * distance, origin.z + dir.z * distance);
+	}
+
+	void ensureStack(int size) {
+		if (stack.length < size) {
+			stack = new int[size];
+			stackDistance = new float[size];
+		}
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "RayHit(" + triangle + ", " + distance + ", " + u + ", " + v + ")";
+	}
+}
\ No newline at end of file
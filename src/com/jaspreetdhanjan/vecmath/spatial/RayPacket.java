@@ -0,0 +1,134 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+
+/**
+ * A small group of rays that are tested together, held as structure-of-arrays. Packets of 4 or 8 rays match the SIMD width of most processors.
+ *
+ * Each ray carries its own result. The distance of a ray starts at its maximum distance and is narrowed as nearer hits are found, so a packet can be tested against several sets of triangles in turn. The triangle of a ray is -1 while nothing has been hit.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class RayPacket {
+	public final float[] originX, originY, originZ;
+	public final float[] dirX, dirY, dirZ;
+	public final float[] distance;
+	public final float[] u, v;
+	public final int[] triangle;
+
+	/**
+	 * Constructs a packet of the given number of rays, with every ray at the origin and no direction.
+	 * 
+	 * @param size
+	 *            the number of rays.
+	 */
+	public RayPacket(int size) {
+		originX = new float[size];
+		originY = new float[size];
+		originZ = new float[size];
+		dirX = new float[size];
+		dirY = new float[size];
+		dirZ = new float[size];
+		distance = new float[size];
+		u = new float[size];
+		v = new float[size];
+		triangle = new int[size];
+		for (int i = 0; i < size; i++) {
+			clear(i, Float.POSITIVE_INFINITY);
+		}
+	}
+
+	/**
+	 * Gets the number of rays in this packet.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return triangle.length;
+	}
+
+	/**
+	 * Sets ray i and resets its result to no hit.
+	 * 
+	 * @param i
+	 *            the index of the ray.
+	 * @param origin
+	 *            the origin of the ray.
+	 * @param dir
+	 *            the direction of the ray. It does not need to be normalised; distances are measured in multiples of it.
+	 * @param maxDistance
+	 *            the largest distance to accept a hit at.
+	 * 
+	 * @return this packet.
+	 */
+	public RayPacket set(int i, Vec3 origin, Vec3 dir, float maxDistance) {
+		originX[i] = origin.x;
+		originY[i] = origin.y;
+		originZ[i] = origin.z;
+		dirX[i] = dir.x;
+		dirY[i] = dir.y;
+		dirZ[i] = dir.z;
+		return clear(i, maxDistance);
+	}
+
+	/**
+	 * Resets the result of ray i to no hit, keeping its origin and direction.
+	 * 
+	 * @param i
+	 *            the index of the ray.
+	 * @param maxDistance
+	 *            the largest distance to accept a hit at.
+	 * 
+	 * @return this packet.
+	 */
+	public RayPacket clear(int i, float maxDistance) {
+		distance[i] = maxDistance;
+		triangle[i] = -1;
+		u[i] = 0;
+		v[i] = 0;
+		return this;
+	}
+
+	/**
+	 * Checks if ray i hit a triangle.
+	 * 
+	 * @param i
+	 *            the index of the ray.
+	 * 
+	 * @return the result.
+	 */
+	public boolean isHit(int i) {
+		return triangle[i] >= 0;
+	}
+
+	/**
+	 * Copies the result of ray i into hit dest. A ray with no hit clears dest.
+	 * 
+	 * @param i
+	 *            the index of the ray.
+	 * @param dest
+	 *            the hit to store the result into.
+	 * 
+	 * @return dest.
+	 */
+	public RayHit getHit(int i, RayHit dest) {
+		if (triangle[i] < 0) return dest.clear();
+		dest.distance = distance[i];
+		dest.triangle = triangle[i];
+		dest.u = u[i];
+		dest.v = v[i];
+		return dest;
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		StringBuilder b = new StringBuilder("RayPacket(");
+		for (int i = 0; i < triangle.length; i++) {
+			if (i > 0) b.append(", ");
+			b.append("(").append(triangle[i]).append(", ").append(distance[i]).append(", ").append(u[i]).append(", ").append(v[i]).append(")");
+		}
+		return b.append(")").toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,231 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * A set of triangles that rays are tested against directly, with the Moller-Trumbore algorithm.
+ *
+ * The triangles are stored as structure-of-arrays: the first vertex and the two edges from it, so that no edge is recomputed per ray. The intersection loops do not allocate and evaluate every rejection test without short-circuiting, so each triangle costs a fixed sequence of arithmetic and a single branch. A RayPacket of 4 or 8 rays is tested against each triangle while its data is in registers, which amortises the loads across the rays.
+ *
+ * The input arrays are only read while constructing, so later changes to them are not seen. Queries do not modify the triangles and can run from many threads at once. For large meshes, Bvh uses this kernel at its leaves.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class RayTriangle {
+	private static final float EPSILON = 1e-12f;
+
+	// The first vertex and the two edges from it
+	final float[] ax, ay, az;
+	final float[] e1x, e1y, e1z;
+	final float[] e2x, e2y, e2z;
+
+	/**
+	 * Constructs the triangles given by the vertices at the same index of each array.
+	 * 
+	 * @param v0
+	 *            the first vertex of every triangle.
+	 * @param v1
+	 *            the second vertex of every triangle.
+	 * @param v2
+	 *            the third vertex of every triangle.
+	 */
+	public RayTriangle(Vec3Array v0, Vec3Array v1, Vec3Array v2) {
+		this(v0, v1, v2, null);
+	}
+
+	/**
+	 * Constructs the triangles in the given order, so that triangle i is triangle order[i] of the arrays.
+	 */
+	RayTriangle(Vec3Array v0, Vec3Array v1, Vec3Array v2, int[] order) {
+		int n = v0.length();
+		if (v1.length() != n || v2.length() != n) throw new IllegalArgumentException("Vertex arrays must have the same length");
+
+		ax = new float[n];
+		ay = new float[n];
+		az = new float[n];
+		e1x = new float[n];
+		e1y = new float[n];
+		e1z = new float[n];
+		e2x = new float[n];
+		e2y = new float[n];
+		e2z = new float[n];
+		for (int i = 0; i < n; i++) {
+			int t = order == null ? i : order[i];
+			ax[i] = v0.x[t];
+			ay[i] = v0.y[t];
+			az[i] = v0.z[t];
+			e1x[i] = v1.x[t] - ax[i];
+			e1y[i] = v1.y[t] - ay[i];
+			e1z[i] = v1.z[t] - az[i];
+			e2x[i] = v2.x[t] - ax[i];
+			e2y[i] = v2.y[t] - ay[i];
+			e2z[i] = v2.z[t] - az[i];
+		}
+	}
+
+	/**
+	 * Gets the number of triangles.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return ax.length;
+	}
+
+	/**
+	 * Finds the nearest triangle that a ray hits.
+	 * 
+	 * @param origin
+	 *            the origin of the ray.
+	 * @param dir
+	 *            the direction of the ray. It does not need to be normalised; distances are measured in multiples of it.
+	 * @param maxDistance
+	 *            the largest distance to accept a hit at.
+	 * @param hit
+	 *            where the hit is stored. It is cleared if nothing is hit.
+	 * 
+	 * @return true if a triangle was hit.
+	 */
+	public boolean raycast(Vec3 origin, Vec3 dir, float maxDistance, RayHit hit) {
+		return raycast(origin, dir, maxDistance, hit, 0, ax.length);
+	}
+
+	/**
+	 * Finds the nearest triangle in the range that a ray hits.
+	 * 
+	 * @param origin
+	 *            the origin of the ray.
+	 * @param dir
+	 *            the direction of the ray. It does not need to be normalised; distances are measured in multiples of it.
+	 * @param maxDistance
+	 *            the largest distance to accept a hit at.
+	 * @param hit
+	 *            where the hit is stored. It is cleared if nothing is hit.
+	 * @param from
+	 *            the first triangle, inclusive.
+	 * @param to
+	 *            the last triangle, exclusive.
+	 * 
+	 * @return true if a triangle was hit.
+	 */
+	public boolean raycast(Vec3 origin, Vec3 dir, float maxDistance, RayHit hit, int from, int to) {
+		checkRange(from, to);
+		hit.clear();
+		hit.triangle = nearest(from, to, origin.x, origin.y, origin.z, dir.x, dir.y, dir.z, maxDistance, hit);
+		return hit.triangle >= 0;
+	}
+
+	/**
+	 * Finds the nearest triangle that each ray of the packet hits, nearer than the current distance of the ray.
+	 * 
+	 * @param packet
+	 *            the rays, where the results are also stored.
+	 * 
+	 * @return the number of rays in the packet that have a hit.
+	 */
+	public int raycast(RayPacket packet) {
+		return raycast(packet, 0, ax.length);
+	}
+
+	/**
+	 * Finds the nearest triangle in the range that each ray of the packet hits, nearer than the current distance of the ray.
+	 * 
+	 * @param packet
+	 *            the rays, where the results are also stored.
+	 * @param from
+	 *            the first triangle, inclusive.
+	 * @param to
+	 *            the last triangle, exclusive.
+	 * 
+	 * @return the number of rays in the packet that have a hit.
+	 */
+	public int raycast(RayPacket packet, int from, int to) {
+		checkRange(from, to);
+		float[] ox = packet.originX, oy = packet.originY, oz = packet.originZ;
+		float[] dx = packet.dirX, dy = packet.dirY, dz = packet.dirZ;
+		float[] distance = packet.distance, hitU = packet.u, hitV = packet.v;
+		int[] triangle = packet.triangle;
+		int n = triangle.length;
+
+		for (int i = from; i < to; i++) {
+			float x0 = ax[i], y0 = ay[i], z0 = az[i];
+			float x1 = e1x[i], y1 = e1y[i], z1 = e1z[i];
+			float x2 = e2x[i], y2 = e2y[i], z2 = e2z[i];
+			for (int r = 0; r < n; r++) {
+				float px = dy[r] * z2 - dz[r] * y2;
+				float py = dz[r] * x2 - dx[r] * z2;
+				float pz = dx[r] * y2 - dy[r] * x2;
+				float det = x1 * px + y1 * py + z1 * pz;
+				float inv = 1f / det;
+				float tx = ox[r] - x0, ty = oy[r] - y0, tz = oz[r] - z0;
+				float u = (tx * px + ty * py + tz * pz) * inv;
+				float qx = ty * z1 - tz * y1;
+				float qy = tz * x1 - tx * z1;
+				float qz = tx * y1 - ty * x1;
+				float v = (dx[r] * qx + dy[r] * qy + dz[r] * qz) * inv;
+				float t = (x2 * qx + y2 * qy + z2 * qz) * inv;
+				if ((det <= -EPSILON | det >= EPSILON) & u >= 0f & v >= 0f & u + v <= 1f & t > 0f & t < distance[r]) {
+					distance[r] = t;
+					triangle[r] = i;
+					hitU[r] = u;
+					hitV[r] = v;
+				}
+			}
+		}
+
+		int hits = 0;
+		for (int r = 0; r < n; r++) {
+			if (triangle[r] >= 0) hits++;
+		}
+		return hits;
+	}
+
+	/**
+	 * Finds the nearest triangle in the range that a ray hits nearer than tMax. If there is one, its distance and barycentric coordinates are stored in hit and its index is returned; otherwise hit is not changed and -1 is returned.
+	 */
+	int nearest(int from, int to, float ox, float oy, float oz, float dx, float dy, float dz, float tMax, RayHit hit) {
+		int found = -1;
+		float foundU = 0, foundV = 0;
+		for (int i = from; i < to; i++) {
+			float px = dy * e2z[i] - dz * e2y[i];
+			float py = dz * e2x[i] - dx * e2z[i];
+			float pz = dx * e2y[i] - dy * e2x[i];
+			float det = e1x[i] * px + e1y[i] * py + e1z[i] * pz;
+			float inv = 1f / det;
+			float tx = ox - ax[i], ty = oy - ay[i], tz = oz - az[i];
+			float u = (tx * px + ty * py + tz * pz) * inv;
+			float qx = ty * e1z[i] - tz * e1y[i];
+			float qy = tz * e1x[i] - tx * e1z[i];
+			float qz = tx * e1y[i] - ty * e1x[i];
+			float v = (dx * qx + dy * qy + dz * qz) * inv;
+			float t = (e2x[i] * qx + e2y[i] * qy + e2z[i] * qz) * inv;
+			// The tests use the non-short-circuit operators so that they compile to one branch per triangle
+			if ((det <= -EPSILON | det >= EPSILON) & u >= 0f & v >= 0f & u + v <= 1f & t > 0f & t < tMax) {
+				tMax = t;
+				found = i;
+				foundU = u;
+				foundV = v;
+			}
+		}
+		if (found >= 0) {
+			hit.distance = tMax;
+			hit.u = foundU;
+			hit.v = foundV;
+		}
+		return found;
+	}
+
+	private void checkRange(int from, int to) {
+		if (from < 0 || to > ax.length || from > to) {
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + ax.length);
+		}
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "RayTriangle(" + ax.length + " triangles)";
+	}
+}
\ No newline at end of file
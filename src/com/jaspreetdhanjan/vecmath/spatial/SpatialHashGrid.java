@@ -0,0 +1,216 @@
+package com.jaspreetdhanjan.vecmath.spatial;
+
+import java.util.Arrays;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * A uniform grid over points, stored in a hash table of cells, for finding the points within a radius of a point or of each other.
+ *
+ * build() sorts the points by the hash of their cell with a counting sort and copies their positions into that order, so the points of one cell are next to each other in memory. It does not allocate unless there are more points than in any earlier build, so it can be called every tick for moving points. Different cells can share a hash bucket, so the queries check the cell of every point they visit and only accept points in the cell being searched. This means each point is reported once even when buckets collide.
+ *
+ * The best cell size is about the query radius.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class SpatialHashGrid {
+	/**
+	 * Receives the pairs found by forEachPair().
+	 */
+	public interface PairVisitor {
+		/**
+		 * Called once for every pair of points within the radius.
+		 * 
+		 * @param a
+		 *            the index of the first point.
+		 * @param b
+		 *            the index of the second point.
+		 * @param distanceSqrd
+		 *            the squared distance between the points.
+		 */
+		public void visit(int a, int b, float distanceSqrd);
+	}
+
+	private final float cellSize;
+	private final float invCellSize;
+
+	private int size;
+	private int mask;
+	private int[] bucketStart = new int[1];
+	private int[] bucketOf = new int[0];
+	private int[] ids = new int[0];
+	private float[] x = new float[0];
+	private float[] y = new float[0];
+	private float[] z = new float[0];
+
+	// Constructors
+
+	/**
+	 * Constructs an empty SpatialHashGrid with the given cell size.
+	 * 
+	 * @param cellSize
+	 *            the width of each cubic cell.
+	 */
+	public SpatialHashGrid(float cellSize) {
+		if (!(cellSize > 0)) throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+		this.cellSize = cellSize;
+		this.invCellSize = 1f / cellSize;
+	}
+
+	// Build methods
+
+	/**
+	 * Replaces the contents of the grid with every point of the array. Point indices in query results are indices into this array.
+	 * 
+	 * @param points
+	 *            the points.
+	 * 
+	 * @return this grid.
+	 */
+	public SpatialHashGrid build(Vec3Array points) {
+		int n = points.length();
+		if (ids.length < n) {
+			ids = new int[n];
+			bucketOf = new int[n];
+			x = new float[n];
+			y = new float[n];
+			z = new float[n];
+		}
+		// Around two buckets per point keeps collisions rare
+		int buckets = Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1;
+		if (bucketStart.length < buckets + 1) bucketStart = new int[buckets + 1];
+		size = n;
+		mask = buckets - 1;
+
+		float[] px = points.x, py = points.y, pz = points.z;
+		int[] start = bucketStart;
+		Arrays.fill(start, 0, buckets + 1, 0);
+		for (int i = 0; i < n; i++) {
+			int b = bucket(cell(px[i]), cell(py[i]), cell(pz[i]));
+			bucketOf[i] = b;
+			start[b + 1]++;
+		}
+		for (int b = 0; b < buckets; b++) {
+			start[b + 1] += start[b];
+		}
+
+		// Scatter using start[b] as the next free slot, then shift back so start[b] is the first slot again
+		for (int i = 0; i < n; i++) {
+			int s = start[bucketOf[i]]++;
+			ids[s] = i;
+			x[s] = px[i];
+			y[s] = py[i];
+			z[s] = pz[i];
+		}
+		for (int b = buckets; b > 0; b--) {
+			start[b] = start[b - 1];
+		}
+		start[0] = 0;
+		return this;
+	}
+
+	// Query methods
+
+	/**
+	 * Gets the number of points.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the width of each cell.
+	 * 
+	 * @return the result.
+	 */
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Finds the points within a radius of a center, inclusive.
+	 * 
+	 * @param center
+	 *            the center of the search.
+	 * @param radius
+	 *            the radius of the search.
+	 * @param dest
+	 *            the array where the indices of the points are stored. If there are more points than it has room for, the rest are counted but not stored.
+	 * 
+	 * @return the number of points found.
+	 */
+	public int query(Vec3 center, float radius, int[] dest) {
+		float cx = center.x, cy = center.y, cz = center.z;
+		float r2 = radius * radius;
+		int x0 = cell(cx - radius), x1 = cell(cx + radius);
+		int y0 = cell(cy - radius), y1 = cell(cy + radius);
+		int z0 = cell(cz - radius), z1 = cell(cz + radius);
+		int found = 0;
+		for (int gx = x0; gx <= x1; gx++) {
+			for (int gy = y0; gy <= y1; gy++) {
+				for (int gz = z0; gz <= z1; gz++) {
+					int b = bucket(gx, gy, gz);
+					for (int s = bucketStart[b], end = bucketStart[b + 1]; s < end; s++) {
+						float dx = x[s] - cx, dy = y[s] - cy, dz = z[s] - cz;
+						if (dx * dx + dy * dy + dz * dz > r2) continue;
+						if (cell(x[s]) != gx || cell(y[s]) != gy || cell(z[s]) != gz) continue;
+						if (found < dest.length) dest[found] = ids[s];
+						found++;
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Calls the visitor once for every pair of different points within a radius of each other, inclusive.
+	 * 
+	 * @param radius
+	 *            the largest distance between the points of a pair.
+	 * @param visitor
+	 *            the visitor to call.
+	 */
+	public void forEachPair(float radius, PairVisitor visitor) {
+		float r2 = radius * radius;
+		int reach = (int) Math.ceil(radius * invCellSize);
+		for (int i = 0; i < size; i++) {
+			float ix = x[i], iy = y[i], iz = z[i];
+			int cx = cell(ix), cy = cell(iy), cz = cell(iz);
+			for (int gx = cx - reach; gx <= cx + reach; gx++) {
+				for (int gy = cy - reach; gy <= cy + reach; gy++) {
+					for (int gz = cz - reach; gz <= cz + reach; gz++) {
+						int b = bucket(gx, gy, gz);
+						// Only pairs where the other point comes later in sorted order, so every pair is visited once
+						for (int s = Math.max(bucketStart[b], i + 1), end = bucketStart[b + 1]; s < end; s++) {
+							float dx = x[s] - ix, dy = y[s] - iy, dz = z[s] - iz;
+							float d2 = dx * dx + dy * dy + dz * dz;
+							if (d2 > r2) continue;
+							if (cell(x[s]) != gx || cell(y[s]) != gy || cell(z[s]) != gz) continue;
+							visitor.visit(ids[i], ids[s], d2);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private int cell(float v) {
+		return (int) Math.floor(v * invCellSize);
+	}
+
+	private int bucket(int cx, int cy, int cz) {
+		int h = cx * 73856093 ^ cy * 19349663 ^ cz * 83492791;
+		return (h ^ h >>> 16) & mask;
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "SpatialHashGrid(" + size + " points, cell size " + cellSize + ")";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,426 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Quat;
+import com.jaspreetdhanjan.vecmath.Vec2;
+import com.jaspreetdhanjan.vecmath.Vec3;
+
+/**
+ * The std140 or std430 memory layout of a GLSL uniform or shader storage block.
+ *
+ * Fields are declared in the same order as the block in the shader. Their offsets are computed as they are declared, so the offsets can be looked up once and then used with
+ * the put() methods to write any number of block instances into a ByteBuffer, one instance every size() bytes. Matrices are written in the same order as Mat4.putInto(), which
+ * OpenGL reads as column-major.
+ *
+ * @author Jaspreet Dhanjan
+ */
+
+public class BlockLayout {
+	private final boolean std140;
+	private final Map<String, int[]> fields = new HashMap<String, int[]>();
+	private int cursor;
+	private int alignment;
+
+	/**
+	 * Creates an empty std140 layout, used by uniform blocks.
+	 * 
+	 * @return the result.
+	 */
+	public static BlockLayout std140() {
+		return new BlockLayout(true);
+	}
+
+	/**
+	 * Creates an empty std430 layout, used by shader storage blocks.
+	 * 
+	 * @return the result.
+	 */
+	public static BlockLayout std430() {
+		return new BlockLayout(false);
+	}
+
+	private BlockLayout(boolean std140) {
+		this.std140 = std140;
+		this.alignment = std140 ? 16 : 4;
+	}
+
+	// Declaration methods
+
+	/**
+	 * Declares a float field.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout scalar(String name) {
+		return add(name, 4, 4, 0);
+	}
+
+	/**
+	 * Declares a float array field.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout scalarArray(String name, int length) {
+		return addArray(name, 4, 4, length);
+	}
+
+	/**
+	 * Declares a vec2 field.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout vec2(String name) {
+		return add(name, 8, 8, 0);
+	}
+
+	/**
+	 * Declares a vec2 array field.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout vec2Array(String name, int length) {
+		return addArray(name, 8, 8, length);
+	}
+
+	/**
+	 * Declares a vec3 field. It is aligned to 16 bytes, but a following float may be packed into its last 4 bytes.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout vec3(String name) {
+		return add(name, 16, 12, 0);
+	}
+
+	/**
+	 * Declares a vec3 array field. Every element is padded to 16 bytes.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout vec3Array(String name, int length) {
+		return addArray(name, 16, 12, length);
+	}
+
+	/**
+	 * Declares a vec4 field, written from a Quat.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout vec4(String name) {
+		return add(name, 16, 16, 0);
+	}
+
+	/**
+	 * Declares a vec4 array field, written from Quats.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout vec4Array(String name, int length) {
+		return addArray(name, 16, 16, length);
+	}
+
+	/**
+	 * Declares a mat4 field.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout mat4(String name) {
+		return add(name, 16, 64, 0);
+	}
+
+	/**
+	 * Declares a mat4 array field.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * @param length
+	 *            the number of elements.
+	 * 
+	 * @return this layout.
+	 */
+	public BlockLayout mat4Array(String name, int length) {
+		return addArray(name, 16, 64, length);
+	}
+
+	private BlockLayout addArray(String name, int align, int size, int length) {
+		if (length <= 0) throw new IllegalArgumentException("Array length must be positive: " + length);
+
+		// std140 rounds the alignment of array elements up to that of a vec4, std430 does not
+		if (std140) align = roundUp(align, 16);
+		int stride = roundUp(size, align);
+		return add(name, align, stride * length, stride);
+	}
+
+	private BlockLayout add(String name, int align, int size, int stride) {
+		if (fields.containsKey(name)) throw new IllegalArgumentException("Field " + name + " is already declared");
+
+		int offset = roundUp(cursor, align);
+		fields.put(name, new int[] { offset, stride });
+		cursor = offset + size;
+		alignment = Math.max(alignment, align);
+		return this;
+	}
+
+	// Query methods
+
+	/**
+	 * Gets the byte offset of a field from the start of the block.
+	 * 
+	 * @param name
+	 *            the name of the field.
+	 * 
+	 * @return the result.
+	 */
+	public int offset(String name) {
+		return field(name)[0];
+	}
+
+	/**
+	 * Gets the number of bytes between consecutive elements of an array field.
+	 * 
+	 * @param name
+	 *            the name of the array field.
+	 * 
+	 * @return the result.
+	 */
+	public int arrayStride(String name) {
+		int stride = field(name)[1];
+		if (stride == 0) throw new IllegalArgumentException("Field " + name + " is not an array");
+		return stride;
+	}
+
+	/**
+	 * Gets the size of the block in bytes, rounded up to the alignment of its largest field. This is the distance between consecutive instances of the block in a buffer.
+	 * 
+	 * @return the result.
+	 */
+	public int size() {
+		return roundUp(cursor, alignment);
+	}
+
+	/**
+	 * Checks if this is a std140 layout.
+	 * 
+	 * @return the result.
+	 */
+	public boolean isStd140() {
+		return std140;
+	}
+
+	private int[] field(String name) {
+		int[] field = fields.get(name);
+		if (field == null) throw new IllegalArgumentException("No field named " + name);
+		return field;
+	}
+
+	private static int roundUp(int value, int align) {
+		return (value + align - 1) / align * align;
+	}
+
+	// Write methods
+
+	/**
+	 * Writes a float at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param r
+	 *            the value to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, float r) {
+		dest.putFloat(offset, r);
+	}
+
+	/**
+	 * Writes a vector at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param r
+	 *            the vector to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, Vec2 r) {
+		dest.putFloat(offset, r.x).putFloat(offset + 4, r.y);
+	}
+
+	/**
+	 * Writes a vector at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param r
+	 *            the vector to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, Vec3 r) {
+		dest.putFloat(offset, r.x).putFloat(offset + 4, r.y).putFloat(offset + 8, r.z);
+	}
+
+	/**
+	 * Writes a quaternion as a vec4 at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param r
+	 *            the quaternion to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, Quat r) {
+		dest.putFloat(offset, r.x).putFloat(offset + 4, r.y).putFloat(offset + 8, r.z).putFloat(offset + 12, r.w);
+	}
+
+	/**
+	 * Writes a matrix at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param m
+	 *            the matrix to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, Mat4 m) {
+		int p = offset;
+		dest.putFloat(p, m.m11).putFloat(p + 4, m.m12).putFloat(p + 8, m.m13).putFloat(p + 12, m.m14);
+		dest.putFloat(p + 16, m.m21).putFloat(p + 20, m.m22).putFloat(p + 24, m.m23).putFloat(p + 28, m.m24);
+		dest.putFloat(p + 32, m.m31).putFloat(p + 36, m.m32).putFloat(p + 40, m.m33).putFloat(p + 44, m.m34);
+		dest.putFloat(p + 48, m.m41).putFloat(p + 52, m.m42).putFloat(p + 56, m.m43).putFloat(p + 60, m.m44);
+	}
+
+	/**
+	 * Writes the values of an array field starting at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param stride
+	 *            the array stride, from arrayStride(name).
+	 * @param src
+	 *            the values to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, int stride, float[] src) {
+		for (int i = 0; i < src.length; i++, offset += stride) {
+			put(dest, offset, src[i]);
+		}
+	}
+
+	/**
+	 * Writes the vectors of an array field starting at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param stride
+	 *            the array stride, from arrayStride(name).
+	 * @param src
+	 *            the vectors to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, int stride, Vec2[] src) {
+		for (int i = 0; i < src.length; i++, offset += stride) {
+			put(dest, offset, src[i]);
+		}
+	}
+
+	/**
+	 * Writes the vectors of an array field starting at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param stride
+	 *            the array stride, from arrayStride(name).
+	 * @param src
+	 *            the vectors to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, int stride, Vec3[] src) {
+		for (int i = 0; i < src.length; i++, offset += stride) {
+			put(dest, offset, src[i]);
+		}
+	}
+
+	/**
+	 * Writes the quaternions of a vec4 array field starting at the given byte index of the buffer.
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param stride
+	 *            the array stride, from arrayStride(name).
+	 * @param src
+	 *            the quaternions to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, int stride, Quat[] src) {
+		for (int i = 0; i < src.length; i++, offset += stride) {
+			put(dest, offset, src[i]);
+		}
+	}
+
+	/**
+	 * Writes the matrices of an array field starting at the given byte index of the buffer. Matrix arrays are always tightly packed, so this writes the same bytes as
+	 * BufferUtil.put(Mat4[], ByteBuffer, int, boolean).
+	 * 
+	 * @param dest
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the byte index, usually the start of the block instance plus offset(name).
+	 * @param src
+	 *            the matrices to write.
+	 */
+	public static void put(ByteBuffer dest, int offset, Mat4[] src) {
+		BufferUtil.put(src, dest, offset, false);
+	}
+
+	// java.lang.Object overrides
+
+	public String toString() {
+		return "BlockLayout(" + (std140 ? "std140" : "std430") + ", " + size() + " bytes)";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec2;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+public class BufferUtil {
+	/**
+	 * Writes every matrix of the array back-to-back into the given FloatBuffer, starting at the given index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the matrices to write.
+	 * @param dest
+	 *            the buffer where the matrices will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 * @param transpose
+	 *            true to write each matrix in column-major order, as if transpose() had been called first.
+	 * 
+	 * @return the index after the last float written.
+	 */
+	public static int put(Mat4[] src, FloatBuffer dest, int offset, boolean transpose) {
+		checkOffset(dest.limit(), offset, src.length * 16);
+		int n = offset;
+		for (int i = 0; i < src.length; i++) {
+			if (transpose) putTransposed(src[i], dest, n);
+			else src[i].putInto(dest, n);
+			n += 16;
+		}
+		return n;
+	}
+
+	/**
+	 * Writes every vector of the array back-to-back into the given FloatBuffer as x, y, z, starting at the given index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the vectors to write.
+	 * @param dest
+	 *            the buffer where the vectors will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 * 
+	 * @return the index after the last float written.
+	 */
+	public static int put(Vec3[] src, FloatBuffer dest, int offset) {
+		checkOffset(dest.limit(), offset, src.length * 3);
+		int n = offset;
+		for (int i = 0; i < src.length; i++) {
+			Vec3 v = src[i];
+			dest.put(n, v.x).put(n + 1, v.y).put(n + 2, v.z);
+			n += 3;
+		}
+		return n;
+	}
+
+	/**
+	 * Writes every vector of the array back-to-back into the given FloatBuffer as x, y, starting at the given index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the vectors to write.
+	 * @param dest
+	 *            the buffer where the vectors will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 * 
+	 * @return the index after the last float written.
+	 */
+	public static int put(Vec2[] src, FloatBuffer dest, int offset) {
+		checkOffset(dest.limit(), offset, src.length * 2);
+		int n = offset;
+		for (int i = 0; i < src.length; i++) {
+			Vec2 v = src[i];
+			dest.put(n, v.x).put(n + 1, v.y);
+			n += 2;
+		}
+		return n;
+	}
+
+	/**
+	 * Writes the elements in the range of the array back-to-back into the given FloatBuffer as x, y, z, starting at the given index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the array to write.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the buffer where the vectors will be stored into.
+	 * @param offset
+	 *            the index of the first float to write.
+	 * 
+	 * @return the index after the last float written.
+	 */
+	public static int put(Vec3Array src, int from, int to, FloatBuffer dest, int offset) {
+		if (from < 0 || to > src.length() || from > to) throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + src.length());
+		int count = to - from;
+		checkOffset(dest.limit(), offset, count * 3);
+		float[] x = src.x, y = src.y, z = src.z;
+		int n = offset;
+		for (int i = from; i < to; i++) {
+			dest.put(n, x[i]).put(n + 1, y[i]).put(n + 2, z[i]);
+			n += 3;
+		}
+		return n;
+	}
+
+	/**
+	 * Writes every matrix of the array back-to-back into the given ByteBuffer, in the byte order of the buffer, starting at the given byte index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the matrices to write.
+	 * @param dest
+	 *            the buffer where the matrices will be stored into.
+	 * @param byteOffset
+	 *            the index of the first byte to write.
+	 * @param transpose
+	 *            true to write each matrix in column-major order, as if transpose() had been called first.
+	 * 
+	 * @return the index after the last byte written.
+	 */
+	public static int put(Mat4[] src, ByteBuffer dest, int byteOffset, boolean transpose) {
+		return byteOffset + put(src, asFloatBuffer(dest, byteOffset), 0, transpose) * 4;
+	}
+
+	/**
+	 * Writes every vector of the array back-to-back into the given ByteBuffer as x, y, z, in the byte order of the buffer, starting at the given byte index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the vectors to write.
+	 * @param dest
+	 *            the buffer where the vectors will be stored into.
+	 * @param byteOffset
+	 *            the index of the first byte to write.
+	 * 
+	 * @return the index after the last byte written.
+	 */
+	public static int put(Vec3[] src, ByteBuffer dest, int byteOffset) {
+		return byteOffset + put(src, asFloatBuffer(dest, byteOffset), 0) * 4;
+	}
+
+	/**
+	 * Writes every vector of the array back-to-back into the given ByteBuffer as x, y, in the byte order of the buffer, starting at the given byte index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the vectors to write.
+	 * @param dest
+	 *            the buffer where the vectors will be stored into.
+	 * @param byteOffset
+	 *            the index of the first byte to write.
+	 * 
+	 * @return the index after the last byte written.
+	 */
+	public static int put(Vec2[] src, ByteBuffer dest, int byteOffset) {
+		return byteOffset + put(src, asFloatBuffer(dest, byteOffset), 0) * 4;
+	}
+
+	/**
+	 * Writes the elements in the range of the array back-to-back into the given ByteBuffer as x, y, z, in the byte order of the buffer, starting at the given byte index. The position and limit of the buffer are not changed.
+	 * 
+	 * @param src
+	 *            the array to write.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the buffer where the vectors will be stored into.
+	 * @param byteOffset
+	 *            the index of the first byte to write.
+	 * 
+	 * @return the index after the last byte written.
+	 */
+	public static int put(Vec3Array src, int from, int to, ByteBuffer dest, int byteOffset) {
+		return byteOffset + put(src, from, to, asFloatBuffer(dest, byteOffset), 0) * 4;
+	}
+
+	private static void putTransposed(Mat4 m, FloatBuffer dest, int n) {
+		dest.put(n, m.m11).put(n + 1, m.m21).put(n + 2, m.m31).put(n + 3, m.m41);
+		dest.put(n + 4, m.m12).put(n + 5, m.m22).put(n + 6, m.m32).put(n + 7, m.m42);
+		dest.put(n + 8, m.m13).put(n + 9, m.m23).put(n + 10, m.m33).put(n + 11, m.m43);
+		dest.put(n + 12, m.m14).put(n + 13, m.m24).put(n + 14, m.m34).put(n + 15, m.m44);
+	}
+
+	private static FloatBuffer asFloatBuffer(ByteBuffer buffer, int byteOffset) {
+		if (byteOffset < 0 || byteOffset > buffer.limit()) throw new IndexOutOfBoundsException("Offset " + byteOffset + " out of bounds for limit " + buffer.limit());
+		ByteBuffer bytes = buffer.duplicate().order(buffer.order());
+		bytes.position(byteOffset);
+		return bytes.asFloatBuffer();
+	}
+
+	private static void checkOffset(int limit, int offset, int count) {
+		if (offset < 0 || offset > limit - count) throw new IndexOutOfBoundsException("Cannot write " + count + " floats at offset " + offset + " with limit " + limit);
+	}
+}
\ No newline at end of file
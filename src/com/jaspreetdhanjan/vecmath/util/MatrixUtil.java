@@ -1,5 +1,6 @@
 package com.jaspreetdhanjan.vecmath.util;
 
+import com.jaspreetdhanjan.vecmath.Mat3;
 import com.jaspreetdhanjan.vecmath.Mat4;
 import com.jaspreetdhanjan.vecmath.Vec3;
 
@@ -13,12 +14,78 @@ public class MatrixUtil {
 	 * @return a new matrix with the normal information.
 	 */
 	public static Mat4 createNormalMatrix(Mat4 modelViewMatrix) {
-		Mat4 normalMatrix = modelViewMatrix.clone();
-		normalMatrix.m41 = 0f;
-		normalMatrix.m42 = 0f;
-		normalMatrix.m43 = 0f;
-		normalMatrix.m44 = 1f;
-		return normalMatrix.inverse().transpose();
+		return createNormalMatrix(modelViewMatrix, new Mat4());
+	}
+
+	/**
+	 * Creates a normal matrix from the model-view matrix and stores it in matrix dest. The upper 3x3 holds the normal matrix computed by createNormalMatrix(Mat4, Mat3), and the translation is cleared.
+	 * 
+	 * @param modelViewMatrix
+	 *            the model-view matrix of the scene.
+	 * @param dest
+	 *            the matrix where the result is stored. May be modelViewMatrix.
+	 * 
+	 * @return dest.
+	 */
+	public static Mat4 createNormalMatrix(Mat4 modelViewMatrix, Mat4 dest) {
+		normalMatrix(modelViewMatrix, null, dest);
+		return dest;
+	}
+
+	/**
+	 * Creates a normal matrix from the upper 3x3 of the model-view matrix and stores it in matrix dest. The normal matrix is the inverse transpose of the upper 3x3, which is computed directly as its matrix of cofactors divided by its determinant. For a model-view matrix that only rotates and translates, it is the upper 3x3 itself.
+	 * 
+	 * @param modelViewMatrix
+	 *            the model-view matrix of the scene.
+	 * @param dest
+	 *            the matrix where the result is stored.
+	 * 
+	 * @throws a
+	 *             RuntimeException if the upper 3x3 is singular (non-invertible).
+	 * 
+	 * @return dest.
+	 */
+	public static Mat3 createNormalMatrix(Mat4 modelViewMatrix, Mat3 dest) {
+		normalMatrix(modelViewMatrix, dest, null);
+		return dest;
+	}
+
+	// Computes the normal matrix into locals and stores it in whichever of dest3 and dest4 is not null, so both overloads share one implementation without a temporary matrix
+	private static void normalMatrix(Mat4 m, Mat3 dest3, Mat4 dest4) {
+		float n11, n12, n13, n21, n22, n23, n31, n32, n33;
+		if ((m.getProperties() & Mat4.PROPERTY_ORTHONORMAL) != 0) {
+			n11 = m.m11;
+			n12 = m.m12;
+			n13 = m.m13;
+			n21 = m.m21;
+			n22 = m.m22;
+			n23 = m.m23;
+			n31 = m.m31;
+			n32 = m.m32;
+			n33 = m.m33;
+		} else {
+			float c11 = m.m22 * m.m33 - m.m23 * m.m32;
+			float c12 = m.m23 * m.m31 - m.m21 * m.m33;
+			float c13 = m.m21 * m.m32 - m.m22 * m.m31;
+			float determinant = m.m11 * c11 + m.m12 * c12 + m.m13 * c13;
+			if (determinant == 0f) {
+				throw new RuntimeException("Non-Invertible matrix: " + m);
+			}
+
+			float invDeterminant = 1f / determinant;
+			n11 = c11 * invDeterminant;
+			n12 = c12 * invDeterminant;
+			n13 = c13 * invDeterminant;
+			n21 = (m.m13 * m.m32 - m.m12 * m.m33) * invDeterminant;
+			n22 = (m.m11 * m.m33 - m.m13 * m.m31) * invDeterminant;
+			n23 = (m.m12 * m.m31 - m.m11 * m.m32) * invDeterminant;
+			n31 = (m.m12 * m.m23 - m.m13 * m.m22) * invDeterminant;
+			n32 = (m.m13 * m.m21 - m.m11 * m.m23) * invDeterminant;
+			n33 = (m.m11 * m.m22 - m.m12 * m.m21) * invDeterminant;
+		}
+
+		if (dest3 != null) dest3.set(n11, n12, n13, n21, n22, n23, n31, n32, n33);
+		else dest4.set(n11, n12, n13, 0f, n21, n22, n23, 0f, n31, n32, n33, 0f, 0f, 0f, 0f, 1f);
 	}
 
 	/**
@@ -36,19 +103,33 @@ public class MatrixUtil {
 	 * @return this matrix.
 	 */
 	public static Mat4 createPerspectiveMatrix(float fov, float aspect, float near, float far) {
-		Mat4 result = new Mat4();
+		return createPerspectiveMatrix(fov, aspect, near, far, new Mat4());
+	}
 
+	/**
+	 * Creates a perspective matrix and stores it in matrix dest.
+	 * 
+	 * @param fov
+	 *            the field-of-view.
+	 * @param aspect
+	 *            the aspect ratio.
+	 * @param near
+	 *            the near clipping plane.
+	 * @param far
+	 *            the far clipping plane.
+	 * @param dest
+	 *            the matrix where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public static Mat4 createPerspectiveMatrix(float fov, float aspect, float near, float far, Mat4 dest) {
 		float yScale = (float) (1f / Math.tan(Math.toRadians(fov / 2f)));
 		float xScale = yScale / aspect;
 		float clipPlane = far - near;
 
-		result.m11 = xScale;
-		result.m22 = yScale;
-		result.m33 = -((far + near) / clipPlane);
-		result.m34 = -1f;
-		result.m43 = -((2f * far * near) / clipPlane);
-		result.m44 = 0f;
-		return result;
+		float zScale = -((far + near) / clipPlane);
+		float zOffset = -((2f * far * near) / clipPlane);
+		return dest.set(xScale, 0, 0, 0, 0, yScale, 0, 0, 0, 0, zScale, -1f, 0, 0, zOffset, 0);
 	}
 
 	/**
@@ -70,8 +151,30 @@ public class MatrixUtil {
 	 * @return this matrix.
 	 */
 	public Mat4 createOrthographicMatrix(float left, float right, float bottom, float top, float near, float far) {
-		Mat4 result = new Mat4();
+		return createOrthographicMatrix(left, right, bottom, top, near, far, new Mat4());
+	}
 
+	/**
+	 * Creates an orthographic matrix and stores it in matrix dest.
+	 * 
+	 * @param left
+	 *            the left clipping plane.
+	 * @param right
+	 *            the right clipping plane.
+	 * @param bottom
+	 *            the bottom clipping plane.
+	 * @param top
+	 *            the top clipping plane.
+	 * @param near
+	 *            the near clipping plane.
+	 * @param far
+	 *            the far clipping plane.
+	 * @param dest
+	 *            the matrix where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public static Mat4 createOrthographicMatrix(float left, float right, float bottom, float top, float near, float far, Mat4 dest) {
 		float xOrth = 2f / (right - left);
 		float yOrth = 2f / (top - bottom);
 		float zOrth = -2f / (far - near);
@@ -79,15 +182,7 @@ public class MatrixUtil {
 		float tx = -(right + left) / (right - left);
 		float ty = -(top + bottom) / (top - bottom);
 		float tz = -(far + near) / (far - near);
-
-		result.m11 = xOrth;
-		result.m22 = yOrth;
-		result.m33 = zOrth;
-		result.m41 = tx;
-		result.m42 = ty;
-		result.m43 = tz;
-		result.m44 = 1;
-		return result;
+		return dest.set(xOrth, 0, 0, 0, 0, yOrth, 0, 0, 0, 0, zOrth, 0, tx, ty, tz, 1);
 	}
 
 	/**
@@ -105,21 +200,49 @@ public class MatrixUtil {
 	 * @return this matrix.
 	 */
 	public Mat4 lookAt(Vec3 eye, Vec3 center, Vec3 up) {
-		Mat4 result = new Mat4();
-
-		Vec3 forward = center.clone().sub(eye).normalise();
-		Vec3 side = forward.clone().cross(up).normalise();
-		up = side.clone().cross(forward);
-
-		result.m11 = side.x;
-		result.m12 = side.y;
-		result.m13 = side.z;
-		result.m21 = up.x;
-		result.m22 = up.y;
-		result.m23 = up.z;
-		result.m31 = -forward.x;
-		result.m32 = -forward.y;
-		result.m33 = -forward.z;
-		return result;
+		return lookAt(eye, center, up, new Mat4());
+	}
+
+	/**
+	 * Creates a look at matrix with a direction and an up vector and stores it in matrix dest.
+	 * 
+	 * Multiply this with a translation matrix to get a camera model-view matrix.
+	 * 
+	 * @param eye
+	 *            the position of the camera.
+	 * @param center
+	 *            the center position.
+	 * @param up
+	 *            the up director.
+	 * @param dest
+	 *            the matrix where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public static Mat4 lookAt(Vec3 eye, Vec3 center, Vec3 up, Mat4 dest) {
+		float fx = center.x - eye.x;
+		float fy = center.y - eye.y;
+		float fz = center.z - eye.z;
+		float fLen = (float) Math.sqrt(fx * fx + fy * fy + fz * fz);
+		if (fLen > 0) {
+			fx /= fLen;
+			fy /= fLen;
+			fz /= fLen;
+		}
+
+		float sx = fy * up.z - fz * up.y;
+		float sy = fz * up.x - fx * up.z;
+		float sz = fx * up.y - fy * up.x;
+		float sLen = (float) Math.sqrt(sx * sx + sy * sy + sz * sz);
+		if (sLen > 0) {
+			sx /= sLen;
+			sy /= sLen;
+			sz /= sLen;
+		}
+
+		float ux = sy * fz - sz * fy;
+		float uy = sz * fx - sx * fz;
+		float uz = sx * fy - sy * fx;
+		return dest.set(sx, sy, sz, 0, ux, uy, uz, 0, -fx, -fy, -fz, 0, 0, 0, 0, 1);
 	}
 }
\ No newline at end of file
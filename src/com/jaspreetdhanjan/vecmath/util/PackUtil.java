@@ -0,0 +1,399 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import com.jaspreetdhanjan.vecmath.Vec2;
+import com.jaspreetdhanjan.vecmath.Vec3;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * Compact encodings of vectors for storage and upload: IEEE 754 half precision floats, octahedral unit vectors in two 16-bit values and signed normalised 10-10-10-2 vectors.
+ *
+ * Half precision keeps about 3 significant decimal digits over the range +/-65504, and packs a Vec2 into an int and a Vec3 into the low 48 bits of a long. The octahedral encoding maps a unit vector onto the two halves of an int with an angular error of under 0.005 degrees, a third of the size of three floats. The 10-10-10-2 encoding packs the x, y, z coordinates in [-1, 1] into 10 bits each, with x in the lowest bits, and a signed 2-bit w into the top bits, as OpenGL's GL_INT_2_10_10_10_REV vertex format expects. The bulk methods encode or decode a range of a Vec3Array into an array.
+ */
+public class PackUtil {
+	// Half precision
+
+	/**
+	 * Converts a float to the nearest half precision float, rounding ties to even. Values too large for half precision become infinity.
+	 * 
+	 * @param f
+	 *            the value to convert.
+	 * 
+	 * @return the bits of the half precision float.
+	 */
+	public static short toHalf(float f) {
+		int bits = Float.floatToRawIntBits(f);
+		int sign = (bits >>> 16) & 0x8000;
+		int exp = (bits >>> 23) & 0xFF;
+		int mantissa = bits & 0x7FFFFF;
+
+		if (exp == 0xFF) return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 | mantissa >>> 13 : 0));
+
+		int e = exp - 127 + 15;
+		if (e >= 0x1F) return (short) (sign | 0x7C00);
+		if (e <= 0) {
+			// Subnormal half, or zero if the value is below half the smallest subnormal
+			if (e < -10) return (short) sign;
+			mantissa |= 0x800000;
+			int shift = 14 - e;
+			int half = mantissa >>> shift;
+			int rest = mantissa & ((1 << shift) - 1);
+			int midpoint = 1 << (shift - 1);
+			if (rest > midpoint || (rest == midpoint && (half & 1) != 0)) half++;
+			return (short) (sign | half);
+		}
+
+		int half = e << 10 | mantissa >>> 13;
+		int rest = mantissa & 0x1FFF;
+		// A carry out of the mantissa correctly increments the exponent, up to infinity
+		if (rest > 0x1000 || (rest == 0x1000 && (half & 1) != 0)) half++;
+		return (short) (sign | half);
+	}
+
+	/**
+	 * Converts a half precision float to a float. The conversion is exact.
+	 * 
+	 * @param h
+	 *            the bits of the half precision float.
+	 * 
+	 * @return the result.
+	 */
+	public static float fromHalf(short h) {
+		int sign = (h & 0x8000) << 16;
+		int exp = (h >>> 10) & 0x1F;
+		int mantissa = h & 0x3FF;
+		if (exp == 0) {
+			float f = mantissa * 0x1p-24f;
+			return sign != 0 ? -f : f;
+		}
+		if (exp == 0x1F) return Float.intBitsToFloat(sign | 0x7F800000 | mantissa << 13);
+		return Float.intBitsToFloat(sign | (exp - 15 + 127) << 23 | mantissa << 13);
+	}
+
+	/**
+	 * Packs vector v into two half precision floats, x in the low 16 bits and y in the high 16 bits.
+	 * 
+	 * @param v
+	 *            the vector to pack.
+	 * 
+	 * @return the result.
+	 */
+	public static int packHalf(Vec2 v) {
+		return (toHalf(v.x) & 0xFFFF) | toHalf(v.y) << 16;
+	}
+
+	/**
+	 * Unpacks two half precision floats packed by packHalf(Vec2) into vector dest.
+	 * 
+	 * @param packed
+	 *            the packed vector.
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec2 unpackHalf(int packed, Vec2 dest) {
+		return dest.set(fromHalf((short) packed), fromHalf((short) (packed >>> 16)));
+	}
+
+	/**
+	 * Packs vector v into three half precision floats, x in the lowest 16 bits, then y, then z.
+	 * 
+	 * @param v
+	 *            the vector to pack.
+	 * 
+	 * @return the result, using the low 48 bits.
+	 */
+	public static long packHalf(Vec3 v) {
+		return (toHalf(v.x) & 0xFFFFL) | (toHalf(v.y) & 0xFFFFL) << 16 | (toHalf(v.z) & 0xFFFFL) << 32;
+	}
+
+	/**
+	 * Unpacks three half precision floats packed by packHalf(Vec3) into vector dest.
+	 * 
+	 * @param packed
+	 *            the packed vector.
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3 unpackHalf(long packed, Vec3 dest) {
+		return dest.set(fromHalf((short) packed), fromHalf((short) (packed >>> 16)), fromHalf((short) (packed >>> 32)));
+	}
+
+	/**
+	 * Packs the elements of array src in the range into half precision floats, 3 consecutive values per element, starting at index offset of array dest.
+	 * 
+	 * @param src
+	 *            the elements to pack.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the array where the results are stored.
+	 * @param offset
+	 *            the index of dest to store the first value at.
+	 * 
+	 * @return the index of dest after the last value stored.
+	 */
+	public static int packHalf(Vec3Array src, int from, int to, short[] dest, int offset) {
+		src.checkRange(from, to);
+		checkDest(dest.length, offset, (to - from) * 3);
+		float[] x = src.x, y = src.y, z = src.z;
+		for (int i = from, p = offset; i < to; i++, p += 3) {
+			dest[p] = toHalf(x[i]);
+			dest[p + 1] = toHalf(y[i]);
+			dest[p + 2] = toHalf(z[i]);
+		}
+		return offset + (to - from) * 3;
+	}
+
+	/**
+	 * Unpacks half precision floats, 3 consecutive values per element starting at index offset of array src, into the range of array dest.
+	 * 
+	 * @param src
+	 *            the packed values.
+	 * @param offset
+	 *            the index of src of the first value.
+	 * @param dest
+	 *            the array where the results are stored.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3Array unpackHalf(short[] src, int offset, Vec3Array dest, int from, int to) {
+		dest.checkRange(from, to);
+		checkDest(src.length, offset, (to - from) * 3);
+		float[] x = dest.x, y = dest.y, z = dest.z;
+		for (int i = from, p = offset; i < to; i++, p += 3) {
+			x[i] = fromHalf(src[p]);
+			y[i] = fromHalf(src[p + 1]);
+			z[i] = fromHalf(src[p + 2]);
+		}
+		return dest;
+	}
+
+	// Octahedral unit vectors
+
+	/**
+	 * Packs unit vector v by projecting it onto an octahedron and unfolding that onto a square, stored as two signed normalised 16-bit values, u in the low 16 bits and v in the high 16 bits. The vector does not need to be exactly unit length. (0, 0, 0) is packed as (0, 0, 1).
+	 * 
+	 * @param v
+	 *            the vector to pack.
+	 * 
+	 * @return the result.
+	 */
+	public static int packOctahedral(Vec3 v) {
+		return packOctahedral(v.x, v.y, v.z);
+	}
+
+	/**
+	 * Unpacks a unit vector packed by packOctahedral() into vector dest. The result is normalised.
+	 * 
+	 * @param packed
+	 *            the packed vector.
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3 unpackOctahedral(int packed, Vec3 dest) {
+		float u = Math.max((short) packed / 32767f, -1f);
+		float v = Math.max((short) (packed >>> 16) / 32767f, -1f);
+		float z = 1f - Math.abs(u) - Math.abs(v);
+		float fold = Math.max(-z, 0f);
+		u += u >= 0 ? -fold : fold;
+		v += v >= 0 ? -fold : fold;
+		float invLen = 1f / (float) Math.sqrt(u * u + v * v + z * z);
+		return dest.set(u * invLen, v * invLen, z * invLen);
+	}
+
+	/**
+	 * Packs the elements of array src in the range with packOctahedral(), starting at index offset of array dest.
+	 * 
+	 * @param src
+	 *            the elements to pack.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the array where the results are stored.
+	 * @param offset
+	 *            the index of dest to store the first value at.
+	 * 
+	 * @return the index of dest after the last value stored.
+	 */
+	public static int packOctahedral(Vec3Array src, int from, int to, int[] dest, int offset) {
+		src.checkRange(from, to);
+		checkDest(dest.length, offset, to - from);
+		float[] x = src.x, y = src.y, z = src.z;
+		for (int i = from, p = offset; i < to; i++, p++) {
+			dest[p] = packOctahedral(x[i], y[i], z[i]);
+		}
+		return offset + (to - from);
+	}
+
+	/**
+	 * Unpacks values packed by packOctahedral(), starting at index offset of array src, into the range of array dest.
+	 * 
+	 * @param src
+	 *            the packed values.
+	 * @param offset
+	 *            the index of src of the first value.
+	 * @param dest
+	 *            the array where the results are stored.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3Array unpackOctahedral(int[] src, int offset, Vec3Array dest, int from, int to) {
+		dest.checkRange(from, to);
+		checkDest(src.length, offset, to - from);
+		float[] x = dest.x, y = dest.y, z = dest.z;
+		for (int i = from, p = offset; i < to; i++, p++) {
+			int packed = src[p];
+			float u = Math.max((short) packed / 32767f, -1f);
+			float v = Math.max((short) (packed >>> 16) / 32767f, -1f);
+			float w = 1f - Math.abs(u) - Math.abs(v);
+			// Unfolds the lower half of the octahedron without branching
+			float fold = Math.max(-w, 0f);
+			u += u >= 0 ? -fold : fold;
+			v += v >= 0 ? -fold : fold;
+			float invLen = 1f / (float) Math.sqrt(u * u + v * v + w * w);
+			x[i] = u * invLen;
+			y[i] = v * invLen;
+			z[i] = w * invLen;
+		}
+		return dest;
+	}
+
+	private static int packOctahedral(float x, float y, float z) {
+		float l1 = Math.abs(x) + Math.abs(y) + Math.abs(z);
+		if (!(l1 > 0)) return 0;
+		float u = x / l1, v = y / l1;
+		if (z < 0) {
+			float t = u;
+			u = (1f - Math.abs(v)) * (t >= 0 ? 1f : -1f);
+			v = (1f - Math.abs(t)) * (v >= 0 ? 1f : -1f);
+		}
+		return (snorm(u, 32767f) & 0xFFFF) | snorm(v, 32767f) << 16;
+	}
+
+	// Signed normalised 10-10-10-2
+
+	/**
+	 * Packs the coordinates of vector v, clamped to [-1, 1], into signed normalised 10-bit values, with a signed 2-bit w in the top bits.
+	 * 
+	 * @param v
+	 *            the vector to pack.
+	 * @param w
+	 *            the w value, -1, 0 or 1.
+	 * 
+	 * @return the result.
+	 */
+	public static int packSnorm1010102(Vec3 v, int w) {
+		return packSnorm1010102(v.x, v.y, v.z, w);
+	}
+
+	/**
+	 * Unpacks the x, y, z coordinates packed by packSnorm1010102() into vector dest.
+	 * 
+	 * @param packed
+	 *            the packed vector.
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3 unpackSnorm1010102(int packed, Vec3 dest) {
+		return dest.set(Math.max((packed << 22 >> 22) / 511f, -1f), Math.max((packed << 12 >> 22) / 511f, -1f), Math.max((packed << 2 >> 22) / 511f, -1f));
+	}
+
+	/**
+	 * Gets the w value packed by packSnorm1010102().
+	 * 
+	 * @param packed
+	 *            the packed vector.
+	 * 
+	 * @return the result, -1, 0 or 1.
+	 */
+	public static int unpackSnorm1010102W(int packed) {
+		return Math.max(packed >> 30, -1);
+	}
+
+	/**
+	 * Packs the elements of array src in the range with packSnorm1010102() and a w of 0, starting at index offset of array dest.
+	 * 
+	 * @param src
+	 *            the elements to pack.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param dest
+	 *            the array where the results are stored.
+	 * @param offset
+	 *            the index of dest to store the first value at.
+	 * 
+	 * @return the index of dest after the last value stored.
+	 */
+	public static int packSnorm1010102(Vec3Array src, int from, int to, int[] dest, int offset) {
+		src.checkRange(from, to);
+		checkDest(dest.length, offset, to - from);
+		float[] x = src.x, y = src.y, z = src.z;
+		for (int i = from, p = offset; i < to; i++, p++) {
+			dest[p] = packSnorm1010102(x[i], y[i], z[i], 0);
+		}
+		return offset + (to - from);
+	}
+
+	/**
+	 * Unpacks the x, y, z coordinates of values packed by packSnorm1010102(), starting at index offset of array src, into the range of array dest.
+	 * 
+	 * @param src
+	 *            the packed values.
+	 * @param offset
+	 *            the index of src of the first value.
+	 * @param dest
+	 *            the array where the results are stored.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3Array unpackSnorm1010102(int[] src, int offset, Vec3Array dest, int from, int to) {
+		dest.checkRange(from, to);
+		checkDest(src.length, offset, to - from);
+		float[] x = dest.x, y = dest.y, z = dest.z;
+		for (int i = from, p = offset; i < to; i++, p++) {
+			int packed = src[p];
+			x[i] = Math.max((packed << 22 >> 22) / 511f, -1f);
+			y[i] = Math.max((packed << 12 >> 22) / 511f, -1f);
+			z[i] = Math.max((packed << 2 >> 22) / 511f, -1f);
+		}
+		return dest;
+	}
+
+	private static int packSnorm1010102(float x, float y, float z, int w) {
+		if (w < -1 || w > 1) throw new IllegalArgumentException("w must be -1, 0 or 1: " + w);
+		return (snorm(x, 511f) & 0x3FF) | (snorm(y, 511f) & 0x3FF) << 10 | (snorm(z, 511f) & 0x3FF) << 20 | w << 30;
+	}
+
+	private static int snorm(float v, float scale) {
+		return Math.round(Math.min(Math.max(v, -1f), 1f) * scale);
+	}
+
+	private static void checkDest(int length, int offset, int count) {
+		if (offset < 0 || offset > length - count) throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + count) + ") out of bounds for length " + length);
+	}
+}
\ No newline at end of file
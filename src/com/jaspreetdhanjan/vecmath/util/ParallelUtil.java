@@ -0,0 +1,220 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.jaspreetdhanjan.vecmath.Mat4;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * Parallel versions of the bulk operations of Vec3Array, for arrays with millions of elements.
+ *
+ * The range is split in half on a ForkJoinPool until the pieces are no larger than the sequential threshold, and each piece is then processed by the sequential Vec3Array method. Split points are rounded down to multiples of 16 elements, so that neighbouring pieces of each coordinate array meet at most once per 64 bytes of data. This reduces false sharing but does not remove it: the data of a float[] is not aligned to a cache line (on HotSpot it starts 16 bytes after the array header), so the line at each split point may still be written by both pieces. The default threshold of 16384 elements, which keeps the input and output of a piece within a typical L2 cache, has not been tuned; ParallelBenchmark should be run on the target machine to choose one for setThreshold().
+ */
+public class ParallelUtil {
+	private static final int ALIGNMENT = 16;
+
+	private static volatile int threshold = 16384;
+
+	private static final int TRANSFORM = 0;
+	private static final int PROJECT = 1;
+	private static final int NORMALISE = 2;
+
+	/**
+	 * Sets the largest number of elements processed as one piece.
+	 * 
+	 * @param elements
+	 *            the threshold, at least 1.
+	 */
+	public static void setThreshold(int elements) {
+		if (elements < 1) throw new IllegalArgumentException("Threshold must be positive: " + elements);
+		threshold = elements;
+	}
+
+	/**
+	 * Gets the largest number of elements processed as one piece.
+	 * 
+	 * @return the result.
+	 */
+	public static int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Multiplies every element of array src in the range by matrix m, as Vec3Array.transform() does, using the common ForkJoinPool.
+	 * 
+	 * @param src
+	 *            the elements to transform.
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices. May be src.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3Array transform(Vec3Array src, Mat4 m, Vec3Array dest, int from, int to) {
+		return transform(src, m, dest, from, to, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Multiplies every element of array src in the range by matrix m, as Vec3Array.transform() does, using the given ForkJoinPool.
+	 * 
+	 * @param src
+	 *            the elements to transform.
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices. May be src.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param pool
+	 *            the pool to run on.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3Array transform(Vec3Array src, Mat4 m, Vec3Array dest, int from, int to, ForkJoinPool pool) {
+		return run(TRANSFORM, src, m, dest, from, to, pool);
+	}
+
+	/**
+	 * Multiplies every element of array src in the range by matrix m and divides by w, as Vec3Array.project() does, using the common ForkJoinPool.
+	 * 
+	 * @param src
+	 *            the elements to project.
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices. May be src.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3Array project(Vec3Array src, Mat4 m, Vec3Array dest, int from, int to) {
+		return project(src, m, dest, from, to, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Multiplies every element of array src in the range by matrix m and divides by w, as Vec3Array.project() does, using the given ForkJoinPool.
+	 * 
+	 * @param src
+	 *            the elements to project.
+	 * @param m
+	 *            the matrix to multiply by.
+	 * @param dest
+	 *            the array where the results are stored, at the same indices. May be src.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param pool
+	 *            the pool to run on.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec3Array project(Vec3Array src, Mat4 m, Vec3Array dest, int from, int to, ForkJoinPool pool) {
+		return run(PROJECT, src, m, dest, from, to, pool);
+	}
+
+	/**
+	 * Normalises every element of the array in the range, as Vec3Array.normalise() does, using the common ForkJoinPool.
+	 * 
+	 * @param a
+	 *            the elements to normalise.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return a.
+	 */
+	public static Vec3Array normalise(Vec3Array a, int from, int to) {
+		return normalise(a, from, to, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Normalises every element of the array in the range, as Vec3Array.normalise() does, using the given ForkJoinPool.
+	 * 
+	 * @param a
+	 *            the elements to normalise.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * @param pool
+	 *            the pool to run on.
+	 * 
+	 * @return a.
+	 */
+	public static Vec3Array normalise(Vec3Array a, int from, int to, ForkJoinPool pool) {
+		return run(NORMALISE, a, null, a, from, to, pool);
+	}
+
+	/**
+	 * Gets the index at which the range is split in half, rounded down to a multiple of 16 elements. The result is at most from when the range is too small to split.
+	 * 
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return the result.
+	 */
+	static int split(int from, int to) {
+		return ((from + to) >>> 1) & -ALIGNMENT;
+	}
+
+	private static Vec3Array run(int op, Vec3Array src, Mat4 m, Vec3Array dest, int from, int to, ForkJoinPool pool) {
+		src.checkRange(from, to);
+		dest.checkRange(from, to);
+		int t = threshold;
+		if (to - from <= t) apply(op, src, m, dest, from, to);
+		else pool.invoke(new Task(op, src, m, dest, from, to, t));
+		return dest;
+	}
+
+	private static void apply(int op, Vec3Array src, Mat4 m, Vec3Array dest, int from, int to) {
+		if (op == TRANSFORM) src.transform(m, dest, from, to);
+		else if (op == PROJECT) src.project(m, dest, from, to);
+		else src.normalise(from, to);
+	}
+
+	private static class Task extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int op;
+		private final Vec3Array src;
+		private final Mat4 m;
+		private final Vec3Array dest;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		Task(int op, Vec3Array src, Mat4 m, Vec3Array dest, int from, int to, int threshold) {
+			this.op = op;
+			this.src = src;
+			this.m = m;
+			this.dest = dest;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		protected void compute() {
+			int mid = split(from, to);
+			if (to - from <= threshold || mid <= from) {
+				apply(op, src, m, dest, from, to);
+			} else {
+				invokeAll(new Task(op, src, m, dest, from, mid, threshold), new Task(op, src, m, dest, mid, to, threshold));
+			}
+		}
+	}
+}
\ No newline at end of file
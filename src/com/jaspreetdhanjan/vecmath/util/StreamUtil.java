@@ -0,0 +1,140 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import com.jaspreetdhanjan.vecmath.Vec2Array;
+import com.jaspreetdhanjan.vecmath.Vec3Array;
+
+/**
+ * Stream support for Vec3Array and Vec2Array.
+ *
+ * Streaming Vec3 objects would allocate one per element, so the streams here are IntStreams of element indices, which the caller uses to read the coordinate arrays directly. The index spliterator is SIZED and SUBSIZED and splits its range in half at the same multiples of 16 elements as ParallelUtil, so parallel() streams are balanced and threads writing to an output array by index share at most the cache line at each split point. The summarise() methods reduce a stream of indices to a Vec3Summary or Vec2Summary of the count, sum, bounds and centroid, with one summary per thread rather than per element.
+ */
+public class StreamUtil {
+	/**
+	 * Creates a spliterator over the indices in the range.
+	 * 
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return the result.
+	 */
+	public static Spliterator.OfInt spliterator(int from, int to) {
+		if (from > to) throw new IllegalArgumentException("Range [" + from + ", " + to + ") is negative");
+		return new IndexSpliterator(from, to);
+	}
+
+	/**
+	 * Creates a sequential stream of the indices of array a in the range. Call parallel() on the result to process it on the common ForkJoinPool.
+	 * 
+	 * @param a
+	 *            the array to index.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return the result.
+	 */
+	public static IntStream indices(Vec3Array a, int from, int to) {
+		a.checkRange(from, to);
+		return StreamSupport.intStream(new IndexSpliterator(from, to), false);
+	}
+
+	/**
+	 * Creates a sequential stream of the indices of array a in the range. Call parallel() on the result to process it on the common ForkJoinPool.
+	 * 
+	 * @param a
+	 *            the array to index.
+	 * @param from
+	 *            the first index, inclusive.
+	 * @param to
+	 *            the last index, exclusive.
+	 * 
+	 * @return the result.
+	 */
+	public static IntStream indices(Vec2Array a, int from, int to) {
+		a.checkRange(from, to);
+		return StreamSupport.intStream(new IndexSpliterator(from, to), false);
+	}
+
+	/**
+	 * Reduces the elements of array a at the given indices to their count, sum, bounds and centroid. The stream may be parallel.
+	 * 
+	 * @param a
+	 *            the array to read.
+	 * @param indices
+	 *            the indices of the elements, such as a filtered stream from indices().
+	 * 
+	 * @return the result.
+	 */
+	public static Vec3Summary summarise(Vec3Array a, IntStream indices) {
+		float[] x = a.x, y = a.y, z = a.z;
+		return indices.collect(Vec3Summary::new, (s, i) -> s.accept(x[i], y[i], z[i]), Vec3Summary::combine);
+	}
+
+	/**
+	 * Reduces the elements of array a at the given indices to their count, sum, bounds and centroid. The stream may be parallel.
+	 * 
+	 * @param a
+	 *            the array to read.
+	 * @param indices
+	 *            the indices of the elements, such as a filtered stream from indices().
+	 * 
+	 * @return the result.
+	 */
+	public static Vec2Summary summarise(Vec2Array a, IntStream indices) {
+		float[] x = a.x, y = a.y;
+		return indices.collect(Vec2Summary::new, (s, i) -> s.accept(x[i], y[i]), Vec2Summary::combine);
+	}
+
+	private static class IndexSpliterator implements Spliterator.OfInt {
+		private int from;
+		private final int to;
+
+		IndexSpliterator(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		public OfInt trySplit() {
+			int mid = ParallelUtil.split(from, to);
+			if (mid <= from) return null;
+			IndexSpliterator prefix = new IndexSpliterator(from, mid);
+			from = mid;
+			return prefix;
+		}
+
+		public boolean tryAdvance(IntConsumer action) {
+			if (from >= to) return false;
+			action.accept(from++);
+			return true;
+		}
+
+		public void forEachRemaining(IntConsumer action) {
+			int i = from, end = to;
+			from = end;
+			for (; i < end; i++) {
+				action.accept(i);
+			}
+		}
+
+		public long estimateSize() {
+			return to - from;
+		}
+
+		public int characteristics() {
+			return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+		}
+
+		public Comparator<? super Integer> getComparator() {
+			return null;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import com.jaspreetdhanjan.vecmath.Vec2;
+
+/**
+ * Sine and cosine used by the rotation methods of Vec2, Vec3, Mat4 and Quat.
+ *
+ * By default these call Math.sin and Math.cos. When fast trigonometry is enabled, they instead interpolate linearly in a 4096-entry table. The table index is computed in double precision, so the maximum absolute error is 3.6e-7 for every angle within +/-1e5 radians, as measured by TrigAccuracyCheck in the benchmarks module. Angles outside that range fall back to Math.sin and Math.cos.
+ */
+public class TrigUtil {
+	private static final int SIN_BITS = 12;
+	private static final int SIN_COUNT = 1 << SIN_BITS;
+	private static final int SIN_MASK = SIN_COUNT - 1;
+	private static final int QUARTER = SIN_COUNT / 4;
+	// The index is computed in double precision, as a float index loses the fraction between table entries for large angles
+	private static final double RAD_TO_INDEX = SIN_COUNT / (Math.PI * 2);
+	private static final double MAX_INDEX = 1e5 * RAD_TO_INDEX;
+	private static final float[] SIN_TABLE = new float[SIN_COUNT + 1];
+
+	static {
+		for (int i = 0; i <= SIN_COUNT; i++) {
+			SIN_TABLE[i] = (float) Math.sin(i * Math.PI * 2 / SIN_COUNT);
+		}
+	}
+
+	private static boolean fastTrig;
+
+	/**
+	 * Enables or disables fast trigonometry. This is intended to be set once at start-up, before any rotations are computed.
+	 * 
+	 * @param enabled
+	 *            true to use the table approximation, false to use Math.sin and Math.cos.
+	 */
+	public static void setFastTrig(boolean enabled) {
+		fastTrig = enabled;
+	}
+
+	/**
+	 * Checks if fast trigonometry is enabled.
+	 * 
+	 * @return the result.
+	 */
+	public static boolean isFastTrig() {
+		return fastTrig;
+	}
+
+	/**
+	 * Gets the sine of an angle, using the table approximation if fast trigonometry is enabled.
+	 * 
+	 * @param angle
+	 *            the angle, in radians.
+	 * 
+	 * @return the result.
+	 */
+	public static float sin(float angle) {
+		return fastTrig ? fastSin(angle) : (float) Math.sin(angle);
+	}
+
+	/**
+	 * Gets the cosine of an angle, using the table approximation if fast trigonometry is enabled.
+	 * 
+	 * @param angle
+	 *            the angle, in radians.
+	 * 
+	 * @return the result.
+	 */
+	public static float cos(float angle) {
+		return fastTrig ? fastCos(angle) : (float) Math.cos(angle);
+	}
+
+	/**
+	 * Gets the sine and cosine of an angle together, using the table approximation if fast trigonometry is enabled. With the table both values share one lookup.
+	 * 
+	 * @param angle
+	 *            the angle, in radians.
+	 * @param dest
+	 *            the vector where the result is stored: x is the sine and y is the cosine.
+	 * 
+	 * @return dest.
+	 */
+	public static Vec2 sinCos(float angle, Vec2 dest) {
+		long sinCos = sinCos(angle);
+		return dest.set(sinOf(sinCos), cosOf(sinCos));
+	}
+
+	/**
+	 * Gets the sine and cosine of an angle together, using the table approximation if fast trigonometry is enabled. Both values are packed into one long, so the rotation methods can read them into locals with sinOf() and cosOf() without allocating, and with the table both share one index computation.
+	 * 
+	 * @param angle
+	 *            the angle, in radians.
+	 * 
+	 * @return the sine in the high 32 bits and the cosine in the low 32 bits.
+	 */
+	public static long sinCos(float angle) {
+		if (fastTrig) {
+			double f = angle * RAD_TO_INDEX;
+			if (Math.abs(f) <= MAX_INDEX) {
+				double floor = Math.floor(f);
+				int i = (int) floor;
+				float frac = (float) (f - floor);
+				int s = i & SIN_MASK;
+				int c = (i + QUARTER) & SIN_MASK;
+				return pack(SIN_TABLE[s] + (SIN_TABLE[s + 1] - SIN_TABLE[s]) * frac, SIN_TABLE[c] + (SIN_TABLE[c + 1] - SIN_TABLE[c]) * frac);
+			}
+		}
+		return pack((float) Math.sin(angle), (float) Math.cos(angle));
+	}
+
+	/**
+	 * Gets the sine from the result of sinCos(float).
+	 * 
+	 * @param sinCos
+	 *            the packed sine and cosine.
+	 * 
+	 * @return the result.
+	 */
+	public static float sinOf(long sinCos) {
+		return Float.intBitsToFloat((int) (sinCos >>> 32));
+	}
+
+	/**
+	 * Gets the cosine from the result of sinCos(float).
+	 * 
+	 * @param sinCos
+	 *            the packed sine and cosine.
+	 * 
+	 * @return the result.
+	 */
+	public static float cosOf(long sinCos) {
+		return Float.intBitsToFloat((int) sinCos);
+	}
+
+	private static long pack(float sin, float cos) {
+		return (long) Float.floatToRawIntBits(sin) << 32 | Float.floatToRawIntBits(cos) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Gets the sine of an angle using the table approximation, regardless of whether fast trigonometry is enabled.
+	 * 
+	 * @param angle
+	 *            the angle, in radians.
+	 * 
+	 * @return the result.
+	 */
+	public static float fastSin(float angle) {
+		return lookup(angle * RAD_TO_INDEX, angle, false);
+	}
+
+	/**
+	 * Gets the cosine of an angle using the table approximation, regardless of whether fast trigonometry is enabled.
+	 * 
+	 * @param angle
+	 *            the angle, in radians.
+	 * 
+	 * @return the result.
+	 */
+	public static float fastCos(float angle) {
+		return lookup(angle * RAD_TO_INDEX + QUARTER, angle, true);
+	}
+
+	private static float lookup(double f, float angle, boolean cos) {
+		if (Math.abs(f) > MAX_INDEX) return (float) (cos ? Math.cos(angle) : Math.sin(angle));
+
+		double floor = Math.floor(f);
+		int i = (int) floor & SIN_MASK;
+		float frac = (float) (f - floor);
+		return SIN_TABLE[i] + (SIN_TABLE[i + 1] - SIN_TABLE[i]) * frac;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import com.jaspreetdhanjan.vecmath.Vec2;
+
+/**
+ * A mutable reduction of 2-element vectors to their count, sum, bounds and centroid, in the same way as Vec3Summary.
+ */
+public class Vec2Summary {
+	private long count;
+	private double sumX, sumY;
+	private float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+	private float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+
+	/**
+	 * Adds the vector (x, y) to the summary.
+	 * 
+	 * @param x
+	 *            the x coordinate.
+	 * @param y
+	 *            the y coordinate.
+	 */
+	public void accept(float x, float y) {
+		count++;
+		sumX += x;
+		sumY += y;
+		minX = Math.min(minX, x);
+		minY = Math.min(minY, y);
+		maxX = Math.max(maxX, x);
+		maxY = Math.max(maxY, y);
+	}
+
+	/**
+	 * Adds vector r to the summary.
+	 * 
+	 * @param r
+	 *            the vector to add.
+	 */
+	public void accept(Vec2 r) {
+		accept(r.x, r.y);
+	}
+
+	/**
+	 * Merges another summary into this one, as the combiner of a parallel reduction.
+	 * 
+	 * @param other
+	 *            the summary to merge.
+	 */
+	public void combine(Vec2Summary other) {
+		count += other.count;
+		sumX += other.sumX;
+		sumY += other.sumY;
+		minX = Math.min(minX, other.minX);
+		minY = Math.min(minY, other.minY);
+		maxX = Math.max(maxX, other.maxX);
+		maxY = Math.max(maxY, other.maxY);
+	}
+
+	/**
+	 * Gets the number of vectors in the summary.
+	 * 
+	 * @return the result.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the sum of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2 getSum(Vec2 dest) {
+		return dest.set((float) sumX, (float) sumY);
+	}
+
+	/**
+	 * Gets the minimum corner of the bounding rectangle of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2 getMin(Vec2 dest) {
+		return dest.set(minX, minY);
+	}
+
+	/**
+	 * Gets the maximum corner of the bounding rectangle of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2 getMax(Vec2 dest) {
+		return dest.set(maxX, maxY);
+	}
+
+	/**
+	 * Gets the centroid, or mean, of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec2 getCentroid(Vec2 dest) {
+		if (count == 0) return dest.set(0, 0);
+		return dest.set((float) (sumX / count), (float) (sumY / count));
+	}
+
+	public String toString() {
+		return "Vec2Summary(count=" + count + ", sum=(" + (float) sumX + ", " + (float) sumY + "), min=(" + minX + ", " + minY + "), max=(" + maxX + ", " + maxY + "))";
+	}
+}
\ No newline at end of file
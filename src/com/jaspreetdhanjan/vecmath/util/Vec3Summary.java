@@ -0,0 +1,129 @@
+package com.jaspreetdhanjan.vecmath.util;
+
+import com.jaspreetdhanjan.vecmath.Vec3;
+
+/**
+ * A mutable reduction of 3-element vectors to their count, sum, bounds and centroid, in the manner of java.util.DoubleSummaryStatistics. It is the container used by StreamUtil.summarise(), and can be used directly with IntStream.collect().
+ *
+ * The sums are held in double precision, so that the centroid of tens of millions of points is not dominated by rounding error. An empty summary has a sum and centroid of (0, 0, 0), a minimum of positive infinity and a maximum of negative infinity.
+ */
+public class Vec3Summary {
+	private long count;
+	private double sumX, sumY, sumZ;
+	private float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+	private float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+
+	/**
+	 * Adds the vector (x, y, z) to the summary.
+	 * 
+	 * @param x
+	 *            the x coordinate.
+	 * @param y
+	 *            the y coordinate.
+	 * @param z
+	 *            the z coordinate.
+	 */
+	public void accept(float x, float y, float z) {
+		count++;
+		sumX += x;
+		sumY += y;
+		sumZ += z;
+		minX = Math.min(minX, x);
+		minY = Math.min(minY, y);
+		minZ = Math.min(minZ, z);
+		maxX = Math.max(maxX, x);
+		maxY = Math.max(maxY, y);
+		maxZ = Math.max(maxZ, z);
+	}
+
+	/**
+	 * Adds vector r to the summary.
+	 * 
+	 * @param r
+	 *            the vector to add.
+	 */
+	public void accept(Vec3 r) {
+		accept(r.x, r.y, r.z);
+	}
+
+	/**
+	 * Merges another summary into this one, as the combiner of a parallel reduction.
+	 * 
+	 * @param other
+	 *            the summary to merge.
+	 */
+	public void combine(Vec3Summary other) {
+		count += other.count;
+		sumX += other.sumX;
+		sumY += other.sumY;
+		sumZ += other.sumZ;
+		minX = Math.min(minX, other.minX);
+		minY = Math.min(minY, other.minY);
+		minZ = Math.min(minZ, other.minZ);
+		maxX = Math.max(maxX, other.maxX);
+		maxY = Math.max(maxY, other.maxY);
+		maxZ = Math.max(maxZ, other.maxZ);
+	}
+
+	/**
+	 * Gets the number of vectors in the summary.
+	 * 
+	 * @return the result.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the sum of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 getSum(Vec3 dest) {
+		return dest.set((float) sumX, (float) sumY, (float) sumZ);
+	}
+
+	/**
+	 * Gets the minimum corner of the bounding box of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 getMin(Vec3 dest) {
+		return dest.set(minX, minY, minZ);
+	}
+
+	/**
+	 * Gets the maximum corner of the bounding box of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 getMax(Vec3 dest) {
+		return dest.set(maxX, maxY, maxZ);
+	}
+
+	/**
+	 * Gets the centroid, or mean, of the vectors in the summary.
+	 * 
+	 * @param dest
+	 *            the vector where the result is stored.
+	 * 
+	 * @return dest.
+	 */
+	public Vec3 getCentroid(Vec3 dest) {
+		if (count == 0) return dest.set(0, 0, 0);
+		return dest.set((float) (sumX / count), (float) (sumY / count), (float) (sumZ / count));
+	}
+
+	public String toString() {
+		return "Vec3Summary(count=" + count + ", sum=(" + (float) sumX + ", " + (float) sumY + ", " + (float) sumZ + "), min=(" + minX + ", " + minY + ", " + minZ + "), max=(" + maxX + ", " + maxY + ", " + maxZ + "))";
+	}
+}
\ No newline at end of file